@@ -2,15 +2,28 @@ package assessment;
 
 import java.util.LinkedHashMap;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.stream.IntStream;
 
 public class Airplane {
     private int airplaneID;
     private String airplaneModel;
-    private int businessSitsNumber;
-    private int economySitsNumber;
+    // Seats still for sale; reserve/release update these atomically so concurrent buyers cannot oversell
+    private final AtomicInteger businessSitsNumber = new AtomicInteger();
+    private final AtomicInteger economySitsNumber = new AtomicInteger();
     private int crewSitsNumber;
-    private Map<Character, List<String>> seatMap;
+
+    // Seat layout is the same on every airplane: rows A-J of seats 1-7, business from the front.
+    // Seat n (0-69, row-major) is bit n of taken, so the whole cabin is two longs.
+    public static final int ROWS = 10;
+    public static final int SEATS_PER_ROW = 7;
+    public static final int SEATS = ROWS * SEATS_PER_ROW;
+    private static final Map<Character, List<String>> SEAT_MAP = buildSeatMap();
+    private final AtomicLongArray taken = new AtomicLongArray(2);
+    // Seats from the front that are business class; economy follows for economyCabin seats
+    private volatile int businessCabin;
+    private volatile int economyCabin;
 
 
     public Airplane(int airplaneID, String airplaneModel, int businessSitsNumber, int economySitsNumber, int crewSitsNumber)
@@ -31,25 +44,194 @@ public class Airplane {
         if (totalPassengerSeats < 7 || totalPassengerSeats > 70 || totalPassengerSeats % 7 != 0) {
             throw new IllegalArgumentException("Total passenger seats must be 7-70 and divisible by 7.");
         }
-        buildSeatMap();
 
         this.airplaneID = airplaneID;
         this.airplaneModel = airplaneModel;
-        this.businessSitsNumber = businessSitsNumber;
-        this.economySitsNumber = economySitsNumber;
+        this.businessSitsNumber.set(businessSitsNumber);
+        this.economySitsNumber.set(economySitsNumber);
         this.crewSitsNumber = crewSitsNumber;
+        this.businessCabin = businessSitsNumber;
+        this.economyCabin = economySitsNumber;
+    }
+
+    private Airplane()
+    {
+
+    }
+
+    // Rebuilds an airplane from saved state; seat counts part way through sales would fail the constructor's checks
+    static Airplane restore(int airplaneID, String airplaneModel, int businessSitsNumber, int economySitsNumber, int crewSitsNumber)
+    {
+        return restore(airplaneID, airplaneModel, businessSitsNumber, economySitsNumber, crewSitsNumber,
+                businessSitsNumber, economySitsNumber);
+    }
+
+    // As above, keeping the cabin sizes so load factors carry over
+    static Airplane restore(int airplaneID, String airplaneModel, int businessSitsNumber, int economySitsNumber, int crewSitsNumber,
+                            int businessCabin, int economyCabin)
+    {
+        Airplane airplane = new Airplane();
+        airplane.airplaneID = airplaneID;
+        airplane.airplaneModel = airplaneModel;
+        airplane.businessSitsNumber.set(businessSitsNumber);
+        airplane.economySitsNumber.set(economySitsNumber);
+        airplane.crewSitsNumber = crewSitsNumber;
+        // seat assignments are not saved, so every seat in the cabins starts free
+        airplane.businessCabin = Math.max(0, Math.min(businessCabin, SEATS));
+        airplane.economyCabin = Math.max(0, Math.min(economyCabin, SEATS - airplane.businessCabin));
+        return airplane;
+    }
+
+    // Applies a recorded seat change without the total-seat checks of the setters
+    void restoreSeats(boolean business, int delta)
+    {
+        (business ? businessSitsNumber : economySitsNumber).addAndGet(delta);
     }
 
-    private void buildSeatMap() {
-        seatMap = new LinkedHashMap<>();
+    // Applies a recorded cabin resize: the cabin and its seats left both become seats, as in the setters
+    void restoreCabin(boolean business, int seats)
+    {
+        if (business) {
+            businessSitsNumber.set(seats);
+            businessCabin = Math.max(0, Math.min(seats, SEATS));
+        } else {
+            economySitsNumber.set(seats);
+            economyCabin = Math.max(0, Math.min(seats, SEATS - businessCabin));
+        }
+    }
+
+    private static Map<Character, List<String>> buildSeatMap() {
+        Map<Character, List<String>> seatMap = new LinkedHashMap<>();
         for (char row = 'A'; row <= 'J'; row++) {
             seatMap.put(row, IntStream.rangeClosed(1, 7)
                     .mapToObj(String::valueOf).toList());
         }
+        return Collections.unmodifiableMap(seatMap);
     }
 
+    // Row letter to seat numbers; shared by every airplane
     public Map<Character, List<String>> getSeatMap() {
-        return Collections.unmodifiableMap(seatMap);
+        return SEAT_MAP;
+    }
+
+    /**
+     * Takes the first free seat in the business cabin, front to back.
+     *
+     * @return the seat, like "A3", or null when every business seat is assigned
+     */
+    public String claimBusinessSeat()
+    {
+        return seatLabel(claimFirstFree(0, businessCabin));
+    }
+
+    /**
+     * Takes the first free seat in the economy cabin, front to back.
+     *
+     * @return the seat, like "C1", or null when every economy seat is assigned
+     */
+    public String claimEconomySeat()
+    {
+        int from = businessCabin;
+        return seatLabel(claimFirstFree(from, from + economyCabin));
+    }
+
+    /**
+     * Takes a particular seat.
+     *
+     * @return false when the seat is already assigned
+     * @throws IllegalArgumentException when seat is not a seat on this airplane, like "K1"
+     */
+    public boolean claimSeat(String seat)
+    {
+        int index = seatIndex(seat);
+        long bit = 1L << index;
+        int word = index >>> 6;
+        long current = taken.get(word);
+        while ((current & bit) == 0) {
+            long witnessed = taken.compareAndExchange(word, current, current | bit);
+            if (witnessed == current) {
+                return true;
+            }
+            current = witnessed;
+        }
+        return false;
+    }
+
+    // Frees an assigned seat; freeing a free seat does nothing
+    public void releaseSeat(String seat)
+    {
+        int index = seatIndex(seat);
+        long bit = 1L << index;
+        int word = index >>> 6;
+        long current = taken.get(word);
+        while ((current & bit) != 0) {
+            long witnessed = taken.compareAndExchange(word, current, current & ~bit);
+            if (witnessed == current) {
+                return;
+            }
+            current = witnessed;
+        }
+    }
+
+    public boolean isSeatTaken(String seat)
+    {
+        int index = seatIndex(seat);
+        return (taken.get(index >>> 6) & (1L << index)) != 0;
+    }
+
+    public int getAssignedSeatCount()
+    {
+        return Long.bitCount(taken.get(0)) + Long.bitCount(taken.get(1));
+    }
+
+    // Lowest free seat in [from, to), claimed with a compare-and-set on its word; -1 when there is none.
+    // Two words at most, each answered by one numberOfTrailingZeros, so this does not grow with the cabin.
+    private int claimFirstFree(int from, int to)
+    {
+        for (int word = from >>> 6; word <= (to - 1) >>> 6 && from < to; word++) {
+            long cabin = cabinMask(from, to, word);
+            long current = taken.get(word);
+            long free;
+            while ((free = cabin & ~current) != 0) {
+                long bit = Long.lowestOneBit(free);
+                long witnessed = taken.compareAndExchange(word, current, current | bit);
+                if (witnessed == current) {
+                    return (word << 6) + Long.numberOfTrailingZeros(bit);
+                }
+                current = witnessed;
+            }
+        }
+        return -1;
+    }
+
+    // Bits of word that fall in seats [from, to)
+    private static long cabinMask(int from, int to, int word)
+    {
+        int lo = Math.max(from - (word << 6), 0);
+        int hi = Math.min(to - (word << 6), 64);
+        if (lo >= hi) {
+            return 0;
+        }
+        long upTo = hi == 64 ? -1L : (1L << hi) - 1;
+        return upTo & (-1L << lo);
+    }
+
+    static int seatIndex(String seat)
+    {
+        if (seat == null || seat.length() != 2) {
+            throw new IllegalArgumentException("Invalid seat: " + seat);
+        }
+        int row = seat.charAt(0) - 'A';
+        int number = seat.charAt(1) - '1';
+        if (row < 0 || row >= ROWS || number < 0 || number >= SEATS_PER_ROW) {
+            throw new IllegalArgumentException("Invalid seat: " + seat);
+        }
+        return row * SEATS_PER_ROW + number;
+    }
+
+    static String seatLabel(int index)
+    {
+        return index < 0 ? null : (char) ('A' + index / SEATS_PER_ROW) + String.valueOf(index % SEATS_PER_ROW + 1);
     }
 
     public int getAirplaneID()
@@ -72,9 +254,35 @@ public class Airplane {
         this.airplaneModel = airplaneModel;
     }
 
+    // Seats in each cabin, sold or not
+    public int getBusinessCabin()
+    {
+        return businessCabin;
+    }
+
+    public int getEconomyCabin()
+    {
+        return economyCabin;
+    }
+
+    /**
+     * How full a cabin is, in basis points of its seats sold (0 to 10000); a cabin with no seats counts as full.
+     * Read from the cabin size and the seats left, which every reserve and release already keeps current,
+     * so dynamic pricing never counts tickets.
+     */
+    public int getLoadFactor(boolean business)
+    {
+        int cabin = business ? businessCabin : economyCabin;
+        if (cabin <= 0) {
+            return PricingEngine.BASIS_POINTS;
+        }
+        int sold = cabin - (business ? businessSitsNumber : economySitsNumber).get();
+        return (int) Math.max(0, Math.min((long) sold * PricingEngine.BASIS_POINTS / cabin, PricingEngine.BASIS_POINTS));
+    }
+
     public int getBusinessSitsNumber()
     {
-        return businessSitsNumber;
+        return businessSitsNumber.get();
     }
 
     public void setBusinessSitsNumber(int businessSitsNumber)
@@ -82,28 +290,172 @@ public class Airplane {
         if (businessSitsNumber < 0) {
             throw new IllegalArgumentException("Business seats cannot be negative.");
         }
-        int total = businessSitsNumber + this.economySitsNumber;
+        int total = businessSitsNumber + this.economySitsNumber.get();
         if (total < 7 || total > 70 || total % 7 != 0) {
             throw new IllegalArgumentException("Total passenger seats must be 7-70 and divisible by 7.");
         }
-        this.businessSitsNumber = businessSitsNumber;
+        checkNoSeatsAssigned();
+        BookingJournal.seatsSet(this, true, businessSitsNumber); // journalled first, so a refused resize is not made
+        this.businessSitsNumber.set(businessSitsNumber);
+        this.businessCabin = businessSitsNumber;
     }
 
     public int getEconomySitsNumber()
     {
-        return economySitsNumber;
+        return economySitsNumber.get();
     }
 
-    public void setEconomySitsNumber(int economSitsNumber)
+    public void setEconomySitsNumber(int economySitsNumber)
     {
         if (economySitsNumber < 0) {
             throw new IllegalArgumentException("Economy seats cannot be negative.");
         }
-        int total = this.businessSitsNumber + economySitsNumber;
+        int total = this.businessSitsNumber.get() + economySitsNumber;
         if (total < 7 || total > 70 || total % 7 != 0) {
             throw new IllegalArgumentException("Total passenger seats must be 7-70 and divisible by 7.");
         }
-        this.economySitsNumber = economSitsNumber;
+        checkNoSeatsAssigned();
+        BookingJournal.seatsSet(this, false, economySitsNumber);
+        this.economySitsNumber.set(economySitsNumber);
+        this.economyCabin = economySitsNumber;
+    }
+
+    // Resizing a cabin moves the business/economy boundary under seats already handed out
+    private void checkNoSeatsAssigned()
+    {
+        if (getAssignedSeatCount() > 0) {
+            throw new IllegalStateException("Cabins cannot be resized while seats are assigned.");
+        }
+    }
+
+    /**
+     * Takes one business seat if any are left. Safe to call from many threads at once.
+     *
+     * @return false when the cabin is sold out
+     */
+    public boolean reserveBusinessSeat()
+    {
+        if (!reserve(businessSitsNumber)) {
+            return false;
+        }
+        journalSeats(businessSitsNumber, true, -1);
+        return true;
+    }
+
+    /**
+     * Gives back a business seat taken by {@link #reserveBusinessSeat()}.
+     *
+     * @throws IllegalStateException when no business seat is taken, so there is nothing to give back
+     */
+    public void releaseBusinessSeat()
+    {
+        release(businessSitsNumber, businessCabin);
+        journalSeats(businessSitsNumber, true, 1);
+    }
+
+    /**
+     * Takes one economy seat if any are left. Safe to call from many threads at once.
+     *
+     * @return false when the cabin is sold out
+     */
+    public boolean reserveEconomySeat()
+    {
+        if (!reserve(economySitsNumber)) {
+            return false;
+        }
+        journalSeats(economySitsNumber, false, -1);
+        return true;
+    }
+
+    /**
+     * Gives back an economy seat taken by {@link #reserveEconomySeat()}.
+     *
+     * @throws IllegalStateException when no economy seat is taken, so there is nothing to give back
+     */
+    public void releaseEconomySeat()
+    {
+        release(economySitsNumber, economyCabin);
+        journalSeats(economySitsNumber, false, 1);
+    }
+
+    /**
+     * Takes up to count business seats in one step, for bulk bookings.
+     *
+     * @return how many seats were taken, less than count when the cabin runs out
+     */
+    public int reserveBusinessSeats(int count)
+    {
+        int taken = reserve(businessSitsNumber, count);
+        journalSeats(businessSitsNumber, true, -taken);
+        return taken;
+    }
+
+    /**
+     * Takes up to count economy seats in one step, for bulk bookings.
+     *
+     * @return how many seats were taken, less than count when the cabin runs out
+     */
+    public int reserveEconomySeats(int count)
+    {
+        int taken = reserve(economySitsNumber, count);
+        journalSeats(economySitsNumber, false, -taken);
+        return taken;
+    }
+
+    // The counter changes first, as the compare-and-set decides what was taken; a change the journal refuses is undone
+    private void journalSeats(AtomicInteger seats, boolean business, int delta)
+    {
+        try {
+            BookingJournal.seatsChanged(this, business, delta);
+        } catch (RuntimeException e) {
+            seats.addAndGet(-delta);
+            throw e;
+        }
+    }
+
+    private static boolean reserve(AtomicInteger seats)
+    {
+        // compare-and-decrement: retry only when another buyer got in between the read and the write
+        int left = seats.get();
+        while (left > 0) {
+            int witnessed = seats.compareAndExchange(left, left - 1);
+            if (witnessed == left) {
+                return true;
+            }
+            left = witnessed;
+        }
+        return false;
+    }
+
+    private static void release(AtomicInteger seats, int cabin)
+    {
+        // compare-and-increment, bounded so a double release cannot sell more seats than the cabin has
+        int left = seats.get();
+        while (left < cabin) {
+            int witnessed = seats.compareAndExchange(left, left + 1);
+            if (witnessed == left) {
+                return;
+            }
+            left = witnessed;
+        }
+        throw new IllegalStateException("Every seat in the cabin is already free.");
+    }
+
+    private static int reserve(AtomicInteger seats, int count)
+    {
+        if (count < 0) {
+            throw new IllegalArgumentException("Seat count cannot be negative.");
+        }
+        int left = seats.get();
+        while (left > 0 && count > 0) {
+            int taken = Math.min(left, count);
+            int witnessed = seats.compareAndExchange(left, left - taken);
+            if (witnessed == left) {
+                return taken;
+            }
+            left = witnessed;
+        }
+        return 0;
     }
 
     public int getCrewSitsNumber()
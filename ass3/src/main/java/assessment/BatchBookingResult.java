@@ -0,0 +1,50 @@
+package assessment;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of {@link BookingService#bookBatch(List)}: a receipt for every request that was booked
+ * and the reason for every one that was not, both keyed by the request's index in the batch.
+ */
+public class BatchBookingResult {
+    private final BookingReceipt[] receipts;
+    private final Map<Integer, String> failures;
+
+    public BatchBookingResult(BookingReceipt[] receipts, Map<Integer, String> failures)
+    {
+        this.receipts = receipts.clone();
+        this.failures = Collections.unmodifiableMap(failures);
+    }
+
+    // The receipt for the request at index, or null when that request failed
+    public BookingReceipt getReceipt(int index)
+    {
+        return receipts[index];
+    }
+
+    public List<BookingReceipt> getReceipts()
+    {
+        return Collections.unmodifiableList(Arrays.asList(receipts));
+    }
+
+    public Map<Integer, String> getFailures()
+    {
+        return failures;
+    }
+
+    public int getBookedCount()
+    {
+        return receipts.length - failures.size();
+    }
+
+    public String toString()
+    {
+        return "BatchBookingResult{" +
+                "booked=" + getBookedCount() +
+                ", failed=" + failures +
+                '}';
+    }
+}
@@ -0,0 +1,910 @@
+package assessment;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only event journal of everything that changes booking state, written through a memory-mapped file.
+ * While a journal is open, added flights and tickets, ticket status, hold, flight and class changes,
+ * completed sales, repriced fares and seat changes are each appended as one record. Opening a journal replays it first,
+ * rebuilding {@link FlightCollection} and {@link TicketCollection} as they were.
+ *
+ * <p>Record layout: payload length (int), CRC32 of the payload (int), payload (type byte + fields).
+ * A zero length or a bad checksum marks the end, so a record torn by a crash is dropped on replay
+ * and written over afterwards. Records reach the page cache as they are appended and so survive
+ * a process crash; {@link #force()} makes them survive power loss too.
+ *
+ * <p>Passengers are journalled without their card details: a sale keeps only a masked reference to the
+ * card, the last four digits, and never the security code.
+ *
+ * <p>A ticket's assigned seat is journalled with its status, so a sale or hold replays onto the same seat
+ * and sold tickets claim their seats on the airplane again.
+ *
+ * <p>Seat changes are journalled as deltas, so records from bookings on different flights that share
+ * an airplane replay to the same totals whatever order they were appended in.
+ *
+ * <p>The records of one booking, its seat changes and its sales, are collected between {@link #beginBooking()}
+ * and {@link #commitBooking()} and appended as a single booking record. A crash part way through a booking
+ * therefore replays all of it or none of it, never a seat taken with no sale behind it.
+ *
+ * <p>Opened with a commit window, the journal group-commits: a background thread forces everything
+ * appended so far in one go, once the window has passed since the first unforced record or once
+ * batch records are waiting, whichever comes first. Bookings wait in {@link #awaitDurable()} after
+ * releasing their locks, so all bookings made during one fsync share the next, and durable
+ * throughput grows with the number of concurrent bookers instead of being capped at one fsync each.
+ */
+public class BookingJournal implements AutoCloseable {
+
+    public static final long DEFAULT_REGION_SIZE = 64L << 20;
+
+    private static final int HEADER = 8;
+
+    private static final byte FLIGHT_ADDED_V1 = 1; // seats left but no cabin sizes; still replayed
+    private static final byte TICKET_ADDED_V1 = 2; // no base fare, which is taken to be the price, and no seat; still replayed
+    private static final byte TICKET_CHANGED_V1 = 3; // no seat; still replayed
+    private static final byte TICKET_SOLD = 4;
+    private static final byte SEATS_CHANGED = 5;
+    private static final byte SEATS_SET = 6;
+    private static final byte TICKET_REPRICED = 7;
+    private static final byte FLIGHT_ADDED = 8;
+    private static final byte BOOKING = 9; // the records of one booking, each as length (int) and payload
+    private static final byte TICKET_ADDED_V2 = 10; // no seat; still replayed
+    private static final byte TICKET_PRICED = 11; // a new base fare and the price quoted from it
+    private static final byte TICKET_ADDED = 12;
+    private static final byte TICKET_CHANGED = 13;
+
+    // Records of the booking this thread is part way through, held back until it commits; unset outside a booking
+    private static final ThreadLocal<ByteBuffer> booking = new ThreadLocal<>();
+
+    private static volatile BookingJournal active;
+
+    private final FileChannel channel;
+    private final long regionSize;
+    private final CRC32 crc = new CRC32();
+    private ByteBuffer scratch = ByteBuffer.allocate(512);
+    private MappedByteBuffer region;
+    private long position;
+    private int replayedEvents;
+
+    // Group commit; unused when commitWindowNanos is negative
+    private final long commitWindowNanos;
+    private final int commitBatch;
+    private final List<MappedByteBuffer> retired = new ArrayList<>(); // earlier regions with unforced records
+    private volatile long durable;
+    // Bookings wait for durable on a lock rather than this monitor, so a waiting virtual thread unmounts from its carrier.
+    // Whoever moves durable forward, or ends the journal, signals it after the change.
+    private final ReentrantLock durableLock = new ReentrantLock();
+    private final Condition madeDurable = durableLock.newCondition();
+    private int pendingRecords;
+    private long firstPendingNanos;
+    private volatile RuntimeException failure; // set by the first failed force and kept: the journal is done
+    private Thread flusher;
+
+    private BookingJournal(FileChannel channel, long regionSize, long commitWindowNanos, int commitBatch)
+    {
+        this.channel = channel;
+        this.regionSize = regionSize;
+        this.commitWindowNanos = commitWindowNanos;
+        this.commitBatch = commitBatch;
+    }
+
+    public static BookingJournal open(Path file) throws IOException
+    {
+        return open(file, DEFAULT_REGION_SIZE);
+    }
+
+    /**
+     * Replays the journal at file into the collections, then records every later change to it until closed.
+     * Call on startup, before any flights or tickets are loaded; only one journal can be open at a time.
+     *
+     * @param regionSize how much of the file is mapped at once; the file grows by this much when it fills
+     */
+    public static BookingJournal open(Path file, long regionSize) throws IOException
+    {
+        return open(file, regionSize, -1, 0);
+    }
+
+    /**
+     * Opens the journal with group commit, so that {@link #awaitDurable()} returns only once everything
+     * appended before the call has been forced to the storage device.
+     *
+     * @param commitWindow how long the first record of a batch may wait for others to join it
+     * @param commitBatch force early once this many records are waiting
+     */
+    public static BookingJournal open(Path file, Duration commitWindow, int commitBatch) throws IOException
+    {
+        if (commitWindow == null || commitWindow.isNegative()) {
+            throw new IllegalArgumentException("Commit window cannot be negative");
+        }
+        if (commitBatch <= 0) {
+            throw new IllegalArgumentException("Commit batch must be positive");
+        }
+        return open(file, DEFAULT_REGION_SIZE, commitWindow.toNanos(), commitBatch);
+    }
+
+    private static synchronized BookingJournal open(Path file, long regionSize, long commitWindowNanos, int commitBatch) throws IOException
+    {
+        if (regionSize < HEADER || regionSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Region size must be between 8 bytes and 2 GB");
+        }
+        if (active != null) {
+            throw new IllegalStateException("A booking journal is already open");
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            BookingJournal journal = new BookingJournal(channel, regionSize, commitWindowNanos, commitBatch);
+            journal.replay();
+            if (channel.size() > journal.position) {
+                // drop a torn tail so its leftovers can never be read back as records after ours
+                channel.truncate(journal.position);
+            }
+            journal.mapRegion(journal.position, regionSize);
+            journal.durable = journal.position;
+            if (commitWindowNanos >= 0) {
+                journal.flusher = new Thread(journal::flushLoop, "booking-journal-flusher");
+                journal.flusher.setDaemon(true);
+                journal.flusher.start();
+            }
+            active = journal;
+            return journal;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // Number of records applied when the journal was opened
+    public int getReplayedEvents()
+    {
+        return replayedEvents;
+    }
+
+    // Bytes of valid records in the journal
+    public synchronized long size()
+    {
+        return position;
+    }
+
+    // Bytes of records known to be on the storage device
+    public long durableSize()
+    {
+        return durable;
+    }
+
+    // Flushes appended records to the storage device
+    public synchronized void force()
+    {
+        forceAll();
+        durable = position;
+        pendingRecords = 0;
+        notifyAll();
+        signalDurable();
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        synchronized (BookingJournal.class) {
+            if (active == this) {
+                active = null;
+            }
+        }
+        synchronized (this) {
+            if (channel.isOpen()) {
+                forceAll();
+                durable = position;
+                channel.close();
+                notifyAll(); // wakes the flusher to exit
+            }
+        }
+        signalDurable(); // and any waiters
+        if (flusher != null && flusher != Thread.currentThread()) {
+            try {
+                flusher.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Waits until every record appended so far, by any thread, is on the storage device.
+     * Returns at once when no journal is open or it was opened without group commit.
+     * Call after releasing locks, so other bookings can join the same batch meanwhile.
+     *
+     * @throws IllegalStateException when the journal could not be forced
+     */
+    public static void awaitDurable()
+    {
+        BookingJournal journal = active;
+        if (journal != null && journal.flusher != null) {
+            journal.awaitDurable(journal.size());
+        }
+    }
+
+    private void awaitDurable(long upTo)
+    {
+        durableLock.lock();
+        try {
+            while (durable < upTo && failure == null && channel.isOpen()) {
+                // the booking is already made; keep waiting through interrupts so the caller is only acked once durable
+                madeDurable.awaitUninterruptibly();
+            }
+        } finally {
+            durableLock.unlock();
+        }
+        if (durable < upTo) {
+            throw new IllegalStateException("Booking journal could not be written", failure);
+        }
+    }
+
+    private void flushLoop()
+    {
+        while (true) {
+            long target;
+            List<MappedByteBuffer> toForce = new ArrayList<>();
+            synchronized (this) {
+                try {
+                    while (channel.isOpen() && pendingRecords == 0) {
+                        wait();
+                    }
+                    // let the batch fill until the window closes or it is full
+                    long remaining;
+                    while (channel.isOpen() && pendingRecords < commitBatch
+                            && (remaining = firstPendingNanos + commitWindowNanos - System.nanoTime()) > 0) {
+                        wait(remaining / 1_000_000, (int) (remaining % 1_000_000));
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (!channel.isOpen()) {
+                    return;
+                }
+                if (pendingRecords == 0) {
+                    continue; // forced by force() meanwhile
+                }
+                target = position;
+                pendingRecords = 0;
+                toForce.addAll(retired);
+                retired.clear();
+                toForce.add(region);
+            }
+            // appends carry on while the device syncs; they go into the next batch
+            RuntimeException error = null;
+            try {
+                for (MappedByteBuffer mapped : toForce) {
+                    mapped.force();
+                }
+            } catch (RuntimeException e) {
+                error = e;
+            }
+            if (error != null) {
+                failed(error);
+                continue;
+            }
+            synchronized (this) {
+                if (target > durable) {
+                    durable = target;
+                }
+            }
+            signalDurable();
+        }
+    }
+
+    private void signalDurable()
+    {
+        durableLock.lock();
+        try {
+            madeDurable.signalAll();
+        } finally {
+            durableLock.unlock();
+        }
+    }
+
+    // Records that records could not be forced; waiting bookings give up and new ones are refused from now on
+    synchronized void failed(RuntimeException error)
+    {
+        if (failure == null) {
+            failure = error;
+        }
+        signalDurable();
+    }
+
+    /**
+     * Refuses a booking once the open journal has failed to reach the storage device. Bookings call this
+     * under their locks before changing anything: a sale made after a failed force could never be
+     * acknowledged as durable, so it is turned away while nothing has been sold rather than made in
+     * memory and then reported as failed.
+     *
+     * @throws IllegalStateException when the journal has failed
+     */
+    static void ensureWritable()
+    {
+        BookingJournal journal = active;
+        if (journal != null && journal.failure != null) {
+            throw new IllegalStateException("Booking journal could not be written", journal.failure);
+        }
+    }
+
+    private void forceAll()
+    {
+        for (MappedByteBuffer mapped : retired) {
+            mapped.force();
+        }
+        retired.clear();
+        region.force();
+    }
+
+    /**
+     * Collects this thread's records from now on instead of appending them, so a booking reaches the journal
+     * in one piece through {@link #commitBooking()}. Bookings call this under their flight locks and
+     * {@link #endBooking()} in a finally block. Does nothing while no journal is open.
+     */
+    static void beginBooking()
+    {
+        if (active != null) {
+            ByteBuffer records = ByteBuffer.allocate(512);
+            records.put(BOOKING);
+            booking.set(records);
+        }
+    }
+
+    /**
+     * Appends the records collected since {@link #beginBooking()} as one booking record. A journal that cannot
+     * take it is marked failed, so later bookings are refused; the caller then undoes the booking, and what it
+     * records while undoing is collected and dropped by {@link #endBooking()}.
+     *
+     * @throws IllegalStateException when the booking could not be appended
+     */
+    static void commitBooking()
+    {
+        ByteBuffer records = booking.get();
+        BookingJournal journal = active;
+        if (records == null || records.position() == 1 || journal == null) {
+            return;
+        }
+        try {
+            journal.appendBooking(records);
+        } catch (RuntimeException e) {
+            journal.failed(e);
+            throw new IllegalStateException("Booking journal could not be written", e);
+        }
+        records.clear().put(BOOKING);
+    }
+
+    // Stops collecting; records not committed are dropped
+    static void endBooking()
+    {
+        booking.remove();
+    }
+
+    // Appends what append writes as one booking record, or as part of the booking this thread is already in
+    private static void appendAll(Runnable append)
+    {
+        if (booking.get() != null) {
+            append.run();
+            return;
+        }
+        beginBooking();
+        try {
+            append.run();
+            commitBooking();
+        } finally {
+            endBooking();
+        }
+    }
+
+    // Hooks called by the collections and booking code; they do nothing while no journal is open
+
+    // Batches are journalled before the caller publishes them, as one record, so a refused batch is not added at all
+
+    static void flightsAdded(List<Flight> flights)
+    {
+        BookingJournal journal = active;
+        if (journal != null) {
+            appendAll(() -> {
+                for (Flight flight : flights) {
+                    journal.appendFlight(flight);
+                }
+            });
+        }
+    }
+
+    static void ticketsAdded(List<Ticket> tickets)
+    {
+        BookingJournal journal = active;
+        if (journal != null) {
+            appendAll(() -> {
+                for (Ticket ticket : tickets) {
+                    journal.appendTicket(ticket);
+                }
+            });
+        }
+    }
+
+    static void ticketChanged(Ticket ticket)
+    {
+        BookingJournal journal = active;
+        if (journal != null) {
+            journal.appendTicketChange(ticket);
+        }
+    }
+
+    static void ticketSold(Ticket ticket)
+    {
+        BookingJournal journal = active;
+        if (journal != null) {
+            journal.appendSale(ticket);
+        }
+    }
+
+    // New base fares, fares[i] for tickets.get(i), journalled before the caller sets any of them
+    static void ticketsRepriced(List<Ticket> tickets, int[] fares)
+    {
+        BookingJournal journal = active;
+        if (journal != null) {
+            appendAll(() -> {
+                for (int i = 0; i < tickets.size(); i++) {
+                    journal.appendFare(tickets.get(i), fares[i]);
+                }
+            });
+        }
+    }
+
+    static void ticketPriced(Ticket ticket, int baseFare, int price)
+    {
+        BookingJournal journal = active;
+        if (journal != null) {
+            journal.appendPrice(ticket, baseFare, price);
+        }
+    }
+
+    static void seatsChanged(Airplane airplane, boolean business, int delta)
+    {
+        BookingJournal journal = active;
+        if (journal != null && delta != 0) {
+            journal.appendSeats(SEATS_CHANGED, airplane, business, delta);
+        }
+    }
+
+    static void seatsSet(Airplane airplane, boolean business, int seats)
+    {
+        BookingJournal journal = active;
+        if (journal != null) {
+            journal.appendSeats(SEATS_SET, airplane, business, seats);
+        }
+    }
+
+    private synchronized void appendFlight(Flight flight)
+    {
+        ByteBuffer out = begin(FLIGHT_ADDED);
+        out.putInt(flight.getFlightID());
+        putString(flight.getDepartTo());
+        putString(flight.getDepartFrom());
+        putString(flight.getCode());
+        putString(flight.getCompany());
+        putTime(flight.getDateFrom());
+        putTime(flight.getDateTo());
+        Airplane airplane = flight.getAirplane();
+        scratch.put((byte) (airplane == null ? 0 : 1));
+        if (airplane != null) {
+            scratch.putInt(airplane.getAirplaneID());
+            putString(airplane.getAirplaneModel());
+            scratch.putInt(airplane.getBusinessSitsNumber());
+            scratch.putInt(airplane.getEconomySitsNumber());
+            scratch.putInt(airplane.getCrewSitsNumber());
+            scratch.putInt(airplane.getBusinessCabin());
+            scratch.putInt(airplane.getEconomyCabin());
+        }
+        commit();
+    }
+
+    private synchronized void appendTicket(Ticket ticket)
+    {
+        ByteBuffer out = begin(TICKET_ADDED);
+        out.putInt(ticket.getTicket_id());
+        scratch.putInt(ticket.getPrice());
+        scratch.putInt(ticket.getBaseFare());
+        putTicketState(ticket);
+        putPassenger(ticket.getPassenger());
+        commit();
+    }
+
+    private synchronized void appendTicketChange(Ticket ticket)
+    {
+        begin(TICKET_CHANGED).putInt(ticket.getTicket_id());
+        putTicketState(ticket);
+        commit();
+    }
+
+    private synchronized void appendSale(Ticket ticket)
+    {
+        begin(TICKET_SOLD).putInt(ticket.getTicket_id());
+        scratch.putInt(ticket.getPrice());
+        putPassenger(ticket.getPassenger());
+        commit();
+    }
+
+    private synchronized void appendFare(Ticket ticket, int fare)
+    {
+        begin(TICKET_REPRICED).putInt(ticket.getTicket_id()).putInt(fare);
+        commit();
+    }
+
+    private synchronized void appendPrice(Ticket ticket, int baseFare, int price)
+    {
+        begin(TICKET_PRICED).putInt(ticket.getTicket_id()).putInt(baseFare).putInt(price);
+        commit();
+    }
+
+    private synchronized void appendSeats(byte type, Airplane airplane, boolean business, int seats)
+    {
+        begin(type).putInt(airplane.getAirplaneID()).put((byte) (business ? 1 : 0)).putInt(seats);
+        commit();
+    }
+
+    private synchronized void appendBooking(ByteBuffer records)
+    {
+        if (!channel.isOpen()) {
+            throw new IllegalStateException("Booking journal is closed");
+        }
+        write(records.duplicate().flip());
+    }
+
+    private void putTicketState(Ticket ticket)
+    {
+        scratch.put((byte) (ticket.getFlight() == null ? 0 : 1));
+        scratch.putInt(ticket.getFlight() == null ? 0 : ticket.getFlight().getFlightID());
+        scratch.put((byte) ((ticket.getClassVip() ? 1 : 0) | (ticket.ticketStatus() ? 2 : 0) | (ticket.isHeld() ? 4 : 0)));
+        scratch.put((byte) (ticket.getSeat() == null ? -1 : Airplane.seatIndex(ticket.getSeat())));
+    }
+
+    private void putPassenger(Passenger passenger)
+    {
+        scratch.put((byte) (passenger == null ? 0 : 1));
+        if (passenger != null) {
+            putString(passenger.getFirstName());
+            putString(passenger.getSecondName());
+            scratch.putInt(passenger.getAge());
+            putString(passenger.getGender());
+            putString(passenger.getEmail());
+            putString(passenger.getPhoneNumber());
+            putString(passenger.getPassport());
+            // card data stops at the sale: only the masked reference is kept, never the number or security code
+            putString(passenger.getCardReference());
+        }
+    }
+
+    private void putTime(Timestamp time)
+    {
+        scratch.put((byte) (time == null ? 0 : 1));
+        scratch.putLong(time == null ? 0 : time.getTime());
+    }
+
+    private void putString(String value)
+    {
+        if (value == null) {
+            scratch.putInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        ensure(4 + bytes.length);
+        scratch.putInt(bytes.length).put(bytes);
+    }
+
+    // Records are built in a reusable heap buffer and copied into the mapping in one go
+    private ByteBuffer begin(byte type)
+    {
+        // a booking's records are only collected here, so they cannot fail until the booking commits
+        if (booking.get() == null && !channel.isOpen()) {
+            throw new IllegalStateException("Booking journal is closed");
+        }
+        scratch.clear();
+        scratch.put(type);
+        return scratch;
+    }
+
+    private void ensure(int bytes)
+    {
+        // fixed-size fields of any record fit in the slack kept here; strings ask for their length
+        if (scratch.remaining() < bytes + 64) {
+            ByteBuffer bigger = ByteBuffer.allocate(Math.max(scratch.capacity() * 2, scratch.position() + bytes + 64));
+            scratch.flip();
+            bigger.put(scratch);
+            scratch = bigger;
+        }
+    }
+
+    private void commit()
+    {
+        scratch.flip();
+        ByteBuffer records = booking.get();
+        if (records == null) {
+            write(scratch);
+            return;
+        }
+        if (records.remaining() < Integer.BYTES + scratch.remaining()) {
+            ByteBuffer bigger = ByteBuffer.allocate(Math.max(records.capacity() * 2, records.position() + Integer.BYTES + scratch.remaining()));
+            records.flip();
+            bigger.put(records);
+            records = bigger;
+            booking.set(records);
+        }
+        records.putInt(scratch.remaining()).put(scratch);
+    }
+
+    // Appends one record with payload as its body
+    private void write(ByteBuffer payload)
+    {
+        int length = payload.remaining();
+        if (region.remaining() < HEADER + length) {
+            mapRegion(position, Math.max(regionSize, HEADER + length));
+        }
+        crc.reset();
+        crc.update(payload.duplicate());
+        int start = region.position();
+        // write the payload and checksum before the length, so a half-written record never looks complete
+        region.position(start + HEADER);
+        region.put(payload);
+        region.putInt(start + 4, (int) crc.getValue());
+        region.putInt(start, length);
+        position += HEADER + length;
+        if (flusher != null) {
+            // wake the flusher for the first record of a batch and when the batch fills, not for every record
+            if (++pendingRecords == 1) {
+                firstPendingNanos = System.nanoTime();
+                notifyAll();
+            } else if (pendingRecords == commitBatch) {
+                notifyAll();
+            }
+        }
+    }
+
+    private void mapRegion(long start, long size)
+    {
+        try {
+            if (region != null) {
+                retired.add(region);
+            }
+            region = channel.map(FileChannel.MapMode.READ_WRITE, start, size);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot grow booking journal", e);
+        }
+    }
+
+    private void replay() throws IOException
+    {
+        Replay state = new Replay();
+        long fileSize = channel.size();
+        ByteBuffer view = null;
+        long viewStart = 0;
+        long at = 0;
+        while (at + HEADER <= fileSize) {
+            if (view == null || at + HEADER > viewStart + view.limit()) {
+                viewStart = at;
+                view = channel.map(FileChannel.MapMode.READ_ONLY, at, Math.min(regionSize, fileSize - at));
+            }
+            int offset = (int) (at - viewStart);
+            int length = view.getInt(offset);
+            if (length <= 0 || at + HEADER + length > fileSize) {
+                break;
+            }
+            if (offset + HEADER + length > view.limit()) {
+                // record runs past this window; map a window starting at it
+                viewStart = at;
+                view = channel.map(FileChannel.MapMode.READ_ONLY, at, Math.min(Math.max(regionSize, HEADER + length), fileSize - at));
+                offset = 0;
+            }
+            ByteBuffer payload = view.duplicate();
+            payload.limit(offset + HEADER + length).position(offset + HEADER);
+            crc.reset();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != view.getInt(offset + 4)) {
+                break;
+            }
+            state.apply(payload);
+            replayedEvents++;
+            at += HEADER + length;
+        }
+        position = at;
+        state.publish();
+    }
+
+    // Replayed state, built privately and published to the collections in one step at the end
+    private static class Replay
+    {
+        final IntObjectMap<Airplane> airplanes = new IntObjectMap<>();
+        final IntObjectMap<Flight> flightsById = new IntObjectMap<>();
+        final IntObjectMap<Ticket> ticketsById = new IntObjectMap<>();
+        final ArrayList<Flight> flights = new ArrayList<>();
+        final ArrayList<Ticket> tickets = new ArrayList<>();
+
+        void apply(ByteBuffer in)
+        {
+            byte type = in.get();
+            switch (type) {
+                case FLIGHT_ADDED, FLIGHT_ADDED_V1 -> {
+                    int id = in.getInt();
+                    String departTo = getString(in);
+                    String departFrom = getString(in);
+                    String code = getString(in);
+                    String company = getString(in);
+                    Timestamp dateFrom = getTime(in);
+                    Timestamp dateTo = getTime(in);
+                    Airplane airplane = null;
+                    if (in.get() != 0) {
+                        int airplaneId = in.getInt();
+                        String model = getString(in);
+                        int business = in.getInt();
+                        int economy = in.getInt();
+                        int crew = in.getInt();
+                        int businessCabin = type == FLIGHT_ADDED ? in.getInt() : business;
+                        int economyCabin = type == FLIGHT_ADDED ? in.getInt() : economy;
+                        // flights sharing an airplane share its seats, as they did before the restart
+                        airplane = airplanes.get(airplaneId);
+                        if (airplane == null) {
+                            airplane = Airplane.restore(airplaneId, model, business, economy, crew, businessCabin, economyCabin);
+                            airplanes.put(airplaneId, airplane);
+                        }
+                    }
+                    Flight flight = Flight.createValidated(id, departTo, departFrom, code, company, dateFrom, dateTo, airplane);
+                    flights.add(flight);
+                    flightsById.put(id, flight);
+                }
+                case TICKET_ADDED, TICKET_ADDED_V2, TICKET_ADDED_V1 -> {
+                    int id = in.getInt();
+                    int price = in.getInt();
+                    int baseFare = type == TICKET_ADDED_V1 ? price : in.getInt();
+                    Flight flight = getFlight(in);
+                    int flags = in.get();
+                    String seat = type == TICKET_ADDED ? getSeat(in) : null;
+                    Ticket ticket = Ticket.restore(id, price, baseFare, flight, (flags & 1) != 0, (flags & 2) != 0, (flags & 4) != 0, getPassenger(in));
+                    ticket.setSeat(seat);
+                    tickets.add(ticket);
+                    if (ticketsById.get(id) == null) {
+                        ticketsById.put(id, ticket);
+                    }
+                }
+                case TICKET_CHANGED, TICKET_CHANGED_V1 -> {
+                    Ticket ticket = ticketsById.get(in.getInt());
+                    Flight flight = getFlight(in);
+                    int flags = in.get();
+                    String seat = type == TICKET_CHANGED ? getSeat(in) : null;
+                    if (ticket != null) {
+                        ticket.restoreState(flight, (flags & 1) != 0, (flags & 2) != 0, (flags & 4) != 0);
+                        ticket.setSeat(seat);
+                    }
+                }
+                case TICKET_SOLD -> {
+                    Ticket ticket = ticketsById.get(in.getInt());
+                    int price = in.getInt();
+                    Passenger passenger = getPassenger(in);
+                    if (ticket != null) {
+                        ticket.restoreSale(price, passenger);
+                    }
+                }
+                case TICKET_REPRICED -> {
+                    Ticket ticket = ticketsById.get(in.getInt());
+                    int fare = in.getInt();
+                    if (ticket != null) {
+                        ticket.reprice(fare);
+                    }
+                }
+                case TICKET_PRICED -> {
+                    Ticket ticket = ticketsById.get(in.getInt());
+                    int baseFare = in.getInt();
+                    int price = in.getInt();
+                    if (ticket != null) {
+                        ticket.restoreFare(baseFare, price);
+                    }
+                }
+                case SEATS_CHANGED, SEATS_SET -> {
+                    Airplane airplane = airplanes.get(in.getInt());
+                    boolean business = in.get() != 0;
+                    int seats = in.getInt();
+                    if (airplane != null && type == SEATS_SET) {
+                        airplane.restoreCabin(business, seats);
+                    } else if (airplane != null) {
+                        airplane.restoreSeats(business, seats);
+                    }
+                }
+                case BOOKING -> {
+                    while (in.hasRemaining()) {
+                        int length = in.getInt();
+                        ByteBuffer record = in.duplicate();
+                        record.limit(in.position() + length);
+                        apply(record);
+                        in.position(in.position() + length);
+                    }
+                }
+                default -> throw new IllegalStateException("Unknown journal record type " + type);
+            }
+        }
+
+        void publish()
+        {
+            // holds do not outlive the process that placed them: hand their seats back; sold tickets keep theirs
+            for (Ticket ticket : tickets) {
+                Airplane airplane = ticket.getFlight() == null ? null : ticket.getFlight().getAirplane();
+                if (ticket.isHeld()) {
+                    ticket.restoreState(ticket.getFlight(), ticket.getClassVip(), ticket.ticketStatus(), false);
+                    if (airplane != null) {
+                        airplane.restoreSeats(ticket.getClassVip(), 1);
+                    }
+                }
+                if (!ticket.ticketStatus() || airplane == null) {
+                    ticket.setSeat(null);
+                } else if (ticket.getSeat() != null) {
+                    airplane.claimSeat(ticket.getSeat());
+                }
+            }
+            if (!flights.isEmpty()) {
+                FlightCollection.addFlights(flights);
+            }
+            if (!tickets.isEmpty()) {
+                TicketCollection.addTickets(tickets);
+            }
+        }
+
+        private Flight getFlight(ByteBuffer in)
+        {
+            boolean present = in.get() != 0;
+            int flightId = in.getInt();
+            return present ? flightsById.get(flightId) : null;
+        }
+
+        private static String getSeat(ByteBuffer in)
+        {
+            int seat = in.get();
+            return seat < 0 ? null : Airplane.seatLabel(seat);
+        }
+
+        private static Passenger getPassenger(ByteBuffer in)
+        {
+            if (in.get() == 0) {
+                return null;
+            }
+            String firstName = getString(in);
+            String secondName = getString(in);
+            int age = in.getInt();
+            String gender = getString(in);
+            String email = getString(in);
+            String phoneNumber = getString(in);
+            String passport = getString(in);
+            String cardReference = getString(in);
+
+            return Passenger.restore(firstName, secondName, age, gender, email, phoneNumber, passport, cardReference);
+        }
+
+        private static Timestamp getTime(ByteBuffer in)
+        {
+            boolean present = in.get() != 0;
+            long millis = in.getLong();
+            return present ? new Timestamp(millis) : null;
+        }
+
+        private static String getString(ByteBuffer in)
+        {
+            int length = in.getInt();
+            if (length < 0) {
+                return null;
+            }
+            byte[] bytes = new byte[length];
+            in.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
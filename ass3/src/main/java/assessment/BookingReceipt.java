@@ -0,0 +1,45 @@
+package assessment;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Returned by {@link BookingService} once every ticket in a request is booked.
+ */
+public class BookingReceipt {
+    private final Passenger passenger;
+    private final List<Ticket> tickets;
+    private final int totalPrice;
+
+    public BookingReceipt(Passenger passenger, List<Ticket> tickets, int totalPrice)
+    {
+        this.passenger = passenger;
+        this.tickets = Collections.unmodifiableList(tickets);
+        this.totalPrice = totalPrice;
+    }
+
+    public Passenger getPassenger()
+    {
+        return passenger;
+    }
+
+    public List<Ticket> getTickets()
+    {
+        return tickets;
+    }
+
+    // Sum of the ticket prices after age discount and service tax
+    public int getTotalPrice()
+    {
+        return totalPrice;
+    }
+
+    public String toString()
+    {
+        return "BookingReceipt{" +
+                "tickets=" + tickets.size() +
+                ", total=" + totalPrice +
+                ", passenger=" + passenger +
+                '}';
+    }
+}
@@ -0,0 +1,42 @@
+package assessment;
+
+import java.util.Arrays;
+
+/**
+ * What a front end submits to {@link BookingService}: the tickets to buy, in travel order,
+ * and the passenger who will hold them.
+ */
+public class BookingRequest {
+    private final Passenger passenger;
+    private final int[] ticketIds;
+
+    public BookingRequest(Passenger passenger, int... ticketIds)
+    {
+        if (passenger == null) {
+            throw new IllegalArgumentException("Passenger cannot be null");
+        }
+        if (ticketIds == null || ticketIds.length == 0) {
+            throw new IllegalArgumentException("At least one ticket is required");
+        }
+        this.passenger = passenger;
+        this.ticketIds = ticketIds.clone();
+    }
+
+    public Passenger getPassenger()
+    {
+        return passenger;
+    }
+
+    public int[] getTicketIds()
+    {
+        return ticketIds.clone();
+    }
+
+    public String toString()
+    {
+        return "BookingRequest{" +
+                "tickets=" + Arrays.toString(ticketIds) +
+                ", passenger=" + passenger +
+                '}';
+    }
+}
@@ -0,0 +1,294 @@
+package assessment;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Embedded HTTP front end for search and booking, on the JDK's {@link HttpServer}.
+ * Every request runs on its own virtual thread, so thousands of slow clients cost a few KB each
+ * instead of a platform thread each. Handlers call the collections and {@link BookingService}
+ * directly. Binds to localhost only.
+ *
+ * <pre>
+ * GET  /flights?from=Melbourne&amp;to=Sydney       direct flights on a route
+ * GET  /routes?from=Melbourne&amp;to=Cairns&amp;transfers=1   city routes with up to that many stops
+ * GET  /tickets?flight=12                        unsold tickets on a flight
+ * POST /bookings                                 form fields: tickets=1,2 firstName secondName age gender
+ *                                                email phone passport cardNumber securityCode
+ * </pre>
+ * Responses are JSON. Bad input is 400, a sold or held ticket or full cabin is 409.
+ * <p>
+ * Launch with {@code -Dsun.net.httpserver.nodelay=true}. Responses go out as a header write and a body write;
+ * with Nagle on, the body waits for a delayed ACK (~40 ms on Linux) on every keep-alive request. The JDK reads
+ * the flag once, when the first HttpServer is created, for the whole JVM.
+ */
+public class BookingServer {
+
+    public static final int DEFAULT_PORT = 8080;
+    // Pending-connection queue; the OS default of 50 drops bursts of new clients
+    private static final int BACKLOG = 4096;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    public BookingServer(int port) throws IOException
+    {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), BACKLOG);
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/flights", handler("GET", BookingServer::searchFlights));
+        server.createContext("/routes", handler("GET", BookingServer::searchRoutes));
+        server.createContext("/tickets", handler("GET", BookingServer::availableTickets));
+        server.createContext("/bookings", handler("POST", BookingServer::book));
+    }
+
+    public static void main(String[] args) throws IOException
+    {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        BookingServer server = new BookingServer(port);
+        server.start();
+        System.out.println("Booking server listening on http://localhost:" + server.getPort());
+    }
+
+    public void start()
+    {
+        server.start();
+    }
+
+    // Stops accepting connections and gives in-flight requests up to a second to finish
+    public void stop()
+    {
+        server.stop(1);
+        executor.shutdown();
+    }
+
+    // The bound port, useful when started on port 0
+    public int getPort()
+    {
+        return server.getAddress().getPort();
+    }
+
+    private interface Endpoint {
+        String handle(Map<String, String> params);
+    }
+
+    private static HttpHandler handler(String method, Endpoint endpoint)
+    {
+        return exchange -> {
+            try {
+                if (!method.equals(exchange.getRequestMethod())) {
+                    exchange.getResponseHeaders().set("Allow", method);
+                    send(exchange, 405, error("Use " + method));
+                    return;
+                }
+                String body;
+                try {
+                    // a malformed escape in the query or form is the client's mistake, so it gets a 400 like any other
+                    Map<String, String> params = parseForm(exchange.getRequestURI().getRawQuery());
+                    if ("POST".equals(method)) {
+                        params.putAll(parseForm(readBody(exchange)));
+                    }
+                    body = endpoint.handle(params);
+                } catch (IllegalArgumentException e) {
+                    send(exchange, 400, error(e.getMessage()));
+                    return;
+                } catch (IllegalStateException e) {
+                    send(exchange, 409, error(e.getMessage()));
+                    return;
+                } catch (RuntimeException e) {
+                    send(exchange, 500, error("Internal error"));
+                    return;
+                }
+                send(exchange, 200, body);
+            } finally {
+                exchange.close();
+            }
+        };
+    }
+
+    private static String searchFlights(Map<String, String> params)
+    {
+        // getFlightsInfo takes the arrival city first
+        List<Flight> flights = FlightCollection.getFlightsInfo(required(params, "to"), required(params, "from"));
+        StringBuilder json = new StringBuilder("[");
+        for (Flight flight : flights) {
+            appendFlight(json.length() > 1 ? json.append(',') : json, flight);
+        }
+        return json.append(']').toString();
+    }
+
+    private static String searchRoutes(Map<String, String> params)
+    {
+        int transfers = params.containsKey("transfers") ? parseInt(params, "transfers") : 1;
+        StringBuilder json = new StringBuilder("[");
+        for (List<String> route : RouteEngine.findRoutes(required(params, "from"), required(params, "to"), transfers)) {
+            if (json.length() > 1) {
+                json.append(',');
+            }
+            json.append('[');
+            for (int i = 0; i < route.size(); i++) {
+                json.append(i > 0 ? "," : "").append(quote(route.get(i)));
+            }
+            json.append(']');
+        }
+        return json.append(']').toString();
+    }
+
+    private static String availableTickets(Map<String, String> params)
+    {
+        StringBuilder json = new StringBuilder("[");
+        for (Ticket ticket : TicketCollection.getAvailableTickets(parseInt(params, "flight"))) {
+            appendTicket(json.length() > 1 ? json.append(',') : json, ticket);
+        }
+        return json.append(']').toString();
+    }
+
+    private static String book(Map<String, String> params)
+    {
+        String[] ids = required(params, "tickets").split(",");
+        int[] ticketIds = new int[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            try {
+                ticketIds[i] = Integer.parseInt(ids[i].trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid ticket id: " + ids[i]);
+            }
+        }
+
+        Passenger passenger = new Passenger();
+        passenger.setFirstName(required(params, "firstName"));
+        passenger.setSecondName(required(params, "secondName"));
+        passenger.setAge(parseInt(params, "age"));
+        passenger.setGender(required(params, "gender"));
+        passenger.setEmail(required(params, "email"));
+        passenger.setPhoneNumber(required(params, "phone"));
+        passenger.setPassport(required(params, "passport"));
+        passenger.setCardNumber(required(params, "cardNumber"));
+        passenger.setSecurityCode(parseInt(params, "securityCode"));
+
+        BookingReceipt receipt = BookingService.book(new BookingRequest(passenger, ticketIds));
+        StringBuilder json = new StringBuilder("{\"total\":").append(receipt.getTotalPrice()).append(",\"tickets\":[");
+        for (int i = 0; i < receipt.getTickets().size(); i++) {
+            appendTicket(i > 0 ? json.append(',') : json, receipt.getTickets().get(i));
+        }
+        return json.append("]}").toString();
+    }
+
+    private static void appendFlight(StringBuilder json, Flight flight)
+    {
+        json.append("{\"id\":").append(flight.getFlightID())
+                .append(",\"from\":").append(quote(flight.getDepartFrom()))
+                .append(",\"to\":").append(quote(flight.getDepartTo()))
+                .append(",\"code\":").append(quote(flight.getCode()))
+                .append(",\"company\":").append(quote(flight.getCompany()))
+                .append(",\"departure\":").append(quote(flight.getDateFrom() == null ? null : flight.getDateFrom().toString()))
+                .append(",\"arrival\":").append(quote(flight.getDateTo() == null ? null : flight.getDateTo().toString()))
+                .append('}');
+    }
+
+    private static void appendTicket(StringBuilder json, Ticket ticket)
+    {
+        json.append("{\"id\":").append(ticket.getTicket_id())
+                .append(",\"flight\":").append(ticket.getFlight() == null ? "null" : String.valueOf(ticket.getFlight().getFlightID()))
+                .append(",\"price\":").append(ticket.getPrice())
+                .append(",\"business\":").append(ticket.getClassVip())
+                .append(",\"sold\":").append(ticket.ticketStatus())
+                .append('}');
+    }
+
+    private static String error(String message)
+    {
+        return "{\"error\":" + quote(message) + "}";
+    }
+
+    static String quote(String value)
+    {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder quoted = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> quoted.append("\\\"");
+                case '\\' -> quoted.append("\\\\");
+                case '\n' -> quoted.append("\\n");
+                case '\r' -> quoted.append("\\r");
+                case '\t' -> quoted.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        quoted.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        quoted.append(c);
+                    }
+                }
+            }
+        }
+        return quoted.append('"').toString();
+    }
+
+    private static String required(Map<String, String> params, String name)
+    {
+        String value = params.get(name);
+        if (value == null || value.trim().isEmpty()) {
+            throw new IllegalArgumentException("Missing parameter: " + name);
+        }
+        return value;
+    }
+
+    private static int parseInt(Map<String, String> params, String name)
+    {
+        String value = required(params, name);
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Parameter " + name + " must be a number");
+        }
+    }
+
+    private static Map<String, String> parseForm(String encoded)
+    {
+        Map<String, String> params = new HashMap<>();
+        if (encoded == null || encoded.isEmpty()) {
+            return params;
+        }
+        for (String pair : encoded.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            params.put(name, value);
+        }
+        return params;
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException
+    {
+        try (InputStream in = exchange.getRequestBody()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException
+    {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
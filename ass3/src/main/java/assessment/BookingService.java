@@ -0,0 +1,455 @@
+package assessment;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Programmatic booking with no console I/O, so any number of front ends can book from one JVM.
+ * {@link TicketSystem} collects input interactively and then books through here.
+ */
+public class BookingService {
+
+    private static volatile PricingEngine pricing = PricingEngine.STANDARD;
+
+    /**
+     * Sets the fare rules tickets are sold under. An engine with load bands turns on dynamic pricing:
+     * each sale is priced from how full its cabin is at that moment.
+     */
+    public static void setPricing(PricingEngine engine)
+    {
+        if (engine == null) {
+            throw new IllegalArgumentException("Pricing engine is required");
+        }
+        pricing = engine;
+    }
+
+    public static PricingEngine getPricing()
+    {
+        return pricing;
+    }
+
+    /**
+     * What passenger would pay for ticket right now. The load factor is read from the airplane's seat
+     * counters, so quoting costs the same however many tickets the flight has.
+     */
+    public static int quote(Ticket ticket, Passenger passenger)
+    {
+        Flight flight = ticket.getFlight();
+        return quote(ticket, flight == null ? null : flight.getAirplane(), passenger);
+    }
+
+    static int quote(Ticket ticket, Airplane airplane, Passenger passenger)
+    {
+        boolean classVip = ticket.getClassVip();
+        int loadFactor = airplane == null ? 0 : airplane.getLoadFactor(classVip);
+        return pricing.quote(ticket.getBaseFare(), passenger.getAge(), classVip, loadFactor);
+    }
+
+    /**
+     * Books every ticket in the request for its passenger, or none of them.
+     * The flights involved are locked through {@link FlightLocks} in one global order, so requests for
+     * overlapping itineraries never deadlock whatever order they list their tickets in.
+     *
+     * When a group-commit journal is open, returns only once the booking is on disk.
+     * If any leg cannot be sold, the legs already sold are put back and every seat taken is given back.
+     *
+     * @throws IllegalArgumentException when a ticket, its flight or its airplane cannot be found
+     * @throws IllegalStateException when a ticket is already booked, on hold or its cabin is sold out, or the
+     *                               journal has failed; no seat is kept and no ticket is changed in that case
+     */
+    public static BookingReceipt book(BookingRequest request)
+    {
+        if (request == null) {
+            throw new IllegalArgumentException("Booking request is required");
+        }
+
+        int[] ticketIds = request.getTicketIds();
+        Ticket[] tickets = new Ticket[ticketIds.length];
+        Flight[] flights = new Flight[ticketIds.length];
+        Set<Integer> seen = new HashSet<>();
+        for (int i = 0; i < ticketIds.length; i++) {
+            if (!seen.add(ticketIds[i])) {
+                throw new IllegalArgumentException("Ticket " + ticketIds[i] + " is requested twice");
+            }
+            tickets[i] = TicketCollection.getTicketInfo(ticketIds[i]);
+            flights[i] = resolveFlight(ticketIds[i], tickets[i]);
+        }
+
+        int[] flightIds = new int[flights.length];
+        for (int i = 0; i < flights.length; i++) {
+            flightIds[i] = flights[i].getFlightID();
+        }
+        BookingReceipt receipt;
+        List<ReentrantLock> held = FlightLocks.lockAll(flightIds);
+        try {
+            BookingJournal.ensureWritable();
+            // another request may have sold or held a ticket between the lookup and taking the locks
+            for (int i = 0; i < tickets.length; i++) {
+                String unavailable = unavailableReason(tickets[i]);
+                if (unavailable != null) {
+                    throw new IllegalStateException(unavailable);
+                }
+            }
+            // quoted before any seat is taken, so the load surcharge counts the seats sold before this booking only
+            Passenger passenger = request.getPassenger();
+            int[] prices = new int[tickets.length];
+            for (int i = 0; i < tickets.length; i++) {
+                prices[i] = quote(tickets[i], flights[i].getAirplane(), passenger);
+            }
+            BookingJournal.beginBooking();
+            reserveSeats(tickets, flights);
+
+            Sale[] sales = new Sale[tickets.length];
+            try {
+                for (int i = 0; i < tickets.length; i++) {
+                    sales[i] = confirm(tickets[i], flights[i], passenger, prices[i]);
+                }
+                BookingJournal.commitBooking();
+            } catch (RuntimeException e) {
+                // the failed step has put itself back; undo the legs sold before it and give back every seat taken
+                for (int i = tickets.length - 1; i >= 0; i--) {
+                    if (sales[i] != null) {
+                        sales[i].undo();
+                    }
+                    releaseSeat(flights[i].getAirplane(), tickets[i].getClassVip());
+                }
+                throw e;
+            }
+
+            List<Ticket> booked = new ArrayList<>(tickets.length);
+            int totalPrice = 0;
+            for (Sale sale : sales) {
+                totalPrice += sale.getPrice();
+                booked.add(sale.ticket);
+            }
+            receipt = new BookingReceipt(passenger, booked, totalPrice);
+        } finally {
+            BookingJournal.endBooking();
+            FlightLocks.unlockAll(held);
+        }
+        // outside the locks, so bookings on the same flights can join this fsync
+        BookingJournal.awaitDurable();
+        return receipt;
+    }
+
+    /**
+     * Books many independent requests at once, as agency partners send them.
+     * Single-ticket requests are grouped by flight: each flight and its airplane are looked up once,
+     * the flight is locked once, and the group's seats are reserved in one step per cabin, so the
+     * work grows with the number of flights rather than the number of tickets. Requests for more
+     * than one ticket go through {@link #book(BookingRequest)} after the groups, so they stay all-or-nothing.
+     * A request that cannot be booked does not stop the rest of the batch.
+     */
+    public static BatchBookingResult bookBatch(List<BookingRequest> requests)
+    {
+        if (requests == null) {
+            throw new IllegalArgumentException("Booking requests are required");
+        }
+
+        BookingRequest[] batch = requests.toArray(new BookingRequest[0]);
+        BookingReceipt[] receipts = new BookingReceipt[batch.length];
+        Map<Integer, String> failures = new TreeMap<>();
+        Ticket[] tickets = new Ticket[batch.length];
+        Map<Integer, List<Integer>> byFlight = new LinkedHashMap<>(); // flight id -> request indexes
+        List<Integer> itineraries = new ArrayList<>();
+        Set<Integer> seen = new HashSet<>();
+
+        for (int i = 0; i < batch.length; i++) {
+            BookingRequest request = batch[i];
+            if (request == null) {
+                failures.put(i, "Booking request is required");
+                continue;
+            }
+            int[] ticketIds = request.getTicketIds();
+            if (ticketIds.length > 1) {
+                itineraries.add(i);
+                continue;
+            }
+            int ticketId = ticketIds[0];
+            Ticket ticket = TicketCollection.getTicketInfo(ticketId);
+            if (ticket == null) {
+                failures.put(i, "Ticket " + ticketId + " does not exist");
+            } else if (ticket.getFlight() == null) {
+                failures.put(i, "Ticket " + ticketId + " has no associated flight");
+            } else if (!seen.add(ticketId)) {
+                failures.put(i, "Ticket " + ticketId + " is requested twice");
+            } else {
+                tickets[i] = ticket;
+                byFlight.computeIfAbsent(ticket.getFlight().getFlightID(), id -> new ArrayList<>()).add(i);
+            }
+        }
+
+        for (Map.Entry<Integer, List<Integer>> group : byFlight.entrySet()) {
+            bookGroup(group.getKey(), group.getValue(), batch, tickets, receipts, failures);
+        }
+        for (int i : itineraries) {
+            try {
+                receipts[i] = book(batch[i]);
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                failures.put(i, e.getMessage());
+            }
+        }
+        BookingJournal.awaitDurable();
+        return new BatchBookingResult(receipts, failures);
+    }
+
+    private static void bookGroup(int flightId, List<Integer> indexes, BookingRequest[] batch, Ticket[] tickets,
+                                  BookingReceipt[] receipts, Map<Integer, String> failures)
+    {
+        Flight flight = FlightCollection.getFlightInfo(flightId);
+        String missing = flight == null ? "Flight information not found"
+                : flight.getAirplane() == null ? "Airplane information not found" : null;
+        if (missing != null) {
+            for (int i : indexes) {
+                failures.put(i, missing + " for ticket " + tickets[i].getTicket_id());
+            }
+            return;
+        }
+
+        ReentrantLock lock = FlightLocks.forFlight(flightId);
+        lock.lock();
+        try {
+            try {
+                BookingJournal.ensureWritable();
+            } catch (IllegalStateException e) {
+                for (int i : indexes) {
+                    failures.put(i, e.getMessage());
+                }
+                return;
+            }
+            List<Integer> business = new ArrayList<>();
+            List<Integer> economy = new ArrayList<>();
+            for (int i : indexes) {
+                String unavailable = unavailableReason(tickets[i]);
+                if (unavailable != null) {
+                    failures.put(i, unavailable);
+                } else {
+                    (tickets[i].getClassVip() ? business : economy).add(i);
+                }
+            }
+
+            confirmGroup(business, true, flight, batch, tickets, receipts, failures);
+            confirmGroup(economy, false, flight, batch, tickets, receipts, failures);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Reserves one cabin's seats for its requests in one step and sells them in batch order. A request whose sale
+    // fails is recorded and its seat passes to the next one; seats still unused at the end are given back.
+    // The cabin's seat change and sales are journalled as one booking.
+    private static void confirmGroup(List<Integer> indexes, boolean classVip, Flight flight, BookingRequest[] batch,
+                                     Ticket[] tickets, BookingReceipt[] receipts, Map<Integer, String> failures)
+    {
+        if (indexes.isEmpty()) {
+            return;
+        }
+        Airplane airplane = flight.getAirplane();
+        // quoted before the cabin's seats are taken, so no request pays a load surcharge for the batch's own seats
+        List<Integer> quoted = new ArrayList<>();
+        int[] prices = new int[batch.length];
+        for (int i : indexes) {
+            try {
+                prices[i] = quote(tickets[i], airplane, batch[i].getPassenger());
+                quoted.add(i);
+            } catch (RuntimeException e) {
+                failures.put(i, e.getMessage());
+            }
+        }
+        if (quoted.isEmpty()) {
+            return;
+        }
+        List<Integer> sold = new ArrayList<>();
+        List<Sale> sales = new ArrayList<>();
+        int seats = 0;
+        BookingJournal.beginBooking();
+        try {
+            // earlier requests in the batch get the seats when a cabin runs short
+            seats = classVip ? airplane.reserveBusinessSeats(quoted.size()) : airplane.reserveEconomySeats(quoted.size());
+            for (int i : quoted) {
+                if (sales.size() == seats) {
+                    failures.put(i, soldOut(classVip, flight.getFlightID()));
+                    continue;
+                }
+                Passenger passenger = batch[i].getPassenger();
+                try {
+                    Sale sale = confirm(tickets[i], flight, passenger, prices[i]);
+                    receipts[i] = new BookingReceipt(passenger, List.of(tickets[i]), sale.getPrice());
+                    sold.add(i);
+                    sales.add(sale);
+                } catch (RuntimeException e) {
+                    failures.put(i, e.getMessage()); // the ticket is as it was before the sale
+                }
+            }
+            try {
+                BookingJournal.commitBooking();
+            } catch (IllegalStateException e) {
+                // the journal could not take the cabin's sales, so none of them are made
+                for (int n = sales.size() - 1; n >= 0; n--) {
+                    sales.get(n).undo();
+                    receipts[sold.get(n)] = null;
+                    failures.put(sold.get(n), e.getMessage());
+                }
+                sales.clear();
+            }
+        } finally {
+            for (int left = seats - sales.size(); left > 0; left--) {
+                releaseSeat(airplane, classVip);
+            }
+            BookingJournal.endBooking();
+        }
+    }
+
+    /**
+     * Marks a ticket whose seat is already reserved as sold to passenger. A ticket without a seat from a hold
+     * is given the first free one in its cabin. The caller quotes price before reserving the seat, so the load
+     * surcharge does not count the sale's own seat. The seat is claimed before the ticket changes; if the sale
+     * still fails part way the ticket is put back as it was and its claimed seat freed.
+     * The reserved seat count is the caller's to give back. The caller holds the flight's booking lock.
+     *
+     * @return the sale, to read the final price from or undo if a later step of the booking fails
+     */
+    static Sale confirm(Ticket ticket, Flight flight, Passenger passenger, int price)
+    {
+        Airplane airplane = flight.getAirplane();
+        Sale sale = new Sale(ticket, airplane);
+        String seat = ticket.getSeat();
+        if (seat == null) {
+            seat = claimSeat(airplane, ticket.getClassVip());
+            sale.claimedSeat = seat;
+        }
+        try {
+            ticket.setSeat(seat);
+            ticket.setPassenger(passenger);
+            ticket.setFlight(flight);
+            ticket.setQuotedPrice(price);
+            ticket.setTicketStatus(true);
+            BookingJournal.ticketSold(ticket);
+        } catch (RuntimeException e) {
+            sale.undo();
+            throw e;
+        }
+        return sale;
+    }
+
+    // A ticket's state before confirm sold it, so a booking that fails after the sale can put the ticket back
+    static final class Sale
+    {
+        final Ticket ticket;
+        private final Airplane airplane;
+        private final Passenger passenger;
+        private final Flight flight;
+        private final int price;
+        private String claimedSeat; // the seat confirm claimed, null when it came with a hold
+
+        private Sale(Ticket ticket, Airplane airplane)
+        {
+            this.ticket = ticket;
+            this.airplane = airplane;
+            this.passenger = ticket.getPassenger();
+            this.flight = ticket.getFlight();
+            this.price = ticket.getPrice();
+        }
+
+        // The price the ticket was sold at
+        int getPrice()
+        {
+            return ticket.getPrice();
+        }
+
+        // Unsells the ticket and frees the seat confirm claimed; the reserved seat count is left to the caller
+        void undo()
+        {
+            ticket.setTicketStatus(false);
+            ticket.setFlight(flight);
+            ticket.restoreSale(price, passenger);
+            if (claimedSeat != null) {
+                ticket.setSeat(null);
+                airplane.releaseSeat(claimedSeat);
+            }
+        }
+    }
+
+    // Assigns a free seat in the cabin; one is always free while a reserved count is in hand
+    static String claimSeat(Airplane airplane, boolean classVip)
+    {
+        String seat = classVip ? airplane.claimBusinessSeat() : airplane.claimEconomySeat();
+        if (seat == null) {
+            throw new IllegalStateException(classVip ? "No business class seats available" : "No economy class seats available");
+        }
+        return seat;
+    }
+
+    // Why a ticket cannot be sold right now, or null when it can
+    static String unavailableReason(Ticket ticket)
+    {
+        if (ticket.ticketStatus()) {
+            return "Ticket " + ticket.getTicket_id() + " is already booked";
+        }
+        if (ticket.isHeld()) {
+            return "Ticket " + ticket.getTicket_id() + " is on hold";
+        }
+        return null;
+    }
+
+    static Flight resolveFlight(int ticketId, Ticket ticket)
+    {
+        if (ticket == null) {
+            throw new IllegalArgumentException("Ticket " + ticketId + " does not exist");
+        }
+        String unavailable = unavailableReason(ticket);
+        if (unavailable != null) {
+            throw new IllegalStateException(unavailable);
+        }
+        if (ticket.getFlight() == null) {
+            throw new IllegalArgumentException("Ticket " + ticketId + " has no associated flight");
+        }
+        Flight flight = FlightCollection.getFlightInfo(ticket.getFlight().getFlightID());
+        if (flight == null) {
+            throw new IllegalArgumentException("Flight information not found for ticket " + ticketId);
+        }
+        if (flight.getAirplane() == null) {
+            throw new IllegalArgumentException("Airplane information not found for ticket " + ticketId);
+        }
+        return flight;
+    }
+
+    // Takes one seat per ticket, giving back the ones already taken if any cabin is sold out
+    private static void reserveSeats(Ticket[] tickets, Flight[] flights)
+    {
+        for (int i = 0; i < tickets.length; i++) {
+            boolean classVip = tickets[i].getClassVip();
+            if (!reserveSeat(flights[i].getAirplane(), classVip)) {
+                for (int j = i - 1; j >= 0; j--) {
+                    releaseSeat(flights[j].getAirplane(), tickets[j].getClassVip());
+                }
+                throw new IllegalStateException(soldOut(classVip, flights[i].getFlightID()));
+            }
+        }
+    }
+
+    static String soldOut(boolean classVip, int flightId)
+    {
+        return (classVip ? "No business class seats available" : "No economy class seats available") + " on flight " + flightId + ".";
+    }
+
+    static boolean reserveSeat(Airplane airplane, boolean classVip)
+    {
+        return classVip ? airplane.reserveBusinessSeat() : airplane.reserveEconomySeat();
+    }
+
+    static void releaseSeat(Airplane airplane, boolean classVip)
+    {
+        if (classVip) {
+            airplane.releaseBusinessSeat();
+        } else {
+            airplane.releaseEconomySeat();
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package assessment;
 
 import java.sql.Timestamp;
+import java.util.regex.Pattern;
 
 public class Flight {
     private int flightID;
@@ -11,6 +12,8 @@ public class Flight {
     private Timestamp dateFrom;
     private Timestamp dateTo;
     Airplane airplane;
+    private static final Pattern DATE_PATTERN = Pattern.compile("\\d{4}-\\d{2}-\\d{2}");
+    private static final Pattern TIME_PATTERN = Pattern.compile("\\d{2}:\\d{2}:\\d{2}");
     
     public Flight()
     {
@@ -18,50 +21,65 @@ public class Flight {
     }
 
     public Flight(int flight_id, String departTo, String departFrom, String code, String company, Timestamp dateFrom,Timestamp dateTo, Airplane airplane)
+    {
+        validate(flight_id, departTo, departFrom, code, company, dateFrom, dateTo, airplane);
+
+        //check if flight exists in the system
+        if (FlightCollection.getFlightInfo(flight_id) != null)
+        {
+            throw new IllegalArgumentException("Flight Already in the system");
+        }
+
+        this.flightID=flight_id;
+        this.departTo = departTo;
+        this.departFrom = departFrom;
+        this.code = code;
+        this.company = company;
+        this.airplane = airplane;
+        this.dateTo = dateTo;
+        this.dateFrom = dateFrom;
+    }
+
+    // Field checks shared by the constructor and FlightLoader; the duplicate id check is left to the caller
+    static void validate(int flight_id, String departTo, String departFrom, String code, String company, Timestamp dateFrom, Timestamp dateTo, Airplane airplane)
     {
         if (flight_id == 0 || departFrom == null || departTo == null || code == null || company == null || airplane == null || dateFrom == null || dateTo == null)
         {
             throw new IllegalArgumentException("All fields are required");
         }
 
-        // Date format checker
-        String fmtFrom = dateFrom.toString().split(" ")[0].trim();
-        String fmtTo   = dateTo.toString().split(" ")[0].trim();
+        String[] partsFrom = dateFrom.toString().split(" ");
+        String[] partsTo   = dateTo.toString().split(" ");
 
-        if (!fmtFrom.matches("\\d{4}-\\d{2}-\\d{2}") || !fmtTo  .matches("\\d{4}-\\d{2}-\\d{2}"))
+        // Date format checker
+        if (!DATE_PATTERN.matcher(partsFrom[0].trim()).matches() || !DATE_PATTERN.matcher(partsTo[0].trim()).matches())
         {
             throw new IllegalArgumentException("Date must be in YYYY-MM-DD format");
         }
 
         // Time format checker
-        String timeFrom = dateFrom.toString().split(" ")[1].split("\\.")[0].trim();
-        String timeTo   = dateTo.toString().split(" ")[1].split("\\.")[0].trim();
+        String timeFrom = partsFrom[1].split("\\.")[0].trim();
+        String timeTo   = partsTo[1].split("\\.")[0].trim();
 
-        if (!timeFrom.matches("\\d{2}:\\d{2}:\\d{2}")
-                || !timeTo  .matches("\\d{2}:\\d{2}:\\d{2}"))
+        if (!TIME_PATTERN.matcher(timeFrom).matches() || !TIME_PATTERN.matcher(timeTo).matches())
         {
             throw new IllegalArgumentException("Time must be in HH:MM:SS format");
         }
+    }
 
-        //check if flight exists in the system
-        if (FlightCollection.getFlights() != null)
-        {
-            for(Flight flight : FlightCollection.getFlights()) {
-                if (flight_id == flight.getFlightID()) {
-                    throw new IllegalArgumentException("Flight Already in the system");
-                }
-            }
-        }
-
-
-        this.flightID=flight_id;
-        this.departTo = departTo;
-        this.departFrom = departFrom;
-        this.code = code;
-        this.company = company;
-        this.airplane = airplane;
-        this.dateTo = dateTo;
-        this.dateFrom = dateFrom;
+    // Builds a flight from fields that already passed validate() and the duplicate check
+    static Flight createValidated(int flight_id, String departTo, String departFrom, String code, String company, Timestamp dateFrom, Timestamp dateTo, Airplane airplane)
+    {
+        Flight flight = new Flight();
+        flight.flightID = flight_id;
+        flight.departTo = departTo;
+        flight.departFrom = departFrom;
+        flight.code = code;
+        flight.company = company;
+        flight.airplane = airplane;
+        flight.dateTo = dateTo;
+        flight.dateFrom = dateFrom;
+        return flight;
     }
 
     public int getFlightID()
@@ -72,6 +90,8 @@ public class Flight {
     public void setFlightID(int flightid)
     {
         this.flightID = flightid;
+        FlightCollection.invalidateIndex();
+        TicketCollection.invalidateIndex();
     }
 
     public String getDepartTo()
@@ -82,6 +102,7 @@ public class Flight {
     public void setDepartTo(String departTo)
     {
         this.departTo = departTo;
+        FlightCollection.invalidateIndex();
     }
 
     public String getDepartFrom()
@@ -92,6 +113,7 @@ public class Flight {
     public void setDepartFrom(String departFrom)
     {
         this.departFrom = departFrom;
+        FlightCollection.invalidateIndex();
     }
 
     public String getCode()
@@ -122,6 +144,7 @@ public class Flight {
     public void setDateFrom(Timestamp dateFrom)
     {
         this.dateFrom = dateFrom;
+        FlightCollection.invalidateIndex();
     }
 
     public Timestamp getDateTo()
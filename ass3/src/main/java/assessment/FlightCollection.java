@@ -1,10 +1,31 @@
 package assessment;
 
+import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class FlightCollection {
 
-	public static ArrayList<Flight> flights = new ArrayList<>();
+	// Copy-on-write: addFlights publishes a new list instead of growing this one, so
+	// readers can iterate whatever list they got without locking. Replace it, don't mutate it.
+	public static volatile ArrayList<Flight> flights = new ArrayList<>();
+
+	// Immutable indexes over one version of the flights list, published together with it.
+	// Rebuilt lazily when the list is replaced or resized behind our back, or a flight
+	// changes an indexed field. Only one thread builds at a time, under the writer lock;
+	// readers that find the lock taken keep using the snapshot they have rather than wait.
+	private static volatile Snapshot snapshot;
+	private static final AtomicInteger invalidations = new AtomicInteger();
+	private static final ReentrantLock writer = new ReentrantLock();
 
 	public static ArrayList<Flight> getFlights()
 	{
@@ -16,23 +37,125 @@ public class FlightCollection {
 		if (flights == null) {
 			throw new NullPointerException("Cannot add null flight list");
 		}
-		FlightCollection.flights.addAll(flights);
+		writer.lock();
+		try
+		{
+			publish(flights);
+		}
+		finally
+		{
+			writer.unlock();
+		}
 	}
 
-	public static Flight getFlightInfo(String city1, String city2)
+	// Adds a batch in one step unless one of its ids clashes, with a flight already here or an earlier one in the batch.
+	// Ids are checked against the flights as they stand under the writer lock, so no other writer can add a clashing
+	// one between the check and the add. Null entries are rows the caller turned down: they are left out of the
+	// check and keep the batch out. Returns the clashes by position; the batch was added only if there are none.
+	static Map<Integer, String> addFlightsIfAbsent(List<Flight> flights)
 	{
-		//display the flights where there is a direct flight from city 1 to city2
-		//hello
-		Flight flight = null;
-		for (Flight f : flights)
+		Map<Integer, String> clashes = new TreeMap<>();
+		writer.lock();
+		try
 		{
-			if (f.getDepartFrom().equals(city2) && f.getDepartTo().equals(city1))
+			HashMap<Integer, Flight> existing = current().flightsById;
+			Set<Integer> seen = new HashSet<>();
+			boolean complete = true;
+			for (int i = 0; i < flights.size(); i++)
 			{
-				System.out.println(f.toString());
-				flight = f;
+				Flight f = flights.get(i);
+				if (f == null)
+				{
+					complete = false;
+				}
+				else if (existing.containsKey(f.getFlightID()))
+				{
+					clashes.put(i, "Flight Already in the system");
+				}
+				else if (!seen.add(f.getFlightID()))
+				{
+					clashes.put(i, "Duplicate flight id in batch");
+				}
 			}
-		};
-		return flight;
+			if (complete && clashes.isEmpty())
+			{
+				publish(flights);
+			}
+			return clashes;
+		}
+		finally
+		{
+			writer.unlock();
+		}
+	}
+
+	// Caller holds the writer lock. Journalled first, so a batch the journal refuses is not added.
+	private static void publish(List<Flight> flights)
+	{
+		BookingJournal.flightsAdded(flights);
+		ArrayList<Flight> next = new ArrayList<>(FlightCollection.flights.size() + flights.size());
+		next.addAll(FlightCollection.flights);
+		next.addAll(flights);
+		// publish the indexes before the list so a reader never sees the new list with old indexes
+		snapshot = new Snapshot(next, invalidations.get());
+		FlightCollection.flights = next;
+	}
+
+	public static Flight getFlightInfo(String city1, String city2)
+	{
+		//SELECT the last flight where depart_from = city2 and depart_to = city1
+		List<Flight> route = getFlightsInfo(city1, city2);
+		return route.isEmpty() ? null : route.get(route.size() - 1);
+	}
+
+	public static List<Flight> getFlightsInfo(String city1, String city2)
+	{
+		//SELECT all flights where depart_from = city2 and depart_to = city1, same matching as getFlightInfo(city1, city2)
+		Route route = current().getRoute(city1, city2);
+		return route == null ? Collections.emptyList() : Collections.unmodifiableList(route.flights);
+	}
+
+	public static List<Flight> getFlightsDepartingBetween(Timestamp from, Timestamp to)
+	{
+		//SELECT flights where from <= date_from < to, ordered by date_from
+		if (from == null || to == null) {
+			throw new IllegalArgumentException("Time window is required");
+		}
+		return collect(current().flightsByDeparture, from, to);
+	}
+
+	public static Iterable<Flight> getFlightsDepartingFrom(Timestamp from)
+	{
+		//SELECT flights where date_from >= from, ordered by date_from, read lazily so a caller can stop early
+		if (from == null) {
+			throw new IllegalArgumentException("Departure time is required");
+		}
+		Collection<ArrayList<Flight>> departing = current().flightsByDeparture.tailMap(from.getTime(), true).values();
+		return () -> departing.stream().flatMap(Collection::stream).iterator();
+	}
+
+	public static List<Flight> getFlightsDepartingBetween(String city1, String city2, Timestamp from, Timestamp to)
+	{
+		//SELECT flights where depart_from = city2, depart_to = city1 and from <= date_from < to, ordered by date_from
+		if (from == null || to == null) {
+			throw new IllegalArgumentException("Time window is required");
+		}
+		Route route = current().getRoute(city1, city2);
+		return route == null ? Collections.emptyList() : collect(route.byDeparture, from, to);
+	}
+
+	public static Set<String> getDestinationsFrom(String city)
+	{
+		//SELECT DISTINCT depart_to where depart_from = city
+		HashMap<String, Route> byDestination = current().flightsByRoute.get(city);
+		return byDestination == null ? Collections.emptySet() : Collections.unmodifiableSet(byDestination.keySet());
+	}
+
+	public static Set<String> getOriginsTo(String city)
+	{
+		//SELECT DISTINCT depart_from where depart_to = city
+		HashMap<String, Route> byOrigin = current().flightsByArrival.get(city);
+		return byOrigin == null ? Collections.emptySet() : Collections.unmodifiableSet(byOrigin.keySet());
 	}
 
 	public static Flight getFlightInfo(String city)
@@ -52,15 +175,123 @@ public class FlightCollection {
 	public static Flight getFlightInfo(int flight_id)
 	{
 		//SELECT a flight with a particular flight id
-		Flight flight =  null;
+		return current().flightsById.get(flight_id);
+	}
 
-		for (Flight f : flights)
+	// Called when a flight's id, route or departure time changes so the indexes are rebuilt on next lookup.
+	// While another thread is rebuilding, lookups may still see the flight under its old values.
+	static void invalidateIndex()
+	{
+		invalidations.incrementAndGet();
+	}
+
+	private static Snapshot current()
+	{
+		Snapshot s = snapshot;
+		if (s != null && s.isCurrent())
+		{
+			return s;
+		}
+		if (s == null)
 		{
-			if (f.getFlightID() == flight_id)
+			writer.lock();
+		}
+		else if (!writer.tryLock())
+		{
+			// someone else is building or adding; their snapshot is on its way, this one is still usable
+			return s;
+		}
+		try
+		{
+			s = snapshot;
+			if (s == null || !s.isCurrent())
 			{
-				flight = f;
+				// read the counter first, so a change made while we build marks this snapshot stale
+				s = new Snapshot(flights, invalidations.get());
+				snapshot = s;
 			}
+			return s;
 		}
-		return flight;
+		finally
+		{
+			writer.unlock();
+		}
+	}
+
+	private static List<Flight> collect(TreeMap<Long, ArrayList<Flight>> byDeparture, Timestamp from, Timestamp to)
+	{
+		List<Flight> result = new ArrayList<>();
+		if (from.getTime() >= to.getTime())
+		{
+			return result;
+		}
+		for (Collection<Flight> departing : byDeparture.subMap(from.getTime(), true, to.getTime(), false).values())
+		{
+			result.addAll(departing);
+		}
+		return result;
+	}
+
+	private static class Snapshot
+	{
+		final ArrayList<Flight> source;
+		final int size;
+		final int version;
+		final HashMap<Integer, Flight> flightsById = new HashMap<>();
+		// depart_from -> depart_to -> flights on that route
+		final HashMap<String, HashMap<String, Route>> flightsByRoute = new HashMap<>();
+		// depart_to -> depart_from -> the same routes, so the city graph can be walked backwards
+		final HashMap<String, HashMap<String, Route>> flightsByArrival = new HashMap<>();
+		// departure time in millis -> flights leaving at that instant
+		final TreeMap<Long, ArrayList<Flight>> flightsByDeparture = new TreeMap<>();
+
+		Snapshot(ArrayList<Flight> source, int version)
+		{
+			this.source = source;
+			this.size = source.size();
+			this.version = version;
+			for (Flight f : source)
+			{
+				index(f);
+			}
+		}
+
+		boolean isCurrent()
+		{
+			return source == flights && size == source.size() && version == invalidations.get();
+		}
+
+		private void index(Flight f)
+		{
+			// later entries win, so duplicates resolve to the last match like the old scan did
+			flightsById.put(f.getFlightID(), f);
+			HashMap<String, Route> byDestination = flightsByRoute.computeIfAbsent(f.getDepartFrom(), k -> new HashMap<>());
+			Route route = byDestination.get(f.getDepartTo());
+			if (route == null)
+			{
+				route = new Route();
+				byDestination.put(f.getDepartTo(), route);
+				flightsByArrival.computeIfAbsent(f.getDepartTo(), k -> new HashMap<>()).put(f.getDepartFrom(), route);
+			}
+			route.flights.add(f);
+			if (f.getDateFrom() != null)
+			{
+				long departure = f.getDateFrom().getTime();
+				route.byDeparture.computeIfAbsent(departure, k -> new ArrayList<>()).add(f);
+				flightsByDeparture.computeIfAbsent(departure, k -> new ArrayList<>()).add(f);
+			}
+		}
+
+		Route getRoute(String city1, String city2)
+		{
+			HashMap<String, Route> byDestination = flightsByRoute.get(city2);
+			return byDestination == null ? null : byDestination.get(city1);
+		}
+	}
+
+	private static class Route
+	{
+		final ArrayList<Flight> flights = new ArrayList<>(); // insertion order
+		final TreeMap<Long, ArrayList<Flight>> byDeparture = new TreeMap<>();
 	}
-}
\ No newline at end of file
+}
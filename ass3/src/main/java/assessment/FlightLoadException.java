@@ -0,0 +1,27 @@
+package assessment;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Thrown by {@link FlightLoader} when one or more rows of a batch are rejected.
+ * Carries the reason for every rejected row, keyed by row index.
+ */
+public class FlightLoadException extends IllegalArgumentException {
+    private static final long serialVersionUID = 1L;
+
+    // A copy, so the exception stays serializable and unchanged whatever map it was given
+    private final Map<Integer, String> rejectedRows;
+
+    public FlightLoadException(Map<Integer, String> rejectedRows, int batchSize)
+    {
+        super(rejectedRows.size() + " of " + batchSize + " flights rejected: " + rejectedRows);
+        this.rejectedRows = Collections.unmodifiableMap(new TreeMap<>(rejectedRows));
+    }
+
+    public Map<Integer, String> getRejectedRows()
+    {
+        return rejectedRows;
+    }
+}
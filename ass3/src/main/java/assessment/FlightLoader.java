@@ -0,0 +1,85 @@
+package assessment;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+
+/**
+ * Bulk import path for flight schedules. Rows are validated in parallel, duplicate ids are
+ * found with a hash set instead of the per-flight scan, and the batch is published into
+ * {@link FlightCollection} all at once or not at all.
+ */
+public class FlightLoader {
+
+    public static class Row {
+        private final int flightID;
+        private final String departTo;
+        private final String departFrom;
+        private final String code;
+        private final String company;
+        private final Timestamp dateFrom;
+        private final Timestamp dateTo;
+        private final Airplane airplane;
+
+        public Row(int flight_id, String departTo, String departFrom, String code, String company, Timestamp dateFrom, Timestamp dateTo, Airplane airplane)
+        {
+            this.flightID = flight_id;
+            this.departTo = departTo;
+            this.departFrom = departFrom;
+            this.code = code;
+            this.company = company;
+            this.dateFrom = dateFrom;
+            this.dateTo = dateTo;
+            this.airplane = airplane;
+        }
+    }
+
+    /**
+     * Validates and publishes a batch of flights.
+     *
+     * @return the flights that were added, in row order
+     * @throws FlightLoadException listing every rejected row; nothing is added in that case
+     */
+    public static List<Flight> load(List<Row> rows)
+    {
+        if (rows == null) {
+            throw new NullPointerException("Cannot load null flight rows");
+        }
+
+        // Field checks are independent per row, so spread them across cores
+        Row[] input = rows.toArray(new Row[0]);
+        Flight[] flights = new Flight[input.length];
+        String[] errors = new String[input.length];
+        IntStream.range(0, input.length).parallel().forEach(i -> {
+            Row row = input[i];
+            if (row == null) {
+                errors[i] = "Row is required";
+                return;
+            }
+            try {
+                Flight.validate(row.flightID, row.departTo, row.departFrom, row.code, row.company, row.dateFrom, row.dateTo, row.airplane);
+                flights[i] = Flight.createValidated(row.flightID, row.departTo, row.departFrom, row.code, row.company, row.dateFrom, row.dateTo, row.airplane);
+            } catch (IllegalArgumentException e) {
+                errors[i] = e.getMessage();
+            }
+        });
+
+        // Id clashes are checked and the batch published in one step under the collection's writer lock
+        List<Flight> batch = Arrays.asList(flights);
+        Map<Integer, String> rejected = new TreeMap<>();
+        for (int i = 0; i < errors.length; i++) {
+            if (errors[i] != null) {
+                rejected.put(i, errors[i]);
+            }
+        }
+        rejected.putAll(FlightCollection.addFlightsIfAbsent(batch));
+        if (!rejected.isEmpty()) {
+            throw new FlightLoadException(rejected, input.length);
+        }
+        return new ArrayList<>(batch);
+    }
+}
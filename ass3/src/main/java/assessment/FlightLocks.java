@@ -0,0 +1,71 @@
+package assessment;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Booking locks striped by flight id. Seats and ticket status on a flight are only checked and changed
+ * under that flight's stripe, so buyers of one hot flight never stall bookings on unrelated flights.
+ * The stripe table is fixed, so memory does not grow with the number of flights; two flights may share
+ * a stripe, which costs some contention but never correctness.
+ */
+public class FlightLocks {
+
+    private static final int STRIPE_BITS = 10;
+    public static final int STRIPES = 1 << STRIPE_BITS;
+
+    private static final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+
+    static {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    static int stripeOf(int flightId)
+    {
+        // Fibonacci hashing: the top bits of id * 2^32/phi spread consecutive ids across the table
+        return (flightId * 0x9E3779B9) >>> (32 - STRIPE_BITS);
+    }
+
+    // The lock guarding one flight; hold it while checking and changing its seats or ticket status
+    public static ReentrantLock forFlight(int flightId)
+    {
+        return locks[stripeOf(flightId)];
+    }
+
+    /**
+     * Locks every stripe the flights fall on, each once, in ascending stripe order.
+     * A single global order means requests over overlapping flights never deadlock, even when
+     * different flights share a stripe.
+     *
+     * @return the locks taken, to hand back to {@link #unlockAll(List)}
+     */
+    public static List<ReentrantLock> lockAll(int... flightIds)
+    {
+        int[] stripes = new int[flightIds.length];
+        for (int i = 0; i < flightIds.length; i++) {
+            stripes[i] = stripeOf(flightIds[i]);
+        }
+        Arrays.sort(stripes);
+        List<ReentrantLock> held = new ArrayList<>(stripes.length);
+        for (int i = 0; i < stripes.length; i++) {
+            if (i > 0 && stripes[i] == stripes[i - 1]) {
+                continue;
+            }
+            ReentrantLock lock = locks[stripes[i]];
+            lock.lock();
+            held.add(lock);
+        }
+        return held;
+    }
+
+    public static void unlockAll(List<ReentrantLock> held)
+    {
+        for (int i = held.size() - 1; i >= 0; i--) {
+            held.get(i).unlock();
+        }
+    }
+}
@@ -0,0 +1,357 @@
+package assessment;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Compact binary image of the whole inventory: airplanes, passengers, flights and tickets.
+ * Loading maps the file and builds objects straight from it through the restore factories, so there is
+ * no per-record validation, duplicate scan or timestamp parsing; one checksum over the file guards
+ * against corruption instead. Take snapshots while no bookings are in progress, e.g. on shutdown.
+ *
+ * <p>Layout, big-endian:
+ * <pre>
+ * header   magic "BKSN" (int), format version (short), reserved (short), CRC32 of the body (int), body length (long)
+ * body     counts: strings, airplanes, passengers, flights, listed flights, tickets (int each)
+ *          strings     UTF-8 length (int), bytes; each distinct string once, referred to by index, -1 for null
+ *          airplanes   id, model, business seats, economy seats, crew seats, business cabin, economy cabin (int each;
+ *                      version 1 has no cabin sizes and takes the seats left as the cabins)
+ *          passengers  first name, second name, age, gender, email, phone, passport, masked card reference (int each;
+ *                      versions 1 and 2 also hold the full card number and the security code, which are masked
+ *                      and dropped on load)
+ *          flights     id, depart to, depart from, code, company (int each), departure, arrival (long millis,
+ *                      Long.MIN_VALUE for null), airplane index (int, -1 for none)
+ *          tickets     id, price, base fare, flight index, passenger index (int each, -1 for none), flags (byte),
+ *                      seat index on the airplane (byte, -1 for none); versions 1 to 3 have no base fare and take
+ *                      the price as the fare, versions before 5 have no seat
+ * </pre>
+ * Objects shared in memory, like an airplane flying several flights, are written once and shared again on load.
+ * The first "listed flights" flights are the contents of {@link FlightCollection}; the rest are only
+ * referenced by tickets.
+ */
+public class InventorySnapshot {
+
+    public static final short VERSION = 5;
+
+    private static final int MAGIC = 0x424B534E; // "BKSN"
+    private static final int HEADER = 20;
+    private static final long NO_TIME = Long.MIN_VALUE;
+
+    private static final int VIP = 1;
+    private static final int SOLD = 2;
+    private static final int HELD = 4;
+
+    /**
+     * Writes the current contents of {@link FlightCollection} and {@link TicketCollection} to file.
+     * The snapshot is written beside it and moved into place, so a crash never leaves a half-written file.
+     */
+    public static void save(Path file) throws IOException
+    {
+        List<Flight> listed = FlightCollection.getFlights();
+        List<Ticket> tickets = TicketCollection.copyTickets();
+
+        Strings strings = new Strings();
+        Map<Flight, Integer> flights = new IdentityHashMap<>();
+        Map<Airplane, Integer> airplanes = new IdentityHashMap<>();
+        Map<Passenger, Integer> passengers = new IdentityHashMap<>();
+        List<Flight> flightOrder = new ArrayList<>();
+        List<Airplane> airplaneOrder = new ArrayList<>();
+        List<Passenger> passengerOrder = new ArrayList<>();
+        for (Flight flight : listed) {
+            number(flight, flights, flightOrder);
+        }
+        int listedCount = flightOrder.size();
+        for (Ticket ticket : tickets) {
+            number(ticket.getFlight(), flights, flightOrder);
+            number(ticket.getPassenger(), passengers, passengerOrder);
+        }
+        for (Flight flight : flightOrder) {
+            number(flight.getAirplane(), airplanes, airplaneOrder);
+            strings.add(flight.getDepartTo(), flight.getDepartFrom(), flight.getCode(), flight.getCompany());
+        }
+        for (Airplane airplane : airplaneOrder) {
+            strings.add(airplane.getAirplaneModel());
+        }
+        for (Passenger passenger : passengerOrder) {
+            strings.add(passenger.getFirstName(), passenger.getSecondName(), passenger.getGender(), passenger.getEmail(),
+                    passenger.getPhoneNumber(), passenger.getPassport(), passenger.getCardReference());
+        }
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+            CRC32 crc = new CRC32();
+            Checksummed body = new Checksummed(channel.position(HEADER), crc);
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(body, 1 << 16));
+
+            out.writeInt(strings.order.size());
+            out.writeInt(airplaneOrder.size());
+            out.writeInt(passengerOrder.size());
+            out.writeInt(flightOrder.size());
+            out.writeInt(listedCount);
+            out.writeInt(tickets.size());
+            for (byte[] bytes : strings.order) {
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+            for (Airplane airplane : airplaneOrder) {
+                out.writeInt(airplane.getAirplaneID());
+                out.writeInt(strings.indexOf(airplane.getAirplaneModel()));
+                out.writeInt(airplane.getBusinessSitsNumber());
+                out.writeInt(airplane.getEconomySitsNumber());
+                out.writeInt(airplane.getCrewSitsNumber());
+                out.writeInt(airplane.getBusinessCabin());
+                out.writeInt(airplane.getEconomyCabin());
+            }
+            for (Passenger passenger : passengerOrder) {
+                out.writeInt(strings.indexOf(passenger.getFirstName()));
+                out.writeInt(strings.indexOf(passenger.getSecondName()));
+                out.writeInt(passenger.getAge());
+                out.writeInt(strings.indexOf(passenger.getGender()));
+                out.writeInt(strings.indexOf(passenger.getEmail()));
+                out.writeInt(strings.indexOf(passenger.getPhoneNumber()));
+                out.writeInt(strings.indexOf(passenger.getPassport()));
+                out.writeInt(strings.indexOf(passenger.getCardReference()));
+            }
+            for (Flight flight : flightOrder) {
+                out.writeInt(flight.getFlightID());
+                out.writeInt(strings.indexOf(flight.getDepartTo()));
+                out.writeInt(strings.indexOf(flight.getDepartFrom()));
+                out.writeInt(strings.indexOf(flight.getCode()));
+                out.writeInt(strings.indexOf(flight.getCompany()));
+                out.writeLong(flight.getDateFrom() == null ? NO_TIME : flight.getDateFrom().getTime());
+                out.writeLong(flight.getDateTo() == null ? NO_TIME : flight.getDateTo().getTime());
+                out.writeInt(indexOf(flight.getAirplane(), airplanes));
+            }
+            for (Ticket ticket : tickets) {
+                out.writeInt(ticket.getTicket_id());
+                out.writeInt(ticket.getPrice());
+                out.writeInt(ticket.getBaseFare());
+                out.writeInt(indexOf(ticket.getFlight(), flights));
+                out.writeInt(indexOf(ticket.getPassenger(), passengers));
+                out.writeByte((ticket.getClassVip() ? VIP : 0) | (ticket.ticketStatus() ? SOLD : 0) | (ticket.isHeld() ? HELD : 0));
+                out.writeByte(ticket.getSeat() == null ? -1 : Airplane.seatIndex(ticket.getSeat()));
+            }
+            out.flush();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER);
+            header.putInt(MAGIC).putShort(VERSION).putShort((short) 0).putInt((int) crc.getValue()).putLong(body.written);
+            header.flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Loads a snapshot written by {@link #save} into {@link FlightCollection} and {@link TicketCollection}.
+     * Call on startup, before any flights or tickets are loaded. Seat holds in the snapshot are released,
+     * as they are when a journal is replayed.
+     *
+     * @throws IOException when the file is not a snapshot, was written by a newer version or is corrupt
+     */
+    public static void load(Path file) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER) {
+                throw new IOException("Not a booking snapshot: " + file);
+            }
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Booking snapshot is too large to map: " + file);
+            }
+            MappedByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (in.getInt() != MAGIC) {
+                throw new IOException("Not a booking snapshot: " + file);
+            }
+            short version = in.getShort();
+            if (version < 1 || version > VERSION) {
+                throw new IOException("Unsupported booking snapshot version " + version + ": " + file);
+            }
+            in.getShort();
+            int checksum = in.getInt();
+            long length = in.getLong();
+            if (length != size - HEADER) {
+                throw new IOException("Booking snapshot is truncated: " + file);
+            }
+            CRC32 crc = new CRC32();
+            crc.update(in.duplicate());
+            if ((int) crc.getValue() != checksum) {
+                throw new IOException("Booking snapshot is corrupt: " + file);
+            }
+            read(in, version);
+        }
+    }
+
+    private static void read(ByteBuffer in, short version)
+    {
+        String[] strings = new String[in.getInt()];
+        Airplane[] airplanes = new Airplane[in.getInt()];
+        Passenger[] passengers = new Passenger[in.getInt()];
+        Flight[] flights = new Flight[in.getInt()];
+        int listed = in.getInt();
+        int ticketCount = in.getInt();
+
+        byte[] bytes = new byte[64];
+        for (int i = 0; i < strings.length; i++) {
+            int length = in.getInt();
+            if (length > bytes.length) {
+                bytes = new byte[Math.max(length, bytes.length * 2)];
+            }
+            in.get(bytes, 0, length);
+            strings[i] = new String(bytes, 0, length, StandardCharsets.UTF_8);
+        }
+        for (int i = 0; i < airplanes.length; i++) {
+            int id = in.getInt();
+            String model = string(strings, in.getInt());
+            int business = in.getInt();
+            int economy = in.getInt();
+            int crew = in.getInt();
+            airplanes[i] = version == 1 ? Airplane.restore(id, model, business, economy, crew)
+                    : Airplane.restore(id, model, business, economy, crew, in.getInt(), in.getInt());
+        }
+        for (int i = 0; i < passengers.length; i++) {
+            passengers[i] = Passenger.restore(string(strings, in.getInt()), string(strings, in.getInt()), in.getInt(),
+                    string(strings, in.getInt()), string(strings, in.getInt()), string(strings, in.getInt()),
+                    string(strings, in.getInt()), string(strings, in.getInt()));
+            if (version < 3) {
+                in.getInt(); // security code, not kept
+            }
+        }
+        for (int i = 0; i < flights.length; i++) {
+            flights[i] = Flight.createValidated(in.getInt(), string(strings, in.getInt()), string(strings, in.getInt()),
+                    string(strings, in.getInt()), string(strings, in.getInt()), time(in.getLong()), time(in.getLong()),
+                    element(airplanes, in.getInt()));
+        }
+        ArrayList<Ticket> tickets = new ArrayList<>(ticketCount);
+        for (int i = 0; i < ticketCount; i++) {
+            int id = in.getInt();
+            int price = in.getInt();
+            int baseFare = version < 4 ? price : in.getInt();
+            Flight flight = element(flights, in.getInt());
+            Passenger passenger = element(passengers, in.getInt());
+            int flags = in.get();
+            int seat = version < 5 ? -1 : in.get();
+            boolean classVip = (flags & VIP) != 0;
+            boolean sold = (flags & SOLD) != 0;
+            Airplane airplane = flight == null ? null : flight.getAirplane();
+            if ((flags & HELD) != 0 && airplane != null) {
+                // holds do not outlive the process that placed them: hand the seat back
+                airplane.restoreSeats(classVip, 1);
+            }
+            Ticket ticket = Ticket.restore(id, price, baseFare, flight, classVip, sold, false, passenger);
+            if (sold && seat >= 0 && airplane != null) {
+                ticket.setSeat(Airplane.seatLabel(seat));
+                airplane.claimSeat(ticket.getSeat());
+            }
+            tickets.add(ticket);
+        }
+
+        ArrayList<Flight> collection = new ArrayList<>(listed);
+        for (int i = 0; i < listed; i++) {
+            collection.add(flights[i]);
+        }
+        FlightCollection.addFlights(collection);
+        TicketCollection.addTickets(tickets);
+    }
+
+    private static String string(String[] strings, int index)
+    {
+        return index < 0 ? null : strings[index];
+    }
+
+    private static <T> T element(T[] objects, int index)
+    {
+        return index < 0 ? null : objects[index];
+    }
+
+    private static Timestamp time(long millis)
+    {
+        return millis == NO_TIME ? null : new Timestamp(millis);
+    }
+
+    private static <T> void number(T object, Map<T, Integer> numbers, List<T> order)
+    {
+        if (object != null && !numbers.containsKey(object)) {
+            numbers.put(object, order.size());
+            order.add(object);
+        }
+    }
+
+    private static <T> int indexOf(T object, Map<T, Integer> numbers)
+    {
+        return object == null ? -1 : numbers.get(object);
+    }
+
+    // Distinct strings in first-seen order; cities, companies and models repeat across thousands of records
+    private static class Strings
+    {
+        final Map<String, Integer> indexes = new HashMap<>();
+        final List<byte[]> order = new ArrayList<>();
+
+        void add(String... values)
+        {
+            for (String value : values) {
+                if (value != null && !indexes.containsKey(value)) {
+                    indexes.put(value, order.size());
+                    order.add(value.getBytes(StandardCharsets.UTF_8));
+                }
+            }
+        }
+
+        int indexOf(String value)
+        {
+            return value == null ? -1 : indexes.get(value);
+        }
+    }
+
+    // Checksums and counts the body on its way to the file channel
+    private static class Checksummed extends OutputStream
+    {
+        final OutputStream out;
+        final CRC32 crc;
+        long written;
+
+        Checksummed(FileChannel channel, CRC32 crc)
+        {
+            this.out = Channels.newOutputStream(channel);
+            this.crc = crc;
+        }
+
+        @Override
+        public void write(int b) throws IOException
+        {
+            out.write(b);
+            crc.update(b);
+            written++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException
+        {
+            out.write(b, off, len);
+            crc.update(b, off, len);
+            written += len;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package assessment;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Earliest-arrival itinerary search using the Connection Scan algorithm.
+ * Flights are scanned once in departure order from {@link FlightCollection}'s departure index;
+ * a flight can be taken when its origin has been reached at least the minimum connection time
+ * before it leaves. The scan stops as soon as no later departure can beat the best arrival found.
+ */
+public class ItinerarySearch {
+
+    public static final Duration DEFAULT_MIN_CONNECTION = Duration.ofMinutes(45);
+
+    public static List<Flight> findEarliestArrival(String origin, String destination, Timestamp departAfter)
+    {
+        return findEarliestArrival(origin, destination, departAfter, DEFAULT_MIN_CONNECTION);
+    }
+
+    /**
+     * Finds the itinerary that reaches destination earliest when leaving origin no sooner than departAfter.
+     *
+     * @param minConnection the least time allowed between landing and the next departure
+     * @return the flights to take in order, or an empty list when destination cannot be reached
+     */
+    public static List<Flight> findEarliestArrival(String origin, String destination, Timestamp departAfter, Duration minConnection)
+    {
+        if (origin == null || destination == null) {
+            throw new IllegalArgumentException("City names cannot be empty");
+        }
+        if (departAfter == null) {
+            throw new IllegalArgumentException("Departure time is required");
+        }
+        if (minConnection == null || minConnection.isNegative()) {
+            throw new IllegalArgumentException("Minimum connection time cannot be negative");
+        }
+        if (origin.equals(destination)) {
+            return new ArrayList<>();
+        }
+
+        long connectionMillis = minConnection.toMillis();
+        Map<String, Long> earliestArrival = new HashMap<>();
+        Map<String, Flight> arrivedBy = new HashMap<>();
+        long best = Long.MAX_VALUE;
+
+        for (Flight flight : FlightCollection.getFlightsDepartingFrom(departAfter)) {
+            long departure = flight.getDateFrom().getTime();
+            if (departure >= best) {
+                break; // nothing departing now can land sooner
+            }
+            if (flight.getDateTo() == null || flight.getDateTo().getTime() < departure) {
+                continue;
+            }
+
+            String from = flight.getDepartFrom();
+            if (!origin.equals(from)) {
+                Long landed = earliestArrival.get(from);
+                if (landed == null || landed + connectionMillis > departure) {
+                    continue;
+                }
+            }
+
+            String to = flight.getDepartTo();
+            long arrival = flight.getDateTo().getTime();
+            Long known = earliestArrival.get(to);
+            if (!origin.equals(to) && (known == null || arrival < known)) {
+                earliestArrival.put(to, arrival);
+                arrivedBy.put(to, flight);
+                if (destination.equals(to)) {
+                    best = arrival;
+                }
+            }
+        }
+
+        List<Flight> itinerary = new ArrayList<>();
+        String city = destination;
+        while (arrivedBy.containsKey(city) && itinerary.size() <= arrivedBy.size()) {
+            Flight leg = arrivedBy.get(city);
+            itinerary.add(leg);
+            city = leg.getDepartFrom();
+        }
+        if (!origin.equals(city)) {
+            return new ArrayList<>();
+        }
+        Collections.reverse(itinerary);
+        return itinerary;
+    }
+}
@@ -53,6 +53,34 @@ public class Passenger extends Person {
         this.phoneNumber = phoneNumber;
     }
 
+    // Rebuilds a passenger from saved fields that passed validation when first recorded. Saved records keep
+    // only a masked card reference and never the security code, so the restored passenger has neither.
+    static Passenger restore(String firstName, String secondName, int age, String gender, String email, String phoneNumber, String passport, String cardReference)
+    {
+        Passenger passenger = new Passenger();
+        passenger.restorePerson(firstName, secondName, age, gender);
+        passenger.email = email;
+        passenger.phoneNumber = phoneNumber;
+        passenger.passport = passport;
+        passenger.cardNumber = maskCard(cardReference);
+        return passenger;
+    }
+
+    // The card as it may be kept after a sale: every character but the last four masked
+    String getCardReference()
+    {
+        return maskCard(cardNumber);
+    }
+
+    static String maskCard(String cardNumber)
+    {
+        if (cardNumber == null) {
+            return null;
+        }
+        int shown = Math.min(4, cardNumber.length());
+        return "*".repeat(cardNumber.length() - shown) + cardNumber.substring(cardNumber.length() - shown);
+    }
+
     public String getEmail() {
         return email;
     }
@@ -40,6 +40,15 @@ public abstract class Person //abstract class Person
         this.gender=gender;
     }
 
+    // Sets fields that were validated when first saved, skipping the setters' checks
+    void restorePerson(String firstName, String secondName, int age, String gender)
+    {
+        this.firstName = firstName;
+        this.secondName = secondName;
+        this.age = age;
+        this.gender = gender;
+    }
+
     public int getAge()
     {
         return age;
@@ -77,7 +86,6 @@ public abstract class Person //abstract class Person
 
     public void setFirstName(String firstName)
     {
-        System.out.println(firstName.charAt(0));
         if(!Character.isLetter(firstName.charAt(0)))
         {
             throw new IllegalArgumentException("First name must start with letter");
@@ -0,0 +1,198 @@
+package assessment;
+
+import java.util.Arrays;
+
+/**
+ * Fare rules compiled into a fixed pipeline: age discount, class surcharge, load surcharge, then service tax.
+ * Rates are whole basis points (1% = 100) and every step is exact integer math on a long, truncating
+ * like the old double arithmetic did, so a quote is the same on every machine; a step that would
+ * overflow the long is refused like a price too large for an int.
+ * Age bands are flattened into one table at build time; a quote is a table lookup and three
+ * multiply-divides, with no allocation and no shared mutable state, so it is safe from any thread.
+ * Quotes always start from the base fare, so quoting twice never compounds.
+ *
+ * <p>For dynamic pricing, load bands add a surcharge by how full the cabin already is. The caller passes
+ * the cabin's current load factor, which {@link Airplane#getLoadFactor(boolean)} keeps up to date as seats
+ * are reserved and released, so a quote never looks at tickets.
+ */
+public class PricingEngine {
+
+    public static final int BASIS_POINTS = 10_000;
+    // Highest surcharge or tax rate, 100x
+    public static final int MAX_RATE = 1_000_000;
+    // Ages above this share its discount
+    public static final int MAX_AGE = 150;
+
+    // The fares this system has always charged: children under 15 half price, 60 and over free, 12% tax
+    public static final PricingEngine STANDARD = builder()
+            .ageBand(0, 14, 5_000)
+            .ageBand(60, MAX_AGE, BASIS_POINTS)
+            .taxRate(1_200)
+            .build();
+
+    private final int[] ageDiscount; // indexed by age, 0..MAX_AGE
+    private final int[] loadSurcharge; // indexed by whole percent of seats sold, 0..100
+    private final int businessSurcharge;
+    private final int economySurcharge;
+    private final int taxRate;
+
+    private PricingEngine(int[] ageDiscount, int[] loadSurcharge, int businessSurcharge, int economySurcharge, int taxRate)
+    {
+        this.ageDiscount = ageDiscount;
+        this.loadSurcharge = loadSurcharge;
+        this.businessSurcharge = businessSurcharge;
+        this.economySurcharge = economySurcharge;
+        this.taxRate = taxRate;
+    }
+
+    public static Builder builder()
+    {
+        return new Builder();
+    }
+
+    /**
+     * The price a passenger of this age pays for a fare in the given class.
+     *
+     * @throws IllegalArgumentException when the base fare is negative or the price does not fit an int
+     */
+    public int quote(int baseFare, int age, boolean business)
+    {
+        return price(baseFare, age, business, 0);
+    }
+
+    /**
+     * The price a passenger of this age pays for a fare in the given class when the cabin is this full.
+     *
+     * @param loadFactor basis points of the cabin's seats already sold, 0 to 10000
+     * @throws IllegalArgumentException when the base fare is negative or the price does not fit an int
+     */
+    public int quote(int baseFare, int age, boolean business, int loadFactor)
+    {
+        int percent = loadFactor <= 0 ? 0 : Math.min(loadFactor, BASIS_POINTS) / 100;
+        return price(baseFare, age, business, loadSurcharge[percent]);
+    }
+
+    private int price(int baseFare, int age, boolean business, int loadRate)
+    {
+        if (baseFare < 0) {
+            throw new IllegalArgumentException("Price cannot be negative");
+        }
+        try {
+            long price = baseFare;
+            price = step(price, -ageDiscount[clampAge(age)]);
+            price = step(price, business ? businessSurcharge : economySurcharge);
+            price = step(price, loadRate);
+            price = step(price, taxRate);
+            return Math.toIntExact(price);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Price is too large");
+        }
+    }
+
+    // price plus rate basis points of it, truncated toward zero; throws ArithmeticException on overflow
+    private static long step(long price, int rate)
+    {
+        return Math.addExact(price, Math.multiplyExact(price, rate) / BASIS_POINTS);
+    }
+
+    // The age step alone, for callers that price in stages. A discount never raises the price, so this cannot overflow.
+    public int discountByAge(int price, int age)
+    {
+        return (int) step(price, -ageDiscount[clampAge(age)]);
+    }
+
+    // The tax step alone
+    public int applyTax(int price)
+    {
+        try {
+            return Math.toIntExact(step(price, taxRate));
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Price is too large");
+        }
+    }
+
+    private static int clampAge(int age)
+    {
+        return age < 0 ? 0 : Math.min(age, MAX_AGE);
+    }
+
+    public static class Builder {
+        private final int[] ageDiscount = new int[MAX_AGE + 1];
+        private final int[] loadSurcharge = new int[101];
+        private int businessSurcharge;
+        private int economySurcharge;
+        private int taxRate;
+
+        private Builder()
+        {
+
+        }
+
+        /**
+         * Discounts fares for passengers aged fromAge to toAge inclusive. A later band overrides
+         * an earlier one where they overlap.
+         *
+         * @param discount basis points off the fare, 0 to 10000 (free)
+         */
+        public Builder ageBand(int fromAge, int toAge, int discount)
+        {
+            if (fromAge < 0 || toAge < fromAge) {
+                throw new IllegalArgumentException("Age band must run from a non-negative age up");
+            }
+            checkRate(discount, BASIS_POINTS);
+            if (fromAge <= MAX_AGE) {
+                Arrays.fill(ageDiscount, fromAge, Math.min(toAge, MAX_AGE) + 1, discount);
+            }
+            return this;
+        }
+
+        /**
+         * Adds a surcharge while fromPercent to toPercent inclusive of the cabin is sold, in whole percent.
+         * A later band overrides an earlier one where they overlap.
+         *
+         * @param surcharge basis points added after the class surcharge
+         */
+        public Builder loadBand(int fromPercent, int toPercent, int surcharge)
+        {
+            if (fromPercent < 0 || toPercent < fromPercent || toPercent > 100) {
+                throw new IllegalArgumentException("Load band must lie within 0-100%");
+            }
+            Arrays.fill(loadSurcharge, fromPercent, toPercent + 1, checkRate(surcharge, MAX_RATE));
+            return this;
+        }
+
+        // Basis points added to business fares after the age discount
+        public Builder businessSurcharge(int surcharge)
+        {
+            businessSurcharge = checkRate(surcharge, MAX_RATE);
+            return this;
+        }
+
+        // Basis points added to economy fares after the age discount
+        public Builder economySurcharge(int surcharge)
+        {
+            economySurcharge = checkRate(surcharge, MAX_RATE);
+            return this;
+        }
+
+        // Basis points of service tax added last
+        public Builder taxRate(int rate)
+        {
+            taxRate = checkRate(rate, MAX_RATE);
+            return this;
+        }
+
+        public PricingEngine build()
+        {
+            return new PricingEngine(ageDiscount.clone(), loadSurcharge.clone(), businessSurcharge, economySurcharge, taxRate);
+        }
+
+        private static int checkRate(int rate, int max)
+        {
+            if (rate < 0 || rate > max) {
+                throw new IllegalArgumentException("Rate must be between 0 and " + max + " basis points");
+            }
+            return rate;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package assessment;
+
+import java.sql.Timestamp;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Multi-hop route search over the city graph formed by {@link FlightCollection}'s route index.
+ * Cities are nodes and every (depart_from, depart_to) pair with at least one flight is an edge,
+ * so the graph is always in step with the collection.
+ */
+public class RouteEngine {
+
+    private static final Timestamp END_OF_TIME = new Timestamp(Long.MAX_VALUE);
+
+    /**
+     * Finds every route from origin to destination with at most maxTransfers stops in between.
+     * No city is visited twice on a route. Routes are returned as city lists, fewest legs first.
+     */
+    public static List<List<String>> findRoutes(String origin, String destination, int maxTransfers)
+    {
+        if (origin == null || destination == null) {
+            throw new IllegalArgumentException("City names cannot be empty");
+        }
+        if (maxTransfers < 0) {
+            throw new IllegalArgumentException("Number of transfers cannot be negative");
+        }
+
+        int maxLegs = maxTransfers + 1;
+        Map<String, Integer> legsToDestination = legsToDestination(destination, maxLegs);
+        List<List<String>> routes = new ArrayList<>();
+        if (!origin.equals(destination) && legsToDestination.containsKey(origin)) {
+            LinkedHashSet<String> path = new LinkedHashSet<>();
+            path.add(origin);
+            extend(origin, destination, maxLegs, legsToDestination, path, routes);
+        }
+        routes.sort(Comparator.comparingInt(List::size));
+        return routes;
+    }
+
+    /**
+     * Picks one unsold ticket for every leg of a route. Each leg leaves at least
+     * {@link ItinerarySearch#DEFAULT_MIN_CONNECTION} after the previous leg lands; among the flights that do,
+     * the one landing earliest is tried first, and when a later leg has nothing left to connect to the search
+     * backs up and tries the next flight on the leg before it. Flights without times are treated as always
+     * connecting.
+     *
+     * @return one ticket per leg, or an empty list when no combination of flights has a seat on every leg
+     */
+    public static List<Ticket> findAvailableTickets(List<String> route)
+    {
+        List<Ticket> legs = new ArrayList<>();
+        return pickLegs(route, 0, Long.MIN_VALUE, legs) ? legs : new ArrayList<>();
+    }
+
+    // Depth-first over the legs from leg onwards, appending one ticket per leg to picked
+    private static boolean pickLegs(List<String> route, int leg, long readyAt, List<Ticket> picked)
+    {
+        if (leg + 1 >= route.size()) {
+            return true;
+        }
+        long failedAt = Long.MAX_VALUE;
+        for (Flight flight : connectingFlights(route.get(leg), route.get(leg + 1), readyAt)) {
+            long landedAt = readyAfter(flight);
+            // landing later only leaves fewer connections, so nothing after a failed landing time can succeed
+            if (landedAt >= failedAt) {
+                break;
+            }
+            List<Ticket> available = TicketCollection.getAvailableTickets(flight.getFlightID());
+            if (available.isEmpty()) {
+                continue;
+            }
+            picked.add(available.get(0));
+            if (pickLegs(route, leg + 1, landedAt, picked)) {
+                return true;
+            }
+            picked.remove(picked.size() - 1);
+            failedAt = landedAt;
+        }
+        return false;
+    }
+
+    // Flights from one city to the next that leave no earlier than readyAt, earliest landing first
+    private static List<Flight> connectingFlights(String from, String to, long readyAt)
+    {
+        List<Flight> flights = new ArrayList<>();
+        // getFlightsInfo takes the arrival city first
+        for (Flight flight : FlightCollection.getFlightsInfo(to, from)) {
+            if (flight.getDateFrom() == null) {
+                flights.add(flight);
+            }
+        }
+        flights.addAll(FlightCollection.getFlightsDepartingBetween(to, from, new Timestamp(readyAt), END_OF_TIME));
+        // stable, so flights landing together keep departure order
+        flights.sort(Comparator.comparingLong(RouteEngine::readyAfter));
+        return flights;
+    }
+
+    // When a passenger off this flight can board the next one
+    private static long readyAfter(Flight flight)
+    {
+        return flight.getDateTo() == null ? Long.MIN_VALUE
+                : flight.getDateTo().getTime() + ItinerarySearch.DEFAULT_MIN_CONNECTION.toMillis();
+    }
+
+    // Backwards BFS: the fewest legs from each city to the destination, up to maxLegs
+    private static Map<String, Integer> legsToDestination(String destination, int maxLegs)
+    {
+        Map<String, Integer> legs = new HashMap<>();
+        ArrayDeque<String> queue = new ArrayDeque<>();
+        legs.put(destination, 0);
+        queue.add(destination);
+        while (!queue.isEmpty()) {
+            String city = queue.poll();
+            int next = legs.get(city) + 1;
+            if (next > maxLegs) {
+                continue;
+            }
+            for (String origin : FlightCollection.getOriginsTo(city)) {
+                if (!legs.containsKey(origin)) {
+                    legs.put(origin, next);
+                    queue.add(origin);
+                }
+            }
+        }
+        return legs;
+    }
+
+    // Depth-first walk that only enters cities which can still reach the destination in the legs left
+    private static void extend(String city, String destination, int legsLeft, Map<String, Integer> legsToDestination,
+                               LinkedHashSet<String> path, List<List<String>> routes)
+    {
+        for (String next : FlightCollection.getDestinationsFrom(city)) {
+            if (destination.equals(next)) {
+                List<String> route = new ArrayList<>(path);
+                route.add(destination);
+                routes.add(route);
+                continue;
+            }
+            Integer remaining = legsToDestination.get(next);
+            if (remaining == null || remaining > legsLeft - 1 || path.contains(next)) {
+                continue;
+            }
+            path.add(next);
+            extend(next, destination, legsLeft - 1, legsToDestination, path, routes);
+            path.remove(next);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package assessment;
+
+import java.time.Instant;
+
+/**
+ * A ticket and its seat kept aside by {@link SeatHolds} for a customer who is still paying.
+ * The hold lapses at its expiry unless confirmed or released first.
+ */
+public class SeatHold {
+    private final Ticket ticket;
+    private final Flight flight;
+    private final long expiresAt;
+    TimingWheel.Timeout<SeatHold> timeout; // guarded by the owning SeatHolds
+
+    SeatHold(Ticket ticket, Flight flight, long expiresAt)
+    {
+        this.ticket = ticket;
+        this.flight = flight;
+        this.expiresAt = expiresAt;
+    }
+
+    public Ticket getTicket()
+    {
+        return ticket;
+    }
+
+    public Flight getFlight()
+    {
+        return flight;
+    }
+
+    public Instant getExpiresAt()
+    {
+        return Instant.ofEpochMilli(expiresAt);
+    }
+
+    long expiresAtMillis()
+    {
+        return expiresAt;
+    }
+
+    public String toString()
+    {
+        return "SeatHold{" +
+                "ticket=" + ticket.getTicket_id() +
+                ", flight=" + flight.getFlightID() +
+                ", expiresAt=" + getExpiresAt() +
+                '}';
+    }
+}
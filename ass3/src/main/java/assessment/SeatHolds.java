@@ -0,0 +1,264 @@
+package assessment;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Temporary holds on tickets and their seats, so a customer part way through checkout cannot lose the seat.
+ * A held ticket is not offered by {@link TicketCollection#getAvailableTickets(int)} and cannot be booked by
+ * {@link BookingService} until the hold is confirmed, released or expires.
+ * Expiry runs off a {@link TimingWheel}, so each hold costs O(1) to place, cancel and expire however many
+ * are pending. Call {@link #start()} to expire holds in the background, or {@link #expireDue()} to drive it by hand.
+ */
+public class SeatHolds implements AutoCloseable {
+
+    public static final Duration DEFAULT_TICK = Duration.ofMillis(100);
+    public static final int DEFAULT_WHEEL_SIZE = 512;
+
+    private final Clock clock;
+    private final long tickMillis;
+    private final TimingWheel<SeatHold> wheel;
+    // pending holds; the wheel keeps its own links, this is only used to tell a live hold from a stale one
+    private final Set<SeatHold> active = Collections.newSetFromMap(new IdentityHashMap<>());
+    private ScheduledExecutorService ticker;
+
+    public SeatHolds()
+    {
+        this(DEFAULT_TICK, DEFAULT_WHEEL_SIZE, Clock.systemUTC());
+    }
+
+    public SeatHolds(Duration tick, int wheelSize, Clock clock)
+    {
+        if (tick == null || clock == null) {
+            throw new IllegalArgumentException("Tick and clock are required");
+        }
+        this.clock = clock;
+        this.tickMillis = tick.toMillis();
+        this.wheel = new TimingWheel<>(clock.millis(), tickMillis, wheelSize);
+    }
+
+    /**
+     * Holds an unsold ticket and reserves its seat for ttl. The ticket is assigned its seat now and keeps it if
+     * the hold is confirmed.
+     *
+     * @throws IllegalArgumentException when the ticket, its flight or its airplane cannot be found
+     * @throws IllegalStateException when the ticket is booked or already held, its cabin is sold out or the journal has failed
+     */
+    public SeatHold hold(int ticketId, Duration ttl)
+    {
+        if (ttl == null || ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("Hold time must be positive");
+        }
+        Ticket ticket = TicketCollection.getTicketInfo(ticketId);
+        Flight flight = BookingService.resolveFlight(ticketId, ticket);
+
+        ReentrantLock lock = FlightLocks.forFlight(flight.getFlightID());
+        lock.lock();
+        try {
+            BookingJournal.ensureWritable();
+            String unavailable = BookingService.unavailableReason(ticket);
+            if (unavailable != null) {
+                throw new IllegalStateException(unavailable);
+            }
+            BookingJournal.beginBooking();
+            if (!BookingService.reserveSeat(flight.getAirplane(), ticket.getClassVip())) {
+                throw new IllegalStateException(BookingService.soldOut(ticket.getClassVip(), flight.getFlightID()));
+            }
+            try {
+                ticket.setSeat(BookingService.claimSeat(flight.getAirplane(), ticket.getClassVip()));
+                ticket.setHeld(true);
+                BookingJournal.commitBooking();
+            } catch (RuntimeException e) {
+                ticket.setHeld(false);
+                if (ticket.getSeat() != null) {
+                    flight.getAirplane().releaseSeat(ticket.getSeat());
+                    ticket.setSeat(null);
+                }
+                BookingService.releaseSeat(flight.getAirplane(), ticket.getClassVip());
+                throw e;
+            }
+            SeatHold hold = new SeatHold(ticket, flight, clock.millis() + ttl.toMillis());
+            synchronized (this) {
+                hold.timeout = wheel.schedule(hold, hold.expiresAtMillis());
+                active.add(hold);
+            }
+            return hold;
+        } finally {
+            BookingJournal.endBooking();
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Sells a held ticket to passenger using the seat the hold reserved. If the sale fails, the hold ends
+     * and its seat goes back on sale.
+     *
+     * @throws IllegalStateException when the hold has expired or was already confirmed or released, or the journal
+     *                               has failed; the ticket is not sold and the hold is kept in that case
+     */
+    public BookingReceipt confirm(SeatHold hold, Passenger passenger)
+    {
+        if (hold == null || passenger == null) {
+            throw new IllegalArgumentException("Hold and passenger are required");
+        }
+        BookingReceipt receipt;
+        ReentrantLock lock = FlightLocks.forFlight(hold.getFlight().getFlightID());
+        lock.lock();
+        try {
+            BookingJournal.ensureWritable();
+            if (clock.millis() >= hold.expiresAtMillis()) {
+                // due but not yet swept by the wheel
+                lapse(hold);
+                throw new IllegalStateException("Hold on ticket " + hold.getTicket().getTicket_id() + " has expired");
+            }
+            if (!isActive(hold)) {
+                throw new IllegalStateException("Hold on ticket " + hold.getTicket().getTicket_id() + " is no longer active");
+            }
+            // sell first and end the hold after, so a failed sale cannot leave the held seat with no one to give it back
+            Ticket ticket = hold.getTicket();
+            BookingService.Sale sale = null;
+            RuntimeException failure = null;
+            BookingJournal.beginBooking();
+            try {
+                // the held seat was taken when the hold was placed, so the load surcharge counts it like any sold seat
+                int price = BookingService.quote(ticket, hold.getFlight().getAirplane(), passenger);
+                sale = BookingService.confirm(ticket, hold.getFlight(), passenger, price);
+                ticket.setHeld(false);
+                BookingJournal.commitBooking();
+            } catch (RuntimeException e) {
+                if (sale != null) {
+                    sale.undo();
+                }
+                failure = e;
+            } finally {
+                BookingJournal.endBooking();
+            }
+            if (failure != null) {
+                lapse(hold); // journalled on its own, not dropped with the failed sale
+                throw failure;
+            }
+            deactivate(hold);
+            receipt = new BookingReceipt(passenger, List.of(ticket), sale.getPrice());
+        } finally {
+            lock.unlock();
+        }
+        BookingJournal.awaitDurable();
+        return receipt;
+    }
+
+    /**
+     * Gives a held ticket and its seat back before the hold runs out.
+     *
+     * @return false when the hold had already ended
+     */
+    public boolean release(SeatHold hold)
+    {
+        if (hold == null) {
+            return false;
+        }
+        ReentrantLock lock = FlightLocks.forFlight(hold.getFlight().getFlightID());
+        lock.lock();
+        try {
+            return lapse(hold);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Ends every hold whose time is up, returning its ticket and seat to sale.
+     *
+     * @return the number of holds that expired
+     */
+    public int expireDue()
+    {
+        List<SeatHold> due = new ArrayList<>();
+        synchronized (this) {
+            wheel.advance(clock.millis(), due::add);
+        }
+        int expired = 0;
+        for (SeatHold hold : due) {
+            if (release(hold)) {
+                expired++;
+            }
+        }
+        return expired;
+    }
+
+    public synchronized int size()
+    {
+        return active.size();
+    }
+
+    // Expires holds once per tick on a daemon thread until close()
+    public synchronized void start()
+    {
+        if (ticker != null) {
+            return;
+        }
+        ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "seat-hold-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::expireDue, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void close()
+    {
+        if (ticker != null) {
+            ticker.shutdownNow();
+            ticker = null;
+        }
+    }
+
+    // Caller holds the flight lock
+    private boolean lapse(SeatHold hold)
+    {
+        if (!deactivate(hold)) {
+            return false;
+        }
+        Ticket ticket = hold.getTicket();
+        BookingJournal.beginBooking();
+        try {
+            ticket.setHeld(false);
+            if (ticket.getSeat() != null) {
+                hold.getFlight().getAirplane().releaseSeat(ticket.getSeat());
+                ticket.setSeat(null);
+            }
+            BookingService.releaseSeat(hold.getFlight().getAirplane(), ticket.getClassVip());
+            try {
+                BookingJournal.commitBooking();
+            } catch (IllegalStateException e) {
+                // the seat goes back on sale regardless: the journal now refuses bookings, and replay ends holds anyway
+            }
+        } finally {
+            BookingJournal.endBooking();
+        }
+        return true;
+    }
+
+    private synchronized boolean isActive(SeatHold hold)
+    {
+        return active.contains(hold);
+    }
+
+    private synchronized boolean deactivate(SeatHold hold)
+    {
+        if (!active.remove(hold)) {
+            return false;
+        }
+        wheel.cancel(hold.timeout);
+        return true;
+    }
+}
@@ -4,9 +4,12 @@ public class Ticket
 {
     private int ticket_id;
     private int price;
+    private int baseFare; // the fare before discount and tax, which the pricing rules start from
     Flight flight;
     private boolean classVip; //indicates if this is bussiness class ticket or not
     private boolean status; //indicates status of ticket: if it is bought by someone or not
+    private boolean held; //indicates a seat hold: kept for someone still paying, not for sale meanwhile
+    private String seat; //seat on the airplane, like "C4", assigned when the ticket is held or sold
     Passenger passenger;
 
     public Ticket(int ticket_id, int price, Flight flight, boolean classVip, Passenger passenger)
@@ -25,6 +28,7 @@ public class Ticket
 
         this.ticket_id = ticket_id;
         this.price = price;
+        this.baseFare = price;
         this.flight = flight;
         this.classVip = classVip;
         this.status = false;
@@ -36,6 +40,41 @@ public class Ticket
 
     }
 
+    // Rebuilds a ticket from saved state, skipping the price rules and index hooks of the setters
+    static Ticket restore(int ticket_id, int price, int baseFare, Flight flight, boolean classVip, boolean status, boolean held, Passenger passenger)
+    {
+        Ticket ticket = new Ticket();
+        ticket.ticket_id = ticket_id;
+        ticket.price = price;
+        ticket.baseFare = baseFare;
+        ticket.flight = flight;
+        ticket.classVip = classVip;
+        ticket.status = status;
+        ticket.held = held;
+        ticket.passenger = passenger;
+        return ticket;
+    }
+
+    void restoreState(Flight flight, boolean classVip, boolean status, boolean held)
+    {
+        this.flight = flight;
+        this.classVip = classVip;
+        this.status = status;
+        this.held = held;
+    }
+
+    void restoreSale(int price, Passenger passenger)
+    {
+        this.price = price;
+        this.passenger = passenger;
+    }
+
+    void restoreFare(int baseFare, int price)
+    {
+        this.baseFare = baseFare;
+        this.price = price;
+    }
+
     public int getTicket_id()
     {
         return ticket_id;
@@ -43,7 +82,10 @@ public class Ticket
 
     public void setTicket_id(int ticket_id)
     {
-        this.ticket_id = ticket_id;
+        if (this.ticket_id != ticket_id) {
+            this.ticket_id = ticket_id;
+            TicketCollection.invalidateIndex();
+        }
     }
 
     public int getPrice()
@@ -51,29 +93,53 @@ public class Ticket
         return price;
     }
 
+    // The fare before age discount and tax
+    public int getBaseFare()
+    {
+        return baseFare;
+    }
+
+    /**
+     * Sets the base fare and prices the ticket from it for its passenger's age and class.
+     * The price is quoted from the fare each time, so setting the same fare twice gives the same price.
+     */
     public void setPrice(int price)
+    {
+        int quoted = quoteFare(price);
+        this.baseFare = price;
+        this.price = quoted;
+    }
+
+    // Checks a new base fare and quotes it for this ticket's passenger and class. Both are journalled here,
+    // before the caller sets them, so a change the journal refuses is not made.
+    final int quoteFare(int baseFare)
     {
         // Validate price
-        if (price < 0) {
+        if (baseFare < 0) {
             throw new IllegalArgumentException("Price cannot be negative");
         }
 
+        int quoted = PricingEngine.STANDARD.quote(baseFare, getPassenger().getAge(), getClassVip());
+        BookingJournal.ticketPriced(this, baseFare, quoted);
+        return quoted;
+    }
+
+    // Price quoted from the current base fare at sale, e.g. by dynamic pricing
+    void setQuotedPrice(int price)
+    {
         this.price = price;
-        saleByAge(passenger.getAge()); //changes price of the ticket according to the age category of passenger
-        serviceTax(); //changes price by adding service tax to the ticket
     }
 
-    public void saleByAge(int age)
+    // New base fare for an unsold ticket; it is still priced for its passenger when sold
+    void reprice(int baseFare)
     {
-        int price = getPrice();
-        if(age < 15)
-        {
-            price-=(int)(price*0.5);//50% sale for children under 15
-            this.price = price;
+        this.baseFare = baseFare;
+        this.price = baseFare;
+    }
 
-        } else if(age>=60){
-            this.price = 0; //100% sale for elder people
-        }
+    public void saleByAge(int age)
+    {
+        this.price = PricingEngine.STANDARD.discountByAge(getPrice(), age); // children under 15 half price, 60 and over free
     }
 
     public Flight getFlight() {
@@ -84,7 +150,16 @@ public class Ticket
         if (flight == null) {
             throw new IllegalArgumentException("Flight cannot be null");
         }
-        this.flight = flight;
+        Flight old = this.flight;
+        if (old != flight) {
+            this.flight = flight;
+            try {
+                TicketCollection.ticketChanged(this);
+            } catch (RuntimeException e) {
+                this.flight = old; // the journal refused the change, so it is not made
+                throw e;
+            }
+        }
     }
 
     public boolean getClassVip() {
@@ -92,7 +167,15 @@ public class Ticket
     }
 
     public void setClassVip(boolean classVip) {
-        this.classVip = classVip;
+        if (this.classVip != classVip) {
+            this.classVip = classVip;
+            try {
+                TicketCollection.ticketChanged(this);
+            } catch (RuntimeException e) {
+                this.classVip = !classVip;
+                throw e;
+            }
+        }
     }
 
     public boolean ticketStatus()
@@ -102,11 +185,50 @@ public class Ticket
 
     public void setTicketStatus(boolean status)
     {
-        this.status = status;
+        if (this.status != status) {
+            this.status = status;
+            try {
+                TicketCollection.ticketChanged(this);
+            } catch (RuntimeException e) {
+                this.status = !status;
+                throw e;
+            }
+        }
+    }
+
+    public boolean isHeld()
+    {
+        return held;
+    }
+
+    // Set by SeatHolds only, while it holds the flight's booking lock
+    void setHeld(boolean held)
+    {
+        if (this.held != held) {
+            this.held = held;
+            try {
+                TicketCollection.ticketChanged(this);
+            } catch (RuntimeException e) {
+                this.held = !held;
+                throw e;
+            }
+        }
+    }
+
+    // The seat assigned to this ticket, or null when it has none
+    public String getSeat()
+    {
+        return seat;
+    }
+
+    // Set by BookingService and SeatHolds only, while they hold the flight's booking lock
+    void setSeat(String seat)
+    {
+        this.seat = seat;
     }
 
     public void serviceTax(){
-        this.price = (int)(this.price * 1.12);
+        this.price = PricingEngine.STANDARD.applyTax(this.price);
     } //12% service tax
 
     public Passenger getPassenger() {
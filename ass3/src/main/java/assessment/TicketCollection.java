@@ -1,14 +1,94 @@
 package assessment;
 
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
 
 public class TicketCollection {
 
 	public static ArrayList<Ticket> tickets = new ArrayList<>();
 
+	// Ticket indexes. They are rebuilt lazily whenever the list is replaced or
+	// resized behind our back, or a ticket or flight changes its id. Adding tickets and
+	// rebuilding take the write lock; lookups and single-ticket moves share the read lock,
+	// and a move only locks the one flight's unsold sets it touches.
+	private static final ReentrantReadWriteLock indexLock = new ReentrantReadWriteLock();
+	private static final IntObjectMap<Ticket> ticketsById = new IntObjectMap<>();
+	// flight id -> unsold tickets on that flight not on hold, split by class
+	private static final ConcurrentHashMap<Integer, AvailableTickets> availableByFlight = new ConcurrentHashMap<>();
+	// every indexed ticket -> the unsold set holding it, or NOT_AVAILABLE when it is sold, held or has no flight
+	private static final ConcurrentHashMap<Ticket, LinkedHashSet<Ticket>> availablePlacement = new ConcurrentHashMap<>();
+	private static final LinkedHashSet<Ticket> NOT_AVAILABLE = new LinkedHashSet<>();
+	private static ArrayList<Ticket> indexedTickets;
+	private static int indexedSize = -1;
+	// Flights with at least this many unsold tickets also compute their new fares in parallel
+	private static final int PARALLEL_FARES = 8_192;
+	private static final Ticket[] NO_TICKETS = new Ticket[0];
+	// When set, tickets live in this columnar store instead of the list and lookups return views of its rows
+	private static volatile TicketStore store;
+
+	/**
+	 * Keeps tickets in a columnar {@link TicketStore} from now on. Tickets already in the collection are
+	 * copied into it; from then on lookups return views made on demand, so scans and aggregates read
+	 * primitive columns rather than one object per ticket. With {@link TicketStore#offHeap()} the tickets
+	 * also leave the Java heap, so heap size and GC pauses stay flat as the inventory grows. Pass null to go
+	 * back to the ticket list, which then holds views of the old store.
+	 */
+	public static void useStore(TicketStore ticketStore)
+	{
+		indexLock.writeLock().lock();
+		try
+		{
+			switchStore(ticketStore);
+		}
+		finally
+		{
+			indexLock.writeLock().unlock();
+		}
+	}
+
+	private static void switchStore(TicketStore ticketStore)
+	{
+		if (ticketStore == store)
+		{
+			return;
+		}
+		ArrayList<Ticket> current = getTickets();
+		if (ticketStore != null)
+		{
+			for (Ticket ticket : current)
+			{
+				ticketStore.add(ticket);
+			}
+			tickets = new ArrayList<>();
+			// the object indexes would otherwise keep every old ticket reachable
+			ticketsById.clear();
+			availableByFlight.clear();
+			availablePlacement.clear();
+			indexedTickets = null;
+			indexedSize = -1;
+		}
+		else
+		{
+			tickets = current;
+		}
+		store = ticketStore;
+	}
+
+	public static TicketStore getStore()
+	{
+		return store;
+	}
+
 	public static ArrayList<Ticket> getTickets()
 	{
-		return tickets;
+		TicketStore columns = store;
+		return columns != null ? columns.tickets() : tickets;
 	}
 
 	public static void addTickets(ArrayList<Ticket> tickets_db)
@@ -16,26 +96,418 @@ public class TicketCollection {
 		if (tickets_db == null) {
 			throw new NullPointerException("Cannot add null ticket list");
 		}
-		TicketCollection.tickets.addAll(tickets_db);
+		indexLock.writeLock().lock();
+		try
+		{
+			// journalled first and under the lock, so a batch the journal refuses is not added and batches replay in order
+			BookingJournal.ticketsAdded(tickets_db);
+			if (store != null)
+			{
+				for (Ticket ticket : tickets_db)
+				{
+					store.add(ticket);
+				}
+			}
+			else
+			{
+				syncIndex();
+				TicketCollection.tickets.addAll(tickets_db);
+				for (Ticket ticket : tickets_db)
+				{
+					index(ticket);
+				}
+				indexedSize = TicketCollection.tickets.size();
+			}
+		}
+		finally
+		{
+			indexLock.writeLock().unlock();
+		}
+	}
+
+	// A copy of the ticket list that no addTickets is half way through
+	static ArrayList<Ticket> copyTickets()
+	{
+		indexLock.readLock().lock();
+		try
+		{
+			return new ArrayList<>(getTickets());
+		}
+		finally
+		{
+			indexLock.readLock().unlock();
+		}
 	}
 
 	public static void getAllTickets()
 	{
 		//display all available tickets from the Ticket collection
-		for (Ticket ticket : tickets)
+		for (Ticket ticket : getTickets())
 		{
 			System.out.println(ticket);
 		}
 	}
 	public static Ticket getTicketInfo(int ticket_id) {
 		//SELECT a ticket where ticket id = ticket_id
+		TicketStore columns = store;
+		if (columns != null)
+		{
+			return columns.find(ticket_id);
+		}
+		// the map is rehashed in place by addTickets, so read it under the index lock
+		lockIndex();
+		try
+		{
+			return ticketsById.get(ticket_id);
+		}
+		finally
+		{
+			indexLock.readLock().unlock();
+		}
+	}
+
+	public static List<Ticket> getAvailableTickets(int flight_id)
+	{
+		//SELECT tickets where flight id = flight_id and status = not bought and not held
+		TicketStore columns = store;
+		if (columns != null)
+		{
+			List<Ticket> result = columns.available(flight_id, false);
+			result.addAll(columns.available(flight_id, true));
+			return result;
+		}
+		AvailableTickets available = availableOn(flight_id);
+		if (available == null)
+		{
+			return new ArrayList<>();
+		}
+		synchronized (available.economy)
+		{
+			synchronized (available.business)
+			{
+				List<Ticket> result = new ArrayList<>(available.economy.size() + available.business.size());
+				result.addAll(available.economy);
+				result.addAll(available.business);
+				return result;
+			}
+		}
+	}
+
+	public static List<Ticket> getAvailableTickets(int flight_id, boolean classVip)
+	{
+		//SELECT tickets where flight id = flight_id, class = classVip and status = not bought and not held
+		TicketStore columns = store;
+		if (columns != null)
+		{
+			return columns.available(flight_id, classVip);
+		}
+		AvailableTickets available = availableOn(flight_id);
+		if (available == null)
+		{
+			return new ArrayList<>();
+		}
+		LinkedHashSet<Ticket> inClass = classVip ? available.business : available.economy;
+		synchronized (inClass)
+		{
+			return new ArrayList<>(inClass);
+		}
+	}
+
+	// How many tickets on flight_id are for sale in the given class
+	public static int countAvailable(int flight_id, boolean classVip)
+	{
+		TicketStore columns = store;
+		if (columns != null)
+		{
+			return columns.countAvailable(flight_id, classVip);
+		}
+		AvailableTickets available = availableOn(flight_id);
+		if (available == null)
+		{
+			return 0;
+		}
+		LinkedHashSet<Ticket> inClass = classVip ? available.business : available.economy;
+		synchronized (inClass)
+		{
+			return inClass.size();
+		}
+	}
+
+	// The unsold sets of one flight from an up to date index, or null when it has none
+	private static AvailableTickets availableOn(int flight_id)
+	{
+		lockIndex();
+		try
+		{
+			return availableByFlight.get(flight_id);
+		}
+		finally
+		{
+			indexLock.readLock().unlock();
+		}
+	}
+
+	// Sum of the prices paid for the sold tickets on flight_id
+	public static long soldRevenue(int flight_id)
+	{
+		TicketStore columns = store;
+		if (columns != null)
+		{
+			return columns.soldRevenue(flight_id);
+		}
+		long revenue = 0;
 		for (Ticket ticket : tickets)
 		{
-			if(ticket.getTicket_id() == ticket_id)
+			if (ticket.ticketStatus() && ticket.getFlight() != null && ticket.getFlight().getFlightID() == flight_id)
+			{
+				revenue += ticket.getPrice();
+			}
+		}
+		return revenue;
+	}
+
+	/**
+	 * Sets the base fare of every unsold ticket on the given flights to fare applied to its current base fare.
+	 * Flights are repriced in parallel on the common fork/join pool. Each flight's new fares are worked out
+	 * first and then written together under its booking lock from {@link FlightLocks}, so a booking on that
+	 * flight prices from all old fares or all new ones, never a mix. Sold and held tickets are left alone.
+	 * With a {@link TicketStore} in use, each flight's work reads only its rows in the store's unsold index.
+	 *
+	 * @return the number of tickets repriced
+	 * @throws IllegalArgumentException when fare returns a negative fare; that flight keeps all its old fares, while
+	 *         other flights already repriced keep their new ones
+	 * @throws IllegalStateException when the journal cannot take a flight's new fares; that flight keeps its old ones
+	 */
+	public static int repriceUnsold(int[] flightIds, IntUnaryOperator fare)
+	{
+		if (flightIds == null || fare == null) {
+			throw new IllegalArgumentException("Flights and fare change are required");
+		}
+		int[] flights = IntStream.of(flightIds).distinct().toArray(); // repricing a flight twice would compound
+		TicketStore columns = store;
+		if (columns != null)
+		{
+			return IntStream.of(flights).parallel()
+					.map(flightId -> repriceColumns(columns, flightId, fare))
+					.sum();
+		}
+		Ticket[][] unsold = new Ticket[flights.length][];
+		for (int i = 0; i < flights.length; i++)
+		{
+			unsold[i] = getAvailableTickets(flights[i]).toArray(NO_TICKETS);
+		}
+		return IntStream.range(0, flights.length).parallel()
+				.map(i -> repriceFlight(flights[i], unsold[i], fare))
+				.sum();
+	}
+
+	private static int repriceFlight(int flightId, Ticket[] tickets, IntUnaryOperator fare)
+	{
+		if (tickets.length == 0)
+		{
+			return 0;
+		}
+		int[] oldFares = new int[tickets.length];
+		int[] newFares = new int[tickets.length];
+		IntStream indexes = IntStream.range(0, tickets.length);
+		(tickets.length >= PARALLEL_FARES ? indexes.parallel() : indexes).forEach(i -> {
+			oldFares[i] = tickets[i].getBaseFare();
+			newFares[i] = checkedFare(fare, oldFares[i]);
+		});
+
+		int repriced = 0;
+		ReentrantLock lock = FlightLocks.forFlight(flightId);
+		lock.lock();
+		try
+		{
+			// every fare is checked before any ticket changes, so a bad fare leaves the whole flight as it was
+			for (int i = 0; i < tickets.length; i++)
+			{
+				Ticket ticket = tickets[i];
+				// sold, held or moved since the index was read
+				if (ticket.ticketStatus() || ticket.isHeld() || ticket.getFlight() == null || ticket.getFlight().getFlightID() != flightId)
+				{
+					newFares[i] = -1;
+					continue;
+				}
+				int base = ticket.getBaseFare();
+				if (base != oldFares[i])
+				{
+					newFares[i] = checkedFare(fare, base);
+				}
+			}
+			List<Ticket> changing = new ArrayList<>(tickets.length);
+			int[] fares = new int[tickets.length];
+			for (int i = 0; i < tickets.length; i++)
+			{
+				if (newFares[i] >= 0)
+				{
+					changing.add(tickets[i]);
+					fares[repriced++] = newFares[i];
+				}
+			}
+			// the flight's new fares are journalled together before any is set, so the batch is all or nothing
+			BookingJournal.ticketsRepriced(changing, fares);
+			for (int i = 0; i < repriced; i++)
+			{
+				changing.get(i).reprice(fares[i]);
+			}
+		}
+		finally
+		{
+			lock.unlock();
+		}
+		return repriced;
+	}
+
+	private static int repriceColumns(TicketStore columns, int flightId, IntUnaryOperator fare)
+	{
+		ReentrantLock lock = FlightLocks.forFlight(flightId);
+		lock.lock();
+		try
+		{
+			return columns.repriceAvailable(flightId, fare);
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	private static int checkedFare(IntUnaryOperator fare, int oldFare)
+	{
+		int newFare = fare.applyAsInt(oldFare);
+		if (newFare < 0)
+		{
+			throw new IllegalArgumentException("Price cannot be negative");
+		}
+		return newFare;
+	}
+
+	// Called when a ticket's id or a flight's id changes so the indexes are rebuilt on next lookup
+	static void invalidateIndex()
+	{
+		indexLock.writeLock().lock();
+		try
+		{
+			indexedSize = -1;
+			if (store != null)
 			{
-				return ticket;
+				store.invalidate();
 			}
 		}
-		return null;
+		finally
+		{
+			indexLock.writeLock().unlock();
+		}
+	}
+
+	// Called when a ticket's status, hold, flight or class changes so it moves to the right unsold set.
+	// Only the sets of the flights it leaves and joins are locked, so sales on other flights carry on.
+	// The change is journalled first: if that throws, the indexes are untouched and the caller puts the field back.
+	static void ticketChanged(Ticket ticket)
+	{
+		BookingJournal.ticketChanged(ticket);
+		indexLock.readLock().lock();
+		try
+		{
+			if (!isIndexed())
+			{
+				// the next lookup rebuilds everything anyway
+				return;
+			}
+			// runs one change of a ticket at a time; a ticket that is not indexed is left out
+			availablePlacement.computeIfPresent(ticket, (moved, current) -> {
+				if (current != NOT_AVAILABLE)
+				{
+					synchronized (current)
+					{
+						current.remove(moved);
+					}
+				}
+				return placeAvailable(moved);
+			});
+		}
+		finally
+		{
+			indexLock.readLock().unlock();
+		}
+	}
+
+	// Takes the index read lock, rebuilding the indexes first if the list changed behind our back
+	private static void lockIndex()
+	{
+		indexLock.readLock().lock();
+		if (isIndexed())
+		{
+			return;
+		}
+		indexLock.readLock().unlock();
+		indexLock.writeLock().lock();
+		try
+		{
+			syncIndex();
+			indexLock.readLock().lock();
+		}
+		finally
+		{
+			indexLock.writeLock().unlock();
+		}
+	}
+
+	private static boolean isIndexed()
+	{
+		return indexedTickets == tickets && indexedSize == tickets.size();
+	}
+
+	// Caller holds the index write lock
+	private static void syncIndex()
+	{
+		if (isIndexed())
+		{
+			return;
+		}
+		ticketsById.clear();
+		availableByFlight.clear();
+		availablePlacement.clear();
+		for (Ticket ticket : tickets)
+		{
+			index(ticket);
+		}
+		indexedTickets = tickets;
+		indexedSize = tickets.size();
+	}
+
+	private static void index(Ticket ticket)
+	{
+		// earlier entries win, so duplicates resolve to the first match like the old scan did
+		ticketsById.putIfAbsent(ticket.getTicket_id(), ticket);
+		if (!availablePlacement.containsKey(ticket))
+		{
+			availablePlacement.put(ticket, placeAvailable(ticket));
+		}
+	}
+
+	// Adds the ticket to the unsold set it belongs in and returns that set
+	private static LinkedHashSet<Ticket> placeAvailable(Ticket ticket)
+	{
+		if (ticket.getFlight() == null || ticket.ticketStatus() || ticket.isHeld())
+		{
+			return NOT_AVAILABLE;
+		}
+		AvailableTickets available = availableByFlight.computeIfAbsent(ticket.getFlight().getFlightID(), k -> new AvailableTickets());
+		LinkedHashSet<Ticket> target = ticket.getClassVip() ? available.business : available.economy;
+		synchronized (target)
+		{
+			target.add(ticket);
+		}
+		return target;
+	}
+
+	// Each set is guarded by its own monitor; a reader wanting both takes economy then business
+	private static class AvailableTickets
+	{
+		final LinkedHashSet<Ticket> business = new LinkedHashSet<>();
+		final LinkedHashSet<Ticket> economy = new LinkedHashSet<>();
 	}
 }
\ No newline at end of file
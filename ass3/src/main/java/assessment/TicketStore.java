@@ -0,0 +1,748 @@
+package assessment;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Columnar ticket storage: ticket id, price, base fare, flight id and status flags sit in parallel
+ * primitive arrays, so scans like "unsold economy tickets on flight X" read a few arrays front to back
+ * instead of chasing a pointer per ticket. Flights and passengers are stored once each and referred to
+ * by number. {@link Ticket} objects are views of a row, made on demand; reading or changing a view reads
+ * or changes the row, so two views of one row always agree.
+ *
+ * <p>Rows live in fixed-size chunks that are never copied, so a view can be written while tickets
+ * are being added. Adding is synchronized; a row is read and written like the fields of a plain ticket,
+ * under the same flight locks.
+ *
+ * <p>The rows for sale are also indexed by flight and class, kept in row order and updated as rows are
+ * added, sold, held or moved, so listing or counting a flight's unsold seats reads only that flight's rows.
+ * Each flight's sets have their own monitors, so lookups on one flight never wait for another.
+ *
+ * <p>{@link #offHeap()} keeps the rows as fixed-width records in direct buffers instead, with the ticket id
+ * index and the unsold rows above beside them, so the heap holds only the flights and passengers tickets
+ * refer to and a few buffer objects per flight. Direct memory is limited by -XX:MaxDirectMemorySize,
+ * which defaults to the maximum heap size; it is freed when the store is garbage collected.
+ */
+public class TicketStore {
+
+    static final int VIP = 1;
+    static final int SOLD = 2;
+    static final int HELD = 4;
+    static final int NO_FLIGHT = 8;
+    // Rows a ticket must not have to be for sale
+    private static final int UNAVAILABLE = SOLD | HELD | NO_FLIGHT;
+
+    private static final int CHUNK_BITS = 14;
+    static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    // The int columns of a row; flags are a byte beside them
+    private static final int TICKET_ID = 0;
+    private static final int PRICE = 1;
+    private static final int BASE_FARE = 2;
+    private static final int FLIGHT_ID = 3;
+    private static final int FLIGHT_REF = 4;
+    private static final int PASSENGER_REF = 5;
+    private static final int COLUMNS = 6;
+
+    private final boolean offHeap;
+    // add publishes a new chunk before the size that reaches into it, so scans read size first and then
+    // chunks, and the table they get covers every row they count
+    private volatile Chunk[] chunks = new Chunk[0];
+    private volatile int size;
+    private final Table<Flight> flights = new Table<>();
+    private final Table<Passenger> passengers = new Table<>();
+    // Open-addressed ticket id index holding row + 1 of the first row with each id, 0 for an empty slot.
+    // Keys are read from the id column, so the index is one int per slot. Null once an id changes, and rebuilt
+    // on the next lookup. Changed only under this store's monitor and read by find without it: a grown or
+    // rebuilt table is filled before it is published, and find trusts a slot only for a row below size,
+    // so it never reads a row that is still being added.
+    private volatile IntBuffer idSlots;
+    private int idCount;
+    // Rows for sale, by flight id
+    private final ConcurrentHashMap<Integer, FreeRows> freeByFlight = new ConcurrentHashMap<>();
+
+    // Rows as primitive arrays on the heap
+    public TicketStore()
+    {
+        this(false);
+    }
+
+    private TicketStore(boolean offHeap)
+    {
+        this.offHeap = offHeap;
+        this.idSlots = slots(16);
+    }
+
+    // Rows as fixed-width records outside the Java heap
+    public static TicketStore offHeap()
+    {
+        return new TicketStore(true);
+    }
+
+    public boolean isOffHeap()
+    {
+        return offHeap;
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Copies ticket into a new row. Later changes to ticket itself are not seen; use the view from
+     * {@link #get(int)} or {@link #find(int)}.
+     *
+     * @return the row
+     */
+    public synchronized int add(Ticket ticket)
+    {
+        if (ticket == null) {
+            throw new IllegalArgumentException("Ticket cannot be null");
+        }
+        int row = size;
+        if ((row & CHUNK_MASK) == 0 && row >> CHUNK_BITS == chunks.length) {
+            Chunk[] grown = new Chunk[chunks.length + 1];
+            System.arraycopy(chunks, 0, grown, 0, chunks.length);
+            grown[chunks.length] = offHeap ? new DirectChunk() : new HeapChunk();
+            chunks = grown;
+        }
+        Chunk chunk = chunks[row >> CHUNK_BITS];
+        int i = row & CHUNK_MASK;
+        Flight flight = ticket.getFlight();
+        chunk.set(TICKET_ID, i, ticket.getTicket_id());
+        chunk.set(PRICE, i, ticket.getPrice());
+        chunk.set(BASE_FARE, i, ticket.getBaseFare());
+        chunk.set(FLIGHT_ID, i, flight == null ? 0 : flight.getFlightID());
+        chunk.set(FLIGHT_REF, i, flights.number(flight));
+        chunk.set(PASSENGER_REF, i, passengers.number(ticket.getPassenger()));
+        chunk.setFlags(i, (ticket.getClassVip() ? VIP : 0) | (ticket.ticketStatus() ? SOLD : 0)
+                | (ticket.isHeld() ? HELD : 0) | (flight == null ? NO_FLIGHT : 0));
+        chunk.setSeat(i, ticket.getSeat() == null ? 0 : Airplane.seatIndex(ticket.getSeat()) + 1);
+        IntBuffer ids = idSlots;
+        if (ids != null) {
+            idSlots = indexId(ids, row);
+        }
+        size = row + 1; // after the id index, so a lookup finds every row it can count
+        RowSet free = freeRows(chunk.get(FLIGHT_ID, i), chunk.flags(i), true);
+        if (free != null) {
+            free.add(row);
+        }
+        return row;
+    }
+
+    // A view of row
+    public Ticket get(int row)
+    {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " of " + size);
+        }
+        return new TicketView(this, row);
+    }
+
+    // A view of the first row with this ticket id, or null. Takes no lock unless an id changed since the last lookup.
+    public Ticket find(int ticketId)
+    {
+        IntBuffer ids = idSlots;
+        if (ids == null) {
+            ids = rebuildIds();
+        }
+        int rows = size;
+        int mask = ids.capacity() - 1;
+        for (int slot = hash(ticketId) & mask; ids.get(slot) != 0; slot = (slot + 1) & mask) {
+            int row = ids.get(slot) - 1;
+            if (row < rows && ticketId(row) == ticketId) {
+                return new TicketView(this, row);
+            }
+        }
+        return null;
+    }
+
+    private synchronized IntBuffer rebuildIds()
+    {
+        if (idSlots == null) {
+            IntBuffer ids = slots(16);
+            idCount = 0;
+            for (int row = 0; row < size; row++) {
+                ids = indexId(ids, row); // in row order, so the first row with an id wins
+            }
+            idSlots = ids;
+        }
+        return idSlots;
+    }
+
+    // Adds row to ids, or to a bigger copy once ids is half full; returns the table now holding it
+    private IntBuffer indexId(IntBuffer ids, int row)
+    {
+        if ((idCount + 1) * 2 > ids.capacity()) {
+            IntBuffer old = ids;
+            ids = slots(old.capacity() * 2);
+            for (int slot = 0; slot < old.capacity(); slot++) {
+                if (old.get(slot) != 0) {
+                    insertId(ids, old.get(slot) - 1);
+                }
+            }
+        }
+        if (insertId(ids, row)) {
+            idCount++;
+        }
+        return ids;
+    }
+
+    private boolean insertId(IntBuffer ids, int row)
+    {
+        int ticketId = ticketId(row);
+        int mask = ids.capacity() - 1;
+        int slot = hash(ticketId) & mask;
+        while (ids.get(slot) != 0) {
+            if (ticketId(ids.get(slot) - 1) == ticketId) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        ids.put(slot, row + 1);
+        return true;
+    }
+
+    private IntBuffer slots(int count)
+    {
+        return offHeap ? ByteBuffer.allocateDirect(count * Integer.BYTES).order(ByteOrder.nativeOrder()).asIntBuffer()
+                : IntBuffer.allocate(count);
+    }
+
+    private static int hash(int key)
+    {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    // Views of every row, in the order they were added
+    public ArrayList<Ticket> tickets()
+    {
+        int rows = size;
+        ArrayList<Ticket> views = new ArrayList<>(rows);
+        for (int row = 0; row < rows; row++) {
+            views.add(new TicketView(this, row));
+        }
+        return views;
+    }
+
+    // Views of the tickets on flight that are for sale in the given class
+    public List<Ticket> available(int flightId, boolean classVip)
+    {
+        RowSet free = freeRows(flightId, classVip ? VIP : 0, false);
+        int[] rows = free == null ? new int[0] : free.toArray();
+        List<Ticket> views = new ArrayList<>(rows.length);
+        for (int row : rows) {
+            views.add(new TicketView(this, row));
+        }
+        return views;
+    }
+
+    // How many tickets on flight are for sale in the given class
+    public int countAvailable(int flightId, boolean classVip)
+    {
+        RowSet free = freeRows(flightId, classVip ? VIP : 0, false);
+        return free == null ? 0 : free.size();
+    }
+
+    // Sum of the prices paid for sold tickets on flight
+    public long soldRevenue(int flightId)
+    {
+        long revenue = 0;
+        int rows = size;
+        Chunk[] table = chunks;
+        for (int c = 0; c << CHUNK_BITS < rows; c++) {
+            revenue += table[c].sumPrices(flightId, SOLD | NO_FLIGHT, SOLD, Math.min(CHUNK_SIZE, rows - (c << CHUNK_BITS)));
+        }
+        return revenue;
+    }
+
+    /**
+     * Sets the base fare of every unsold ticket not on hold on flight to fare applied to it. The caller holds
+     * the flight's booking lock. Only the flight's rows in the unsold index are read, and every new fare is worked
+     * out, checked and journalled before any row changes, so the flight's fares change all together or not at all.
+     *
+     * @return the number of tickets repriced
+     * @throws IllegalArgumentException when fare returns a negative fare
+     */
+    int repriceAvailable(int flightId, IntUnaryOperator fare)
+    {
+        FreeRows free = freeByFlight.get(flightId);
+        if (free == null) {
+            return 0;
+        }
+        int[] business = free.business.toArray();
+        int[] economy = free.economy.toArray();
+        int[] rows = new int[business.length + economy.length];
+        System.arraycopy(business, 0, rows, 0, business.length);
+        System.arraycopy(economy, 0, rows, business.length, economy.length);
+        int[] newFares = new int[rows.length];
+        for (int r = 0; r < rows.length; r++) {
+            newFares[r] = fare.applyAsInt(get(rows[r], BASE_FARE));
+            if (newFares[r] < 0) {
+                throw new IllegalArgumentException("Price cannot be negative");
+            }
+        }
+        List<Ticket> changing = new ArrayList<>(rows.length);
+        for (int row : rows) {
+            changing.add(new TicketView(this, row));
+        }
+        BookingJournal.ticketsRepriced(changing, newFares); // before any row changes, so the batch is all or nothing
+        for (int r = 0; r < rows.length; r++) {
+            set(rows[r], BASE_FARE, newFares[r]);
+            set(rows[r], PRICE, newFares[r]);
+        }
+        return rows.length;
+    }
+
+    // Takes new flight ids and ticket ids after a flight or ticket changed its id
+    synchronized void invalidate()
+    {
+        int rows = size;
+        for (int row = 0; row < rows; row++) {
+            Flight flight = flight(row);
+            int oldId = get(row, FLIGHT_ID);
+            if (flight != null && flight.getFlightID() != oldId) {
+                set(row, FLIGHT_ID, flight.getFlightID());
+                int flags = chunks[row >> CHUNK_BITS].flags(row & CHUNK_MASK);
+                moveFree(row, oldId, flags, flight.getFlightID(), flags);
+            }
+        }
+        idSlots = null;
+    }
+
+    private int get(int row, int column)
+    {
+        return chunks[row >> CHUNK_BITS].get(column, row & CHUNK_MASK);
+    }
+
+    private void set(int row, int column, int value)
+    {
+        chunks[row >> CHUNK_BITS].set(column, row & CHUNK_MASK, value);
+    }
+
+    // Column access for TicketView
+
+    int ticketId(int row)
+    {
+        return get(row, TICKET_ID);
+    }
+
+    synchronized void setTicketId(int row, int ticketId)
+    {
+        set(row, TICKET_ID, ticketId);
+        idSlots = null;
+    }
+
+    int price(int row)
+    {
+        return get(row, PRICE);
+    }
+
+    void setPrice(int row, int price)
+    {
+        set(row, PRICE, price);
+    }
+
+    int baseFare(int row)
+    {
+        return get(row, BASE_FARE);
+    }
+
+    void setBaseFare(int row, int baseFare)
+    {
+        set(row, BASE_FARE, baseFare);
+    }
+
+    Flight flight(int row)
+    {
+        return flights.get(get(row, FLIGHT_REF));
+    }
+
+    void setFlight(int row, Flight flight)
+    {
+        int ref;
+        synchronized (this) {
+            ref = flights.number(flight);
+        }
+        Chunk chunk = chunks[row >> CHUNK_BITS];
+        int i = row & CHUNK_MASK;
+        int oldId = chunk.get(FLIGHT_ID, i);
+        int oldFlags = chunk.flags(i);
+        int newId = flight == null ? 0 : flight.getFlightID();
+        int newFlags = flight == null ? oldFlags | NO_FLIGHT : oldFlags & ~NO_FLIGHT;
+        chunk.set(FLIGHT_REF, i, ref);
+        chunk.set(FLIGHT_ID, i, newId);
+        chunk.setFlags(i, newFlags);
+        moveFree(row, oldId, oldFlags, newId, newFlags);
+    }
+
+    Passenger passenger(int row)
+    {
+        return passengers.get(get(row, PASSENGER_REF));
+    }
+
+    void setPassenger(int row, Passenger passenger)
+    {
+        int ref;
+        synchronized (this) {
+            ref = passengers.number(passenger);
+        }
+        set(row, PASSENGER_REF, ref);
+    }
+
+    boolean hasFlag(int row, int flag)
+    {
+        return (chunks[row >> CHUNK_BITS].flags(row & CHUNK_MASK) & flag) != 0;
+    }
+
+    void setFlag(int row, int flag, boolean on)
+    {
+        Chunk chunk = chunks[row >> CHUNK_BITS];
+        int i = row & CHUNK_MASK;
+        int flags = chunk.flags(i);
+        int newFlags = on ? flags | flag : flags & ~flag;
+        chunk.setFlags(i, newFlags);
+        int flightId = chunk.get(FLIGHT_ID, i);
+        moveFree(row, flightId, flags, flightId, newFlags);
+    }
+
+    // The index set a row with this flight id and flags belongs in, or null when it is not for sale
+    private RowSet freeRows(int flightId, int flags, boolean create)
+    {
+        if ((flags & UNAVAILABLE) != 0) {
+            return null;
+        }
+        FreeRows free = create ? freeByFlight.computeIfAbsent(flightId, k -> new FreeRows()) : freeByFlight.get(flightId);
+        return free == null ? null : (flags & VIP) != 0 ? free.business : free.economy;
+    }
+
+    // Moves row to the index set for its new flight id and flags
+    private void moveFree(int row, int oldFlightId, int oldFlags, int newFlightId, int newFlags)
+    {
+        RowSet from = freeRows(oldFlightId, oldFlags, false);
+        RowSet to = freeRows(newFlightId, newFlags, true);
+        if (from == to) {
+            return;
+        }
+        if (from != null) {
+            from.remove(row);
+        }
+        if (to != null) {
+            to.add(row);
+        }
+    }
+
+    String seat(int row)
+    {
+        int seat = chunks[row >> CHUNK_BITS].seat(row & CHUNK_MASK);
+        return seat == 0 ? null : Airplane.seatLabel(seat - 1);
+    }
+
+    void setSeat(int row, String seat)
+    {
+        chunks[row >> CHUNK_BITS].setSeat(row & CHUNK_MASK, seat == null ? 0 : Airplane.seatIndex(seat) + 1);
+    }
+
+    // CHUNK_SIZE rows; the scans live here so each layout runs its own tight loop
+    private abstract static class Chunk {
+        abstract int get(int column, int i);
+
+        abstract void set(int column, int i, int value);
+
+        abstract int flags(int i);
+
+        abstract void setFlags(int i, int flags);
+
+        // Seat index + 1, 0 for no seat
+        abstract int seat(int i);
+
+        abstract void setSeat(int i, int seat);
+
+        // Sum of prices of rows before end on flightId whose flags masked by mask equal want
+        abstract long sumPrices(int flightId, int mask, int want, int end);
+    }
+
+    // Struct of arrays: one primitive array per column
+    private static final class HeapChunk extends Chunk {
+        private final int[] ticketIds = new int[CHUNK_SIZE];
+        private final int[] prices = new int[CHUNK_SIZE];
+        private final int[] baseFares = new int[CHUNK_SIZE];
+        private final int[] flightIds = new int[CHUNK_SIZE];
+        private final int[] flightRefs = new int[CHUNK_SIZE];
+        private final int[] passengerRefs = new int[CHUNK_SIZE];
+        private final byte[] flags = new byte[CHUNK_SIZE];
+        private final byte[] seats = new byte[CHUNK_SIZE];
+
+        private int[] column(int column)
+        {
+            return switch (column) {
+                case TICKET_ID -> ticketIds;
+                case PRICE -> prices;
+                case BASE_FARE -> baseFares;
+                case FLIGHT_ID -> flightIds;
+                case FLIGHT_REF -> flightRefs;
+                default -> passengerRefs;
+            };
+        }
+
+        @Override
+        int get(int column, int i)
+        {
+            return column(column)[i];
+        }
+
+        @Override
+        void set(int column, int i, int value)
+        {
+            column(column)[i] = value;
+        }
+
+        @Override
+        int flags(int i)
+        {
+            return flags[i];
+        }
+
+        @Override
+        void setFlags(int i, int flags)
+        {
+            this.flags[i] = (byte) flags;
+        }
+
+        @Override
+        int seat(int i)
+        {
+            return seats[i];
+        }
+
+        @Override
+        void setSeat(int i, int seat)
+        {
+            seats[i] = (byte) seat;
+        }
+
+        @Override
+        long sumPrices(int flightId, int mask, int want, int end)
+        {
+            long sum = 0;
+            for (int i = 0; i < end; i++) {
+                if (flightIds[i] == flightId && (flags[i] & mask) == want) {
+                    sum += prices[i];
+                }
+            }
+            return sum;
+        }
+    }
+
+    // Fixed-width records in a direct buffer: the six int columns, then the flags and seat bytes padded to keep ints aligned
+    private static final class DirectChunk extends Chunk {
+        private static final int RECORD = COLUMNS * Integer.BYTES + Integer.BYTES;
+        private static final int FLAGS = COLUMNS * Integer.BYTES;
+        private static final int SEAT = FLAGS + 1;
+
+        private final ByteBuffer records = ByteBuffer.allocateDirect(CHUNK_SIZE * RECORD).order(ByteOrder.nativeOrder());
+
+        @Override
+        int get(int column, int i)
+        {
+            return records.getInt(i * RECORD + column * Integer.BYTES);
+        }
+
+        @Override
+        void set(int column, int i, int value)
+        {
+            records.putInt(i * RECORD + column * Integer.BYTES, value);
+        }
+
+        @Override
+        int flags(int i)
+        {
+            return records.get(i * RECORD + FLAGS);
+        }
+
+        @Override
+        void setFlags(int i, int flags)
+        {
+            records.put(i * RECORD + FLAGS, (byte) flags);
+        }
+
+        @Override
+        int seat(int i)
+        {
+            return records.get(i * RECORD + SEAT);
+        }
+
+        @Override
+        void setSeat(int i, int seat)
+        {
+            records.put(i * RECORD + SEAT, (byte) seat);
+        }
+
+        @Override
+        long sumPrices(int flightId, int mask, int want, int end)
+        {
+            long sum = 0;
+            for (int at = 0, limit = end * RECORD; at < limit; at += RECORD) {
+                if (records.getInt(at + FLIGHT_ID * Integer.BYTES) == flightId && (records.get(at + FLAGS) & mask) == want) {
+                    sum += records.getInt(at + PRICE * Integer.BYTES);
+                }
+            }
+            return sum;
+        }
+    }
+
+    // Objects numbered in the order first seen, -1 for null
+    private static final class Table<T> {
+        // Open-addressed identity index holding number + 1 of each object, 0 for an empty slot. Keys are read
+        // from objects, so the index is one int per slot rather than a map entry and a boxed number per object.
+        private int[] slots = new int[32];
+        private volatile Object[] objects = new Object[16];
+        private int count;
+
+        // Callers hold the store's monitor
+        int number(T object)
+        {
+            if (object == null) {
+                return -1;
+            }
+            int mask = slots.length - 1;
+            int slot = hash(object) & mask;
+            for (; slots[slot] != 0; slot = (slot + 1) & mask) {
+                if (objects[slots[slot] - 1] == object) {
+                    return slots[slot] - 1;
+                }
+            }
+            if (count == objects.length) {
+                Object[] grown = new Object[count * 2];
+                System.arraycopy(objects, 0, grown, 0, count);
+                objects = grown;
+            }
+            objects[count] = object;
+            if ((count + 1) * 2 > slots.length) {
+                rehash(slots.length * 2);
+            } else {
+                slots[slot] = count + 1;
+            }
+            return count++;
+        }
+
+        // Rebuilds the index at capacity, including the object just placed at objects[count]
+        private void rehash(int capacity)
+        {
+            slots = new int[capacity];
+            int mask = capacity - 1;
+            for (int number = 0; number <= count; number++) {
+                int slot = hash(objects[number]) & mask;
+                while (slots[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                slots[slot] = number + 1;
+            }
+        }
+
+        private static int hash(Object object)
+        {
+            int h = System.identityHashCode(object) * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+
+        @SuppressWarnings("unchecked")
+        T get(int number)
+        {
+            return number < 0 ? null : (T) objects[number];
+        }
+    }
+
+    private final class FreeRows {
+        final RowSet business = new RowSet();
+        final RowSet economy = new RowSet();
+    }
+
+    // Sorted row numbers guarded by the set's own monitor; rows mostly arrive in order, so adding appends.
+    // Kept in a buffer from slots, so an off-heap store keeps its index off the heap as well.
+    private final class RowSet {
+        private IntBuffer rows = slots(8);
+        private int size;
+
+        synchronized void add(int row)
+        {
+            int at = size == 0 || rows.get(size - 1) < row ? size : search(row);
+            if (at >= 0 && at < size) {
+                return; // already here
+            }
+            at = at < 0 ? -at - 1 : at;
+            if (size == rows.capacity()) {
+                IntBuffer bigger = slots(size * 2);
+                bigger.put(0, rows, 0, size);
+                rows = bigger;
+            }
+            shift(at, at + 1, size - at);
+            rows.put(at, row);
+            size++;
+        }
+
+        synchronized void remove(int row)
+        {
+            int at = search(row);
+            if (at >= 0) {
+                shift(at + 1, at, size - at - 1);
+                size--;
+            }
+        }
+
+        synchronized int size()
+        {
+            return size;
+        }
+
+        synchronized int[] toArray()
+        {
+            int[] copy = new int[size];
+            rows.get(0, copy);
+            return copy;
+        }
+
+        // Like Arrays.binarySearch over the first size rows
+        private int search(int row)
+        {
+            int low = 0;
+            int high = size - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int value = rows.get(mid);
+                if (value < row) {
+                    low = mid + 1;
+                } else if (value > row) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+
+        // Like System.arraycopy within the buffer
+        private void shift(int from, int to, int count)
+        {
+            if (rows.hasArray()) {
+                System.arraycopy(rows.array(), from, rows.array(), to, count);
+            } else if (to > from) {
+                for (int k = count - 1; k >= 0; k--) {
+                    rows.put(to + k, rows.get(from + k));
+                }
+            } else {
+                for (int k = 0; k < count; k++) {
+                    rows.put(to + k, rows.get(from + k));
+                }
+            }
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package assessment;
 
+import java.util.HashSet;
+import java.util.List;
 import java.util.Scanner;
+import java.util.Set;
 import java.util.regex.PatternSyntaxException;
 
 public class TicketSystem {
@@ -125,26 +128,14 @@ public class TicketSystem {
                 return;
             }
 
-            // Process the ticket purchase
+            // Process the ticket purchase; the seat check above is only a fast path,
+            // the service takes the seat atomically and fails if another buyer got it first
+            BookingReceipt receipt = BookingService.book(new BookingRequest(passenger, ticket_id));
             this.flight = flightFromCollection;
             this.ticket = validTicket;
 
-            ticket.setPassenger(passenger);
-            ticket.setTicket_id(ticket_id);
-            ticket.setFlight(this.flight);
-            ticket.setPrice(ticket.getPrice()); // This applies age discount and service tax
-            ticket.setClassVip(validTicket.getClassVip());
-            ticket.setTicketStatus(true);
-
-            // Update seat availability
-            if (ticket.getClassVip()) {
-                airplane.setBusinessSitsNumber(airplane.getBusinessSitsNumber() - 1);
-            } else {
-                airplane.setEconomySitsNumber(airplane.getEconomySitsNumber() - 1);
-            }
-
             // Display correct price information
-            System.out.println("Your bill: $" + ticket.getPrice() + "\n");
+            System.out.println("Your bill: $" + receipt.getTotalPrice() + "\n");
 
             System.out.println("Enter your card number:");
             String cardNumber = scanner.nextLine();
@@ -256,38 +247,11 @@ public class TicketSystem {
                 return;
             }
 
-            // Process first ticket
-            Ticket ticket_first = validTicketFirst;
-            ticket_first.setPassenger(passenger);
-            ticket_first.setTicket_id(ticket_id_first);
-            ticket_first.setFlight(flight_first);
-            ticket_first.setPrice(ticket_first.getPrice());
-            ticket_first.setClassVip(ticket_first.getClassVip());
-            ticket_first.setTicketStatus(true);
-
-            if (ticket_first.getClassVip()) {
-                airplane_first.setBusinessSitsNumber(airplane_first.getBusinessSitsNumber() - 1);
-            } else {
-                airplane_first.setEconomySitsNumber(airplane_first.getEconomySitsNumber() - 1);
-            }
-
-            // Process second ticket
-            Ticket ticket_second = validTicketSecond;
-            ticket_second.setPassenger(passenger);
-            ticket_second.setTicket_id(ticket_id_second);
-            ticket_second.setFlight(flight_second);
-            ticket_second.setPrice(ticket_second.getPrice());
-            ticket_second.setClassVip(ticket_second.getClassVip());
-            ticket_second.setTicketStatus(true);
-
-            if (ticket_second.getClassVip()) {
-                airplane_second.setBusinessSitsNumber(airplane_second.getBusinessSitsNumber() - 1);
-            } else {
-                airplane_second.setEconomySitsNumber(airplane_second.getEconomySitsNumber() - 1);
-            }
+            // Book both legs together; neither seat is kept if the other cabin is sold out
+            BookingReceipt receipt = BookingService.book(new BookingRequest(passenger, ticket_id_first, ticket_id_second));
 
             // Calculate and display total price
-            int totalPrice = ticket_first.getPrice() + ticket_second.getPrice();
+            int totalPrice = receipt.getTotalPrice();
             this.ticket.setPrice(totalPrice);
 
             System.out.println("Your total bill: $" + totalPrice + "\n");
@@ -320,20 +284,23 @@ public class TicketSystem {
             throw new IllegalArgumentException("City names must only contain letters and spaces");
         }
 
-        // Try to find direct flight from city1 to city2
-        Flight directFlight = FlightCollection.getFlightInfo(city1, city2);
+        // Try to find direct flights from city1 to city2
+        List<Flight> directFlights = FlightCollection.getFlightsInfo(city1, city2);
 
-        if (directFlight != null) {
+        if (!directFlights.isEmpty()) {
             // Direct flight available
             System.out.println("Direct flight found from " + city1 + " to " + city2);
             System.out.println("Available tickets for this flight:");
 
-            // Show only tickets for this specific flight
+            // Show only tickets for the flights on this route
+            Set<Integer> directFlightIds = new HashSet<>();
+            for (Flight f : directFlights) {
+                directFlightIds.add(f.getFlightID());
+            }
+
             boolean foundTickets = false;
-            for (Ticket t : TicketCollection.getTickets()) {
-                if (t.getFlight() != null &&
-                        t.getFlight().getFlightID() == directFlight.getFlightID() &&
-                        !t.ticketStatus()) {
+            for (int flightId : directFlightIds) {
+                for (Ticket t : TicketCollection.getAvailableTickets(flightId)) {
                     System.out.println(t);
                     foundTickets = true;
                 }
@@ -347,14 +314,14 @@ public class TicketSystem {
             int ticket_id = scanner.nextInt();
             scanner.nextLine(); // Consume newline
 
-            // Verify the selected ticket is for this flight
+            // Verify the selected ticket is for one of these flights
             Ticket selectedTicket = TicketCollection.getTicketInfo(ticket_id);
             if (selectedTicket == null) {
                 throw new IllegalArgumentException("Invalid ticket ID");
             }
 
             if (selectedTicket.getFlight() == null ||
-                    selectedTicket.getFlight().getFlightID() != directFlight.getFlightID()) {
+                    !directFlightIds.contains(selectedTicket.getFlight().getFlightID())) {
                 throw new IllegalArgumentException("Selected ticket is not for this flight");
             }
 
@@ -364,50 +331,26 @@ public class TicketSystem {
             System.out.println("No direct flight from " + city1 + " to " + city2);
             System.out.println("Searching for transfer options...");
 
-            // Strategy: Find any flight that goes TO city2 (our destination)
-            // Then check if we can get from city1 to that flight's departure city
-
+            // Walk the city graph for one-stop routes; buyTicket(int, int) books exactly two legs
             boolean foundTransferRoute = false;
             int firstTicketId = -1;
             int secondTicketId = -1;
             String transferCity = null;
 
-            // Look through all flights to find ones going to our destination
-            for (Flight destFlight : FlightCollection.getFlights()) {
-                if (destFlight.getDepartTo().equals(city2)) {
-                    // This flight goes to our destination
-                    // Now check if we can get from city1 to this flight's departure city
-                    String potentialTransferCity = destFlight.getDepartFrom();
-
-                    // Look for a flight from city1 to the transfer city
-                    Flight firstLeg = FlightCollection.getFlightInfo(city1, potentialTransferCity);
-
-                    if (firstLeg != null) {
-                        // We found a valid transfer route!
-                        System.out.println("Transfer route found: " + city1 + " -> " +
-                                potentialTransferCity + " -> " + city2);
-
-                        // Find available tickets for both flights
-                        for (Ticket t : TicketCollection.getTickets()) {
-                            if (t.getFlight() != null && !t.ticketStatus()) {
-                                if (t.getFlight().getFlightID() == firstLeg.getFlightID() && firstTicketId == -1) {
-                                    firstTicketId = t.getTicket_id();
-                                } else if (t.getFlight().getFlightID() == destFlight.getFlightID() && secondTicketId == -1) {
-                                    secondTicketId = t.getTicket_id();
-                                }
-                            }
-                        }
-
-                        if (firstTicketId != -1 && secondTicketId != -1) {
-                            foundTransferRoute = true;
-                            transferCity = potentialTransferCity;
-                            break; // Found a complete route with available tickets
-                        } else {
-                            // Reset if we didn't find tickets for this route
-                            firstTicketId = -1;
-                            secondTicketId = -1;
-                        }
-                    }
+            for (List<String> route : RouteEngine.findRoutes(city1, city2, 1)) {
+                if (route.size() != 3) {
+                    continue;
+                }
+                System.out.println("Transfer route found: " + String.join(" -> ", route));
+
+                // Find available tickets for both legs
+                List<Ticket> legTickets = RouteEngine.findAvailableTickets(route);
+                if (!legTickets.isEmpty()) {
+                    firstTicketId = legTickets.get(0).getTicket_id();
+                    secondTicketId = legTickets.get(1).getTicket_id();
+                    foundTransferRoute = true;
+                    transferCity = route.get(1);
+                    break; // Found a complete route with available tickets
                 }
             }
 
@@ -0,0 +1,225 @@
+package assessment;
+
+/**
+ * A {@link Ticket} whose state is one row of a {@link TicketStore}. Views are made on demand and are cheap to
+ * throw away; every getter reads the row and every setter writes it, with the same checks and index hooks as
+ * a plain ticket. Two views of the same row are equal.
+ */
+class TicketView extends Ticket
+{
+    private final TicketStore store;
+    private final int row;
+
+    TicketView(TicketStore store, int row)
+    {
+        this.store = store;
+        this.row = row;
+        // code that reads these fields directly sees the row as it was when the view was made
+        this.flight = store.flight(row);
+        this.passenger = store.passenger(row);
+    }
+
+    @Override
+    public int getTicket_id()
+    {
+        return store.ticketId(row);
+    }
+
+    @Override
+    public void setTicket_id(int ticket_id)
+    {
+        if (store.ticketId(row) != ticket_id) {
+            store.setTicketId(row, ticket_id);
+        }
+    }
+
+    @Override
+    public int getPrice()
+    {
+        return store.price(row);
+    }
+
+    @Override
+    public int getBaseFare()
+    {
+        return store.baseFare(row);
+    }
+
+    @Override
+    public void setPrice(int price)
+    {
+        int quoted = quoteFare(price);
+        store.setBaseFare(row, price);
+        store.setPrice(row, quoted);
+    }
+
+    @Override
+    void setQuotedPrice(int price)
+    {
+        store.setPrice(row, price);
+    }
+
+    @Override
+    void reprice(int baseFare)
+    {
+        store.setBaseFare(row, baseFare);
+        store.setPrice(row, baseFare);
+    }
+
+    @Override
+    public void saleByAge(int age)
+    {
+        store.setPrice(row, PricingEngine.STANDARD.discountByAge(getPrice(), age));
+    }
+
+    @Override
+    public void serviceTax()
+    {
+        store.setPrice(row, PricingEngine.STANDARD.applyTax(getPrice()));
+    }
+
+    @Override
+    public Flight getFlight()
+    {
+        return store.flight(row);
+    }
+
+    @Override
+    public void setFlight(Flight flight)
+    {
+        if (flight == null) {
+            throw new IllegalArgumentException("Flight cannot be null");
+        }
+        Flight old = store.flight(row);
+        if (old != flight) {
+            store.setFlight(row, flight);
+            this.flight = flight;
+            try {
+                TicketCollection.ticketChanged(this);
+            } catch (RuntimeException e) {
+                store.setFlight(row, old); // the journal refused the change, so it is not made
+                this.flight = old;
+                throw e;
+            }
+        }
+    }
+
+    @Override
+    public boolean getClassVip()
+    {
+        return store.hasFlag(row, TicketStore.VIP);
+    }
+
+    @Override
+    public void setClassVip(boolean classVip)
+    {
+        if (getClassVip() != classVip) {
+            setFlag(TicketStore.VIP, classVip);
+        }
+    }
+
+    @Override
+    public boolean ticketStatus()
+    {
+        return store.hasFlag(row, TicketStore.SOLD);
+    }
+
+    @Override
+    public void setTicketStatus(boolean status)
+    {
+        if (ticketStatus() != status) {
+            setFlag(TicketStore.SOLD, status);
+        }
+    }
+
+    @Override
+    public boolean isHeld()
+    {
+        return store.hasFlag(row, TicketStore.HELD);
+    }
+
+    @Override
+    void setHeld(boolean held)
+    {
+        if (isHeld() != held) {
+            setFlag(TicketStore.HELD, held);
+        }
+    }
+
+    // Flips a flag and journals the change, flipping it back if the journal refuses it
+    private void setFlag(int flag, boolean on)
+    {
+        store.setFlag(row, flag, on);
+        try {
+            TicketCollection.ticketChanged(this);
+        } catch (RuntimeException e) {
+            store.setFlag(row, flag, !on);
+            throw e;
+        }
+    }
+
+    @Override
+    public String getSeat()
+    {
+        return store.seat(row);
+    }
+
+    @Override
+    void setSeat(String seat)
+    {
+        store.setSeat(row, seat);
+    }
+
+    @Override
+    void restoreState(Flight flight, boolean classVip, boolean status, boolean held)
+    {
+        store.setFlight(row, flight);
+        store.setFlag(row, TicketStore.VIP, classVip);
+        store.setFlag(row, TicketStore.SOLD, status);
+        store.setFlag(row, TicketStore.HELD, held);
+        this.flight = flight;
+    }
+
+    @Override
+    void restoreSale(int price, Passenger passenger)
+    {
+        store.setPrice(row, price);
+        store.setPassenger(row, passenger);
+        this.passenger = passenger;
+    }
+
+    @Override
+    void restoreFare(int baseFare, int price)
+    {
+        store.setBaseFare(row, baseFare);
+        store.setPrice(row, price);
+    }
+
+    @Override
+    public Passenger getPassenger()
+    {
+        return store.passenger(row);
+    }
+
+    @Override
+    public void setPassenger(Passenger passenger)
+    {
+        if (passenger == null) {
+            throw new IllegalArgumentException("Passenger cannot be null");
+        }
+        store.setPassenger(row, passenger);
+        this.passenger = passenger;
+    }
+
+    @Override
+    public boolean equals(Object other)
+    {
+        return other instanceof TicketView && ((TicketView) other).store == store && ((TicketView) other).row == row;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return System.identityHashCode(store) * 31 + row;
+    }
+}
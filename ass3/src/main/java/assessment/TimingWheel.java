@@ -0,0 +1,158 @@
+package assessment;
+
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel for large numbers of short-lived timeouts.
+ * Time is cut into ticks and each deadline is hashed to the bucket of the tick it falls due in,
+ * so scheduling and cancelling are O(1) and advancing only visits the buckets of the ticks that
+ * passed, never the whole set of pending timeouts. Deadlines fire at tick granularity, never early.
+ * Not thread-safe.
+ */
+public class TimingWheel<T> {
+
+    public static final class Timeout<T> {
+        private final T item;
+        private final long deadline;
+        private final long dueTick;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+        private int bucket = -1; // -1 once fired or cancelled
+
+        private Timeout(T item, long deadline, long dueTick)
+        {
+            this.item = item;
+            this.deadline = deadline;
+            this.dueTick = dueTick;
+        }
+
+        public T getItem()
+        {
+            return item;
+        }
+
+        public long getDeadline()
+        {
+            return deadline;
+        }
+
+        public boolean isPending()
+        {
+            return bucket >= 0;
+        }
+    }
+
+    private final long origin;
+    private final long tickMillis;
+    private final Timeout<T>[] buckets;
+    private final int mask;
+    private long tick; // next tick to expire
+    private int size;
+
+    /**
+     * @param originMillis the time tick 0 starts at, usually the current clock reading
+     * @param wheelSize number of buckets, rounded up to a power of two
+     */
+    public TimingWheel(long originMillis, long tickMillis, int wheelSize)
+    {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick must be positive");
+        }
+        if (wheelSize <= 0 || wheelSize > 1 << 30) {
+            throw new IllegalArgumentException("Wheel size must be between 1 and 2^30");
+        }
+        int capacity = Integer.highestOneBit(wheelSize);
+        if (capacity < wheelSize) {
+            capacity <<= 1;
+        }
+        this.origin = originMillis;
+        this.tickMillis = tickMillis;
+        @SuppressWarnings("unchecked") // generic arrays can only be created with a wildcard and cast
+        Timeout<T>[] buckets = (Timeout<T>[]) new Timeout<?>[capacity];
+        this.buckets = buckets;
+        this.mask = capacity - 1;
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Schedules item to fire on the first {@link #advance} at or after deadlineMillis.
+     * A deadline already in the past fires on the next advance.
+     */
+    public Timeout<T> schedule(T item, long deadlineMillis)
+    {
+        long dueTick = Math.max(tick, Math.floorDiv(deadlineMillis - origin + tickMillis - 1, tickMillis));
+        Timeout<T> timeout = new Timeout<>(item, deadlineMillis, dueTick);
+        int bucket = (int) (dueTick & mask);
+        timeout.bucket = bucket;
+        timeout.next = buckets[bucket];
+        if (timeout.next != null) {
+            timeout.next.prev = timeout;
+        }
+        buckets[bucket] = timeout;
+        size++;
+        return timeout;
+    }
+
+    /**
+     * @return false when the timeout had already fired or been cancelled
+     */
+    public boolean cancel(Timeout<T> timeout)
+    {
+        if (timeout == null || !timeout.isPending()) {
+            return false;
+        }
+        unlink(timeout);
+        return true;
+    }
+
+    /**
+     * Fires every timeout whose deadline is at or before nowMillis, passing its item to expired.
+     * Visits one bucket per tick passed, and at most one full turn of the wheel.
+     *
+     * @return the number of timeouts fired
+     */
+    public int advance(long nowMillis, Consumer<? super T> expired)
+    {
+        long target = Math.floorDiv(nowMillis - origin, tickMillis); // last tick that has fully started
+        if (target < tick) {
+            return 0;
+        }
+        int fired = 0;
+        long steps = Math.min(target - tick + 1, buckets.length);
+        for (long t = tick; t < tick + steps && size > 0; t++) {
+            Timeout<T> timeout = buckets[(int) (t & mask)];
+            while (timeout != null) {
+                Timeout<T> next = timeout.next;
+                // later turns of the wheel share this bucket and stay put
+                if (timeout.dueTick <= target) {
+                    unlink(timeout);
+                    expired.accept(timeout.item);
+                    fired++;
+                }
+                timeout = next;
+            }
+        }
+        tick = target + 1;
+        return fired;
+    }
+
+    private void unlink(Timeout<T> timeout)
+    {
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else {
+            buckets[timeout.bucket] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.prev = timeout.prev;
+        }
+        timeout.prev = null;
+        timeout.next = null;
+        timeout.bucket = -1;
+        size--;
+    }
+}
@@ -2,11 +2,18 @@ package assessment;
 
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
 
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 class AirplaneTest {
 
@@ -145,4 +152,185 @@ class AirplaneTest {
         assertEquals(7, map.get('A').size(), "Each row must have 7 seats");
     }
 
+    /**
+     *  SEAT RESERVATION 
+     */
+    @Test
+    @DisplayName("Reserve and release seats")
+    void testReserveAndReleaseSeats() {
+        Airplane airplane = new Airplane(11, "Boeing 737", 1, 6, 4);
+        assertTrue(airplane.reserveBusinessSeat());
+        assertFalse(airplane.reserveBusinessSeat(), "Business cabin is sold out");
+        assertEquals(0, airplane.getBusinessSitsNumber());
+        airplane.releaseBusinessSeat();
+        assertEquals(1, airplane.getBusinessSitsNumber());
+
+        assertTrue(airplane.reserveEconomySeat());
+        assertEquals(5, airplane.getEconomySitsNumber());
+        airplane.releaseEconomySeat();
+        assertEquals(6, airplane.getEconomySitsNumber());
+
+        assertThrows(IllegalStateException.class, airplane::releaseEconomySeat, "Nothing left to give back");
+        assertThrows(IllegalStateException.class, airplane::releaseBusinessSeat, "Nothing left to give back");
+        assertEquals(6, airplane.getEconomySitsNumber());
+        assertEquals(1, airplane.getBusinessSitsNumber());
+    }
+
+    @Test
+    @DisplayName("Concurrent buyers never oversell a cabin")
+    void testConcurrentReserveNeverOversells() throws Exception {
+        Airplane airplane = new Airplane(12, "Airbus A320", 14, 56, 10);
+        AtomicInteger reserved = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int i = 0; i < 1000; i++) {
+            pool.submit(() -> {
+                start.await();
+                if (airplane.reserveEconomySeat()) {
+                    reserved.incrementAndGet();
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(56, reserved.get());
+        assertEquals(0, airplane.getEconomySitsNumber());
+        assertEquals(14, airplane.getBusinessSitsNumber());
+    }
+
+    /**
+     *  SEAT ASSIGNMENT 
+     */
+    @Test
+    @DisplayName("Load factor follows seats as they are reserved and released")
+    void testLoadFactor() {
+        Airplane airplane = new Airplane(17, "Airbus A320", 14, 56, 10);
+        assertEquals(0, airplane.getLoadFactor(false));
+
+        assertEquals(14, airplane.reserveEconomySeats(14));
+        assertEquals(2_500, airplane.getLoadFactor(false));
+        assertEquals(0, airplane.getLoadFactor(true));
+        airplane.releaseEconomySeat();
+        assertEquals(2_321, airplane.getLoadFactor(false)); // 13 of 56
+
+        assertEquals(14, airplane.reserveBusinessSeats(20));
+        assertEquals(PricingEngine.BASIS_POINTS, airplane.getLoadFactor(true));
+        assertEquals(56, airplane.getEconomyCabin());
+        assertEquals(14, airplane.getBusinessCabin());
+    }
+
+    @Test
+    @DisplayName("A seat change the journal refuses is undone")
+    void testSeatChangeRefusedByJournal() {
+        Airplane airplane = new Airplane(1, "Boeing 737", 7, 42, 6);
+
+        try (MockedStatic<BookingJournal> journal = mockStatic(BookingJournal.class, CALLS_REAL_METHODS)) {
+            journal.when(() -> BookingJournal.seatsChanged(any(), anyBoolean(), anyInt()))
+                    .thenThrow(new IllegalStateException("Booking journal could not be written"));
+            journal.when(() -> BookingJournal.seatsSet(any(), anyBoolean(), anyInt()))
+                    .thenThrow(new IllegalStateException("Booking journal could not be written"));
+            assertThrows(IllegalStateException.class, airplane::reserveEconomySeat);
+            assertThrows(IllegalStateException.class, () -> airplane.reserveBusinessSeats(3));
+            assertThrows(IllegalStateException.class, () -> airplane.setEconomySitsNumber(35));
+        }
+
+        assertEquals(42, airplane.getEconomySitsNumber());
+        assertEquals(7, airplane.getBusinessSitsNumber());
+        assertEquals(42, airplane.getEconomyCabin());
+    }
+
+    @Test
+    @DisplayName("Seats are assigned front to back within each cabin")
+    void testClaimNextSeatPerCabin() {
+        Airplane airplane = new Airplane(13, "Airbus A320", 9, 61, 6);
+        for (int i = 0; i < 7; i++) {
+            assertEquals("A" + (i + 1), airplane.claimBusinessSeat());
+        }
+        assertEquals("B1", airplane.claimBusinessSeat());
+        assertEquals("B2", airplane.claimBusinessSeat());
+        assertNull(airplane.claimBusinessSeat(), "Business cabin is B2 and in front");
+
+        assertEquals("B3", airplane.claimEconomySeat());
+        assertTrue(airplane.claimSeat("B4"));
+        assertEquals("B5", airplane.claimEconomySeat());
+        assertEquals(12, airplane.getAssignedSeatCount());
+    }
+
+    @Test
+    @DisplayName("Seats in the second word of the bitmap are found and released")
+    void testClaimAcrossBitmapWords() {
+        Airplane airplane = new Airplane(14, "Airbus A320", 0, 70, 6);
+        for (int i = 0; i < 70; i++) {
+            assertNotNull(airplane.claimEconomySeat());
+        }
+        assertNull(airplane.claimEconomySeat());
+        assertTrue(airplane.isSeatTaken("J7"));
+
+        airplane.releaseSeat("J7");
+        airplane.releaseSeat("J7");
+        airplane.releaseSeat("B1");
+        assertEquals(68, airplane.getAssignedSeatCount());
+        assertEquals("B1", airplane.claimEconomySeat());
+        assertEquals("J7", airplane.claimEconomySeat());
+        assertFalse(airplane.claimSeat("J7"));
+    }
+
+    @Test
+    @DisplayName("Cabins cannot be resized while seats are assigned")
+    void testResizeRejectedWhileSeatsAssigned() {
+        Airplane airplane = new Airplane(16, "Airbus A320", 7, 42, 6);
+        String seat = airplane.claimEconomySeat();
+
+        assertThrows(IllegalStateException.class, () -> airplane.setBusinessSitsNumber(14));
+        assertThrows(IllegalStateException.class, () -> airplane.setEconomySitsNumber(35));
+        assertEquals(7, airplane.getBusinessCabin());
+        assertEquals(42, airplane.getEconomyCabin());
+
+        airplane.releaseSeat(seat);
+        airplane.setBusinessSitsNumber(14);
+        assertEquals(14, airplane.getBusinessCabin());
+    }
+
+    @Test
+    @DisplayName("Seats outside rows A-J and seats 1-7 are rejected")
+    void testInvalidSeat() {
+        Airplane airplane = new Airplane(15, "Airbus A320", 7, 63, 6);
+        assertThrows(IllegalArgumentException.class, () -> airplane.claimSeat("K1"));
+        assertThrows(IllegalArgumentException.class, () -> airplane.claimSeat("A8"));
+        assertThrows(IllegalArgumentException.class, () -> airplane.claimSeat("A10"));
+        assertThrows(IllegalArgumentException.class, () -> airplane.isSeatTaken(null));
+    }
+
+    @Test
+    @DisplayName("Concurrent claims never hand out a seat twice")
+    void testConcurrentClaimsAreUnique() throws Exception {
+        Airplane airplane = new Airplane(16, "Airbus A320", 14, 56, 10);
+        Set<String> seats = Collections.synchronizedSet(new HashSet<>());
+        AtomicInteger claimed = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int i = 0; i < 1000; i++) {
+            pool.submit(() -> {
+                start.await();
+                String seat = airplane.claimEconomySeat();
+                if (seat != null) {
+                    claimed.incrementAndGet();
+                    seats.add(seat);
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(56, claimed.get());
+        assertEquals(56, seats.size());
+        assertFalse(seats.contains("B7"), "B7 is the last business seat");
+        assertTrue(seats.contains("C1") && seats.contains("J7"));
+    }
+
 }
@@ -0,0 +1,423 @@
+package assessment;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the booking journal {@link BookingJournal}.
+ */
+public class BookingJournalTest {
+
+    @TempDir
+    Path dir;
+
+    private Path file;
+    private BookingJournal journal;
+    private Passenger passenger;
+
+    @BeforeEach
+    void setUp() {
+        reset();
+        file = dir.resolve("bookings.journal");
+        passenger = new Passenger("Mia", "Jones", 30, "Woman", "mia@example.com", "+61 412345678",
+                "P1234567", "4111111111111111", 123);
+        passenger.setFirstName("Mia");
+        passenger.setSecondName("Jones");
+        passenger.setAge(30);
+        passenger.setGender("Woman");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (journal != null) {
+            journal.close();
+        }
+        reset();
+    }
+
+    private static void reset() {
+        FlightCollection.flights = new ArrayList<>();
+        TicketCollection.tickets = new ArrayList<>();
+    }
+
+    private void loadSchedule() {
+        Airplane airplane = new Airplane(5001, "Airbus A320", 7, 42, 6);
+        Flight flight1 = new Flight(1, "Sydney", "Melbourne", "QF1", "Quantas",
+                Timestamp.valueOf("2025-08-01 08:00:00"), Timestamp.valueOf("2025-08-01 09:30:00"), airplane);
+        Flight flight2 = new Flight(2, "Brisbane", "Sydney", "QF2", "Quantas",
+                Timestamp.valueOf("2025-08-01 11:00:00"), Timestamp.valueOf("2025-08-01 12:30:00"), airplane);
+        FlightCollection.addFlights(new ArrayList<>(List.of(flight1, flight2)));
+        TicketCollection.addTickets(new ArrayList<>(List.of(
+                new Ticket(10, 1000, flight1, false, passenger),
+                new Ticket(11, 2000, flight1, true, passenger),
+                new Ticket(20, 1000, flight2, false, passenger))));
+    }
+
+    private void restart() throws IOException {
+        journal.close();
+        reset();
+        journal = BookingJournal.open(file);
+    }
+
+    @Test
+    @DisplayName("Replaying the journal restores flights, tickets, sales and seat counts")
+    void testReplayRestoresState() throws IOException {
+        journal = BookingJournal.open(file);
+        assertEquals(0, journal.getReplayedEvents());
+        loadSchedule();
+        int price = BookingService.book(new BookingRequest(passenger, 11, 20)).getTickets().get(0).getPrice();
+        String businessSeat = TicketCollection.getTicketInfo(11).getSeat();
+        String economySeat = TicketCollection.getTicketInfo(20).getSeat();
+
+        restart();
+
+        assertTrue(journal.getReplayedEvents() > 0);
+        assertEquals(2, FlightCollection.getFlights().size());
+        Flight flight1 = FlightCollection.getFlightInfo(1);
+        Flight flight2 = FlightCollection.getFlightInfo(2);
+        assertEquals("QF1", flight1.getCode());
+        assertEquals(Timestamp.valueOf("2025-08-01 08:00:00"), flight1.getDateFrom());
+        assertSame(flight1.getAirplane(), flight2.getAirplane());
+        assertEquals(6, flight1.getAirplane().getBusinessSitsNumber());
+        assertEquals(41, flight1.getAirplane().getEconomySitsNumber());
+
+        Ticket sold = TicketCollection.getTicketInfo(11);
+        assertTrue(sold.ticketStatus());
+        assertTrue(sold.getClassVip());
+        assertSame(flight1, sold.getFlight());
+        assertEquals(price, sold.getPrice());
+        assertEquals(2000, sold.getBaseFare());
+        assertEquals(businessSeat, sold.getSeat());
+        assertEquals(economySeat, TicketCollection.getTicketInfo(20).getSeat());
+        assertTrue(flight1.getAirplane().isSeatTaken(businessSeat));
+        assertTrue(flight1.getAirplane().isSeatTaken(economySeat));
+        assertEquals(2, flight1.getAirplane().getAssignedSeatCount());
+        assertEquals("Mia", sold.getPassenger().getFirstName());
+        assertEquals("P1234567", sold.getPassenger().getPassport());
+        assertTrue(TicketCollection.getTicketInfo(20).ticketStatus());
+        assertFalse(TicketCollection.getTicketInfo(10).ticketStatus());
+        assertEquals(1, TicketCollection.getAvailableTickets(1).size());
+        assertNotEquals(economySeat, BookingService.book(new BookingRequest(passenger, 10)).getTickets().get(0).getSeat());
+    }
+
+    @Test
+    @DisplayName("Changes made after a replay are journalled on top of it")
+    void testAppendAfterReplay() throws IOException {
+        journal = BookingJournal.open(file);
+        loadSchedule();
+        BookingService.book(new BookingRequest(passenger, 10));
+
+        restart();
+        BookingService.book(new BookingRequest(passenger, 20));
+        restart();
+
+        assertTrue(TicketCollection.getTicketInfo(10).ticketStatus());
+        assertTrue(TicketCollection.getTicketInfo(20).ticketStatus());
+        assertEquals(40, FlightCollection.getFlightInfo(1).getAirplane().getEconomySitsNumber());
+    }
+
+    @Test
+    @DisplayName("A fare set on a ticket replays with the price quoted from it")
+    void testSetPriceReplayed() throws IOException {
+        journal = BookingJournal.open(file);
+        loadSchedule();
+        Ticket ticket = TicketCollection.getTicketInfo(20);
+        ticket.setPrice(1500);
+        int price = ticket.getPrice();
+
+        restart();
+
+        Ticket replayed = TicketCollection.getTicketInfo(20);
+        assertEquals(1500, replayed.getBaseFare());
+        assertEquals(price, replayed.getPrice());
+        assertNotEquals(1500, replayed.getPrice());
+    }
+
+    @Test
+    @DisplayName("Replay restores cabin sizes as well as seats left, including after a resize")
+    void testReplayRestoresCabins() throws IOException {
+        journal = BookingJournal.open(file);
+        Airplane airplane = new Airplane(5002, "Airbus A320", 7, 42, 6);
+        assertEquals(2, airplane.reserveEconomySeats(2));
+        FlightCollection.addFlights(new ArrayList<>(List.of(new Flight(3, "Perth", "Darwin", "QF3", "Quantas",
+                Timestamp.valueOf("2025-08-01 08:00:00"), Timestamp.valueOf("2025-08-01 11:30:00"), airplane))));
+
+        restart();
+        airplane = FlightCollection.getFlightInfo(3).getAirplane();
+        assertEquals(40, airplane.getEconomySitsNumber());
+        assertEquals(42, airplane.getEconomyCabin());
+        assertEquals(7, airplane.getBusinessCabin());
+
+        airplane.setEconomySitsNumber(35);
+        restart();
+        airplane = FlightCollection.getFlightInfo(3).getAirplane();
+        assertEquals(35, airplane.getEconomySitsNumber());
+        assertEquals(35, airplane.getEconomyCabin());
+        assertEquals(0, airplane.getLoadFactor(false));
+    }
+
+    @Test
+    @DisplayName("A hold does not survive a restart and its seat is handed back")
+    void testHoldReleasedOnReplay() throws IOException {
+        journal = BookingJournal.open(file);
+        loadSchedule();
+        SeatHolds holds = new SeatHolds();
+        holds.hold(10, Duration.ofMinutes(5));
+        assertEquals(41, FlightCollection.getFlightInfo(1).getAirplane().getEconomySitsNumber());
+
+        restart();
+
+        assertFalse(TicketCollection.getTicketInfo(10).isHeld());
+        assertNull(TicketCollection.getTicketInfo(10).getSeat());
+        assertEquals(42, FlightCollection.getFlightInfo(1).getAirplane().getEconomySitsNumber());
+        assertEquals(0, FlightCollection.getFlightInfo(1).getAirplane().getAssignedSeatCount());
+        assertEquals(2, TicketCollection.getAvailableTickets(1).size());
+    }
+
+    @Test
+    @DisplayName("A record torn by a crash is dropped and written over")
+    void testTornRecordIgnored() throws IOException {
+        journal = BookingJournal.open(file);
+        loadSchedule();
+        long intact = journal.size();
+        BookingService.book(new BookingRequest(passenger, 10));
+        long booked = journal.size();
+        journal.close();
+        journal = null;
+
+        // corrupt the last byte of the final record, as if the crash hit while it was being copied
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.seek(booked - 1);
+            int last = raf.read();
+            raf.seek(booked - 1);
+            raf.write(last ^ 0xFF);
+        }
+        reset();
+        journal = BookingJournal.open(file);
+
+        assertTrue(journal.size() >= intact && journal.size() < booked);
+        assertEquals(3, TicketCollection.getTickets().size());
+        // the booking's seat change and its sale were one record, so neither survives
+        assertFalse(TicketCollection.getTicketInfo(10).ticketStatus());
+        assertEquals(42, FlightCollection.getFlightInfo(1).getAirplane().getEconomySitsNumber());
+        BookingService.book(new BookingRequest(passenger, 20));
+        restart();
+        assertTrue(TicketCollection.getTicketInfo(20).ticketStatus());
+    }
+
+    @Test
+    @DisplayName("Card numbers and security codes never reach the journal")
+    void testNoCardDataInJournal() throws IOException {
+        journal = BookingJournal.open(file);
+        loadSchedule();
+        BookingService.book(new BookingRequest(passenger, 10));
+        journal.close();
+
+        String bytes = new String(Files.readAllBytes(file), StandardCharsets.ISO_8859_1);
+        assertFalse(bytes.contains("4111111111111111"));
+        assertFalse(bytes.contains("411111"));
+        assertTrue(bytes.contains("************1111"));
+
+        reset();
+        journal = BookingJournal.open(file);
+        Passenger restored = TicketCollection.getTicketInfo(10).getPassenger();
+        assertEquals("************1111", restored.getCardNumber());
+        assertEquals(0, restored.getSecurityCode());
+    }
+
+    @Test
+    @DisplayName("The journal grows past its mapped region")
+    void testRemapsWhenRegionFills() throws IOException {
+        journal = BookingJournal.open(file, 256);
+        loadSchedule();
+        Airplane airplane = FlightCollection.getFlightInfo(1).getAirplane();
+        for (int i = 0; i < 100; i++) {
+            assertTrue(airplane.reserveEconomySeat());
+            airplane.releaseEconomySeat();
+        }
+        BookingService.book(new BookingRequest(passenger, 10));
+        journal.close();
+        reset();
+
+        journal = BookingJournal.open(file, 256);
+
+        assertTrue(journal.size() > 256 * 10);
+        assertTrue(TicketCollection.getTicketInfo(10).ticketStatus());
+        assertEquals(41, FlightCollection.getFlightInfo(1).getAirplane().getEconomySitsNumber());
+    }
+
+    @Test
+    @DisplayName("Only one journal can be open at a time")
+    void testSingleActiveJournal() throws IOException {
+        journal = BookingJournal.open(file);
+        assertThrows(IllegalStateException.class, () -> BookingJournal.open(dir.resolve("other.journal")));
+        assertThrows(IllegalArgumentException.class, () -> BookingJournal.open(dir.resolve("other.journal"), 4));
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Replay throughput")
+    void testReplayThroughput(TestReporter reporter) throws IOException {
+        journal = BookingJournal.open(file);
+        loadSchedule();
+        Airplane airplane = FlightCollection.getFlightInfo(1).getAirplane();
+        int events = 300_000;
+        for (int i = 0; i < events / 2; i++) {
+            airplane.reserveEconomySeat();
+            airplane.releaseEconomySeat();
+        }
+        journal.close();
+        reset();
+
+        long start = System.nanoTime();
+        journal = BookingJournal.open(file);
+        long elapsed = System.nanoTime() - start;
+
+        assertTrue(journal.getReplayedEvents() >= events);
+        assertEquals(42, FlightCollection.getFlightInfo(1).getAirplane().getEconomySitsNumber());
+        reporter.publishEntry("replay", String.format("Replayed %d events in %.1f ms (%.0f events/s)",
+                journal.getReplayedEvents(), elapsed / 1e6, journal.getReplayedEvents() / (elapsed / 1e9)));
+    }
+
+    @Test
+    @DisplayName("With group commit a booking returns only once it is durable")
+    void testGroupCommitAcksAfterForce() throws IOException {
+        journal = BookingJournal.open(file, Duration.ofMillis(100), 10_000);
+        loadSchedule();
+        journal.force(); // so the booking starts a batch of its own
+
+        long start = System.nanoTime();
+        BookingService.book(new BookingRequest(passenger, 10));
+        long elapsed = System.nanoTime() - start;
+
+        assertEquals(journal.size(), journal.durableSize());
+        assertTrue(elapsed >= Duration.ofMillis(90).toNanos(), "waited for the commit window");
+        restart();
+        assertTrue(TicketCollection.getTicketInfo(10).ticketStatus());
+    }
+
+    @Test
+    @DisplayName("A full batch is forced before its window closes")
+    void testGroupCommitBatchFillsEarly() throws IOException {
+        journal = BookingJournal.open(file, Duration.ofSeconds(30), 1);
+        loadSchedule();
+
+        BookingService.book(new BookingRequest(passenger, 10));
+
+        assertEquals(journal.size(), journal.durableSize());
+        assertThrows(IllegalArgumentException.class, () -> BookingJournal.open(file, Duration.ofMillis(-1), 1));
+        assertThrows(IllegalArgumentException.class, () -> BookingJournal.open(file, Duration.ofMillis(1), 0));
+    }
+
+    @Test
+    @DisplayName("Once the journal fails, bookings are refused before anything is sold")
+    void testFailedJournalFencesBookings() throws IOException {
+        journal = BookingJournal.open(file, Duration.ofMillis(1), 1);
+        loadSchedule();
+        Airplane airplane = FlightCollection.getFlightInfo(1).getAirplane();
+        SeatHolds holds = new SeatHolds();
+        SeatHold hold = holds.hold(20, Duration.ofMinutes(5));
+        journal.force();
+        journal.failed(new UncheckedIOException(new IOException("disk full")));
+
+        assertThrows(IllegalStateException.class, () -> BookingService.book(new BookingRequest(passenger, 10)));
+        BatchBookingResult batch = BookingService.bookBatch(List.of(new BookingRequest(passenger, 11)));
+
+        assertEquals("Booking journal could not be written", batch.getFailures().get(0));
+        assertThrows(IllegalStateException.class, () -> holds.hold(10, Duration.ofMinutes(5)));
+        assertThrows(IllegalStateException.class, () -> holds.confirm(hold, passenger));
+
+        assertFalse(TicketCollection.getTicketInfo(10).ticketStatus());
+        assertFalse(TicketCollection.getTicketInfo(10).isHeld());
+        assertFalse(TicketCollection.getTicketInfo(11).ticketStatus());
+        assertFalse(TicketCollection.getTicketInfo(20).ticketStatus());
+        assertTrue(TicketCollection.getTicketInfo(20).isHeld());
+        assertEquals(41, airplane.getEconomySitsNumber()); // only the seat held before the failure
+        assertEquals(7, airplane.getBusinessSitsNumber());
+        assertEquals(1, airplane.getAssignedSeatCount());
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Concurrent bookings share fsyncs")
+    void testGroupCommitThroughput(TestReporter reporter) throws Exception {
+        int perThread = 20;
+        for (String count : System.getProperty("journal.commit.threads", "1,8,32").split(",")) {
+            int threads = Integer.parseInt(count.trim());
+            Path log = dir.resolve("group-" + threads + ".journal");
+            journal = BookingJournal.open(log, Duration.ofMillis(2), 256);
+            int[] ticketIds = loadSeats(threads * perThread);
+
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            List<Future<?>> workers = new ArrayList<>();
+            long start = System.nanoTime();
+            try {
+                for (int t = 0; t < threads; t++) {
+                    int first = t * perThread;
+                    workers.add(pool.submit(() -> {
+                        for (int i = first; i < first + perThread; i++) {
+                            BookingService.book(new BookingRequest(passenger, ticketIds[i]));
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> worker : workers) {
+                    worker.get();
+                }
+            } finally {
+                pool.shutdown();
+            }
+            long elapsed = System.nanoTime() - start;
+
+            assertEquals(journal.size(), journal.durableSize());
+            reporter.publishEntry("groupCommit", String.format("%d threads: %d durable bookings in %.1f ms (%.0f bookings/s)",
+                    threads, threads * perThread, elapsed / 1e6, threads * perThread / (elapsed / 1e9)));
+            journal.close();
+            journal = null;
+            reset();
+        }
+    }
+
+    // One 63-seat economy flight per 63 tickets, each on its own airplane
+    private int[] loadSeats(int tickets) {
+        ArrayList<Flight> flights = new ArrayList<>();
+        ArrayList<Ticket> all = new ArrayList<>();
+        int[] ids = new int[tickets];
+        Flight flight = null;
+        for (int i = 0; i < tickets; i++) {
+            if (i % 63 == 0) {
+                int id = flights.size() + 1;
+                flight = new Flight(id, "Sydney", "Melbourne", "QF" + id, "Quantas",
+                        Timestamp.valueOf("2025-08-01 08:00:00"), Timestamp.valueOf("2025-08-01 09:30:00"),
+                        new Airplane(id, "Airbus A320", 7, 63, 6));
+                flights.add(flight);
+            }
+            ids[i] = 1000 + i;
+            all.add(new Ticket(ids[i], 1000, flight, false, passenger));
+        }
+        FlightCollection.addFlights(flights);
+        TicketCollection.addTickets(all);
+        return ids;
+    }
+}
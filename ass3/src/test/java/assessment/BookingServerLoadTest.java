@@ -0,0 +1,99 @@
+package assessment;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Load test for {@link BookingServer}: ramps up the number of concurrent clients and reports the throughput
+ * at each level to the test report. Each client keeps its own connection busy with back-to-back searches.
+ * Left out of the default build; run it with {@code mvn test -Pbenchmark}, and scale it up with
+ * -Dbooking.load.clients=100,1000,5000 -Dbooking.load.requests=20
+ */
+@Tag("benchmark")
+public class BookingServerLoadTest {
+
+    private BookingServer server;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        FlightCollection.flights = new ArrayList<>();
+        TicketCollection.tickets = new ArrayList<>();
+        Airplane airplane = new Airplane(7001, "Airbus A350", 0, 70, 10);
+        ArrayList<Flight> flights = new ArrayList<>();
+        for (int id = 1; id <= 50; id++) {
+            Timestamp departure = new Timestamp(Timestamp.valueOf("2025-08-01 06:00:00").getTime() + id * 3_600_000L);
+            flights.add(new Flight(id, "Sydney", "Melbourne", "QF" + id, "Quantas",
+                    departure, new Timestamp(departure.getTime() + 5_400_000L), airplane));
+        }
+        FlightCollection.addFlights(flights);
+        server = new BookingServer(0);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+    }
+
+    @Test
+    @DisplayName("Search throughput as concurrent clients grow")
+    void testThroughputScaling(TestReporter reporter) {
+        int requestsPerClient = Integer.getInteger("booking.load.requests", 5);
+        URI search = URI.create("http://localhost:" + server.getPort() + "/flights?from=Melbourne&to=Sydney");
+        HttpRequest request = HttpRequest.newBuilder(search).GET().build();
+        // HTTP/1.1 carries one request per connection at a time, so the shared client opens one connection per busy client
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+        for (String level : System.getProperty("booking.load.clients", "10,100,500").split(",")) {
+            int clients = Integer.parseInt(level.trim());
+            AtomicInteger ok = new AtomicInteger();
+            long start = System.nanoTime();
+            // each client on its own virtual thread, sending its requests back to back
+            ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor();
+            try {
+                List<CompletableFuture<Void>> running = new ArrayList<>();
+                for (int c = 0; c < clients; c++) {
+                    running.add(CompletableFuture.runAsync(() -> {
+                        for (int r = 0; r < requestsPerClient; r++) {
+                            try {
+                                if (client.send(request, HttpResponse.BodyHandlers.ofString()).statusCode() == 200) {
+                                    ok.incrementAndGet();
+                                }
+                            } catch (Exception e) {
+                                return;
+                            }
+                        }
+                    }, pool));
+                }
+                CompletableFuture.allOf(running.toArray(new CompletableFuture[0])).join();
+            } finally {
+                pool.shutdown();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            reporter.publishEntry(clients + " clients", String.format("%d requests in %.2f s, %.0f req/s",
+                    ok.get(), seconds, ok.get() / seconds));
+            assertEquals(clients * requestsPerClient, ok.get());
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package assessment;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the embedded HTTP front end {@link BookingServer}.
+ */
+public class BookingServerTest {
+
+    private static final String PASSENGER = "firstName=Mia&secondName=Jones&age=30&gender=Woman&email=mia%40example.com"
+            + "&phone=%2B61+412345678&passport=P1234567&cardNumber=4111111111111111&securityCode=123";
+
+    private BookingServer server;
+    private HttpClient client;
+    private Airplane airplane;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        FlightCollection.flights = new ArrayList<>();
+        TicketCollection.tickets = new ArrayList<>();
+        airplane = new Airplane(6001, "Airbus A320", 7, 42, 6);
+        Passenger owner = new Passenger("Mia", "Jones", 30, "Woman", "mia@example.com", "+61 412345678",
+                "P1234567", "4111111111111111", 123);
+        Flight first = new Flight(1, "Sydney", "Melbourne", "QF1", "Quantas",
+                Timestamp.valueOf("2025-08-01 08:00:00"), Timestamp.valueOf("2025-08-01 09:30:00"), airplane);
+        Flight second = new Flight(2, "Cairns", "Sydney", "QF2", "Quantas",
+                Timestamp.valueOf("2025-08-01 11:00:00"), Timestamp.valueOf("2025-08-01 14:00:00"), airplane);
+        FlightCollection.addFlights(new ArrayList<>(List.of(first, second)));
+        TicketCollection.addTickets(new ArrayList<>(List.of(
+                new Ticket(10, 1000, first, false, owner),
+                new Ticket(20, 500, second, true, owner))));
+
+        server = new BookingServer(0);
+        server.start();
+        client = HttpClient.newHttpClient();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        return client.send(HttpRequest.newBuilder(uri(path)).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> post(String path, String form) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + server.getPort() + path);
+    }
+
+    @Test
+    @DisplayName("Flights, routes and tickets can be searched")
+    void testSearch() throws Exception {
+        HttpResponse<String> flights = get("/flights?from=Melbourne&to=Sydney");
+        assertEquals(200, flights.statusCode());
+        assertTrue(flights.body().startsWith("[{\"id\":1,\"from\":\"Melbourne\",\"to\":\"Sydney\",\"code\":\"QF1\""));
+
+        HttpResponse<String> routes = get("/routes?from=Melbourne&to=Cairns");
+        assertEquals("[[\"Melbourne\",\"Sydney\",\"Cairns\"]]", routes.body());
+
+        HttpResponse<String> tickets = get("/tickets?flight=2");
+        assertEquals("[{\"id\":20,\"flight\":2,\"price\":500,\"business\":true,\"sold\":false}]", tickets.body());
+    }
+
+    @Test
+    @DisplayName("A transfer is booked over HTTP and cannot be booked twice")
+    void testBooking() throws Exception {
+        HttpResponse<String> booked = post("/bookings", "tickets=10,20&" + PASSENGER);
+        assertEquals(200, booked.statusCode());
+        assertTrue(booked.body().startsWith("{\"total\":1680,")); // 1120 + 560 after service tax
+        assertEquals(41, airplane.getEconomySitsNumber());
+        assertEquals(6, airplane.getBusinessSitsNumber());
+
+        HttpResponse<String> again = post("/bookings", "tickets=10&" + PASSENGER);
+        assertEquals(409, again.statusCode());
+        assertEquals("{\"error\":\"Ticket 10 is already booked\"}", again.body());
+    }
+
+    @Test
+    @DisplayName("Bad requests are rejected with the right status")
+    void testErrors() throws Exception {
+        assertEquals(400, get("/flights?from=Melbourne").statusCode());
+        assertEquals(400, get("/tickets?flight=abc").statusCode());
+        assertEquals(400, post("/bookings", "tickets=99&" + PASSENGER).statusCode());
+        assertEquals(400, post("/bookings", "tickets=10&" + PASSENGER.replace("Woman", "Robot")).statusCode());
+        assertEquals(405, get("/bookings").statusCode());
+        assertEquals(404, get("/nothing").statusCode());
+    }
+
+    @Test
+    @DisplayName("Malformed percent escapes in a form are rejected as bad requests")
+    void testMalformedForm() throws Exception {
+        HttpResponse<String> response = post("/bookings", "tickets=%zz&" + PASSENGER);
+        assertEquals(400, response.statusCode());
+        assertTrue(response.body().contains("\"error\""));
+        assertEquals(400, post("/bookings", "tickets=10%").statusCode());
+    }
+
+    @Test
+    @DisplayName("JSON strings are escaped")
+    void testQuote() {
+        assertEquals("\"a\\\"b\\\\c\\n\"", BookingServer.quote("a\"b\\c\n"));
+        assertEquals("null", BookingServer.quote(null));
+    }
+}
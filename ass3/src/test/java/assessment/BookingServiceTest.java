@@ -0,0 +1,379 @@
+package assessment;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the headless {@link BookingService}.
+ */
+public class BookingServiceTest {
+
+    private Passenger passenger;
+    private Airplane firstAirplane;
+    private Airplane secondAirplane;
+    private Flight firstFlight;
+    private Flight secondFlight;
+
+    @BeforeEach
+    void setUp() {
+        FlightCollection.flights = new ArrayList<>();
+        TicketCollection.tickets = new ArrayList<>();
+        passenger = new Passenger("Mia", "Jones", 30, "Woman", "mia@example.com", "+61 412345678",
+                "P1234567", "4111111111111111", 123);
+        passenger.setAge(30);
+
+        firstAirplane = new Airplane(4001, "Airbus A320", 7, 42, 6);
+        secondAirplane = new Airplane(4002, "Boeing 737", 1, 6, 4);
+        firstFlight = new Flight(1, "Sydney", "Melbourne", "QF1", "Quantas",
+                Timestamp.valueOf("2025-08-01 08:00:00"), Timestamp.valueOf("2025-08-01 09:30:00"), firstAirplane);
+        secondFlight = new Flight(2, "Cairns", "Sydney", "QF2", "Quantas",
+                Timestamp.valueOf("2025-08-01 11:00:00"), Timestamp.valueOf("2025-08-01 14:00:00"), secondAirplane);
+        FlightCollection.addFlights(new ArrayList<>(List.of(firstFlight, secondFlight)));
+    }
+
+    private Ticket addTicket(int ticketId, Flight flight, boolean classVip) {
+        Ticket ticket = new Ticket(ticketId, 1000, flight, classVip, passenger);
+        TicketCollection.addTickets(new ArrayList<>(List.of(ticket)));
+        return ticket;
+    }
+
+    @Test
+    @DisplayName("A single ticket is booked without any console output")
+    void testBookSingleTicket() {
+        Ticket ticket = addTicket(10, firstFlight, false);
+        PrintStream originalOut = System.out;
+        ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(outContent));
+        BookingReceipt receipt;
+        try {
+            receipt = BookingService.book(new BookingRequest(passenger, 10));
+        } finally {
+            System.setOut(originalOut);
+        }
+
+        assertEquals("", outContent.toString());
+        assertEquals(List.of(ticket), receipt.getTickets());
+        assertEquals(1120, receipt.getTotalPrice()); // 12% service tax
+        assertSame(passenger, ticket.getPassenger());
+        assertTrue(ticket.ticketStatus());
+        assertEquals(41, firstAirplane.getEconomySitsNumber());
+        assertEquals("B1", ticket.getSeat());
+        assertTrue(firstAirplane.isSeatTaken("B1"));
+    }
+
+    @Test
+    @DisplayName("Dynamic pricing charges more as the cabin fills")
+    void testDynamicPricing() {
+        Ticket first = addTicket(20, secondFlight, false);
+        Ticket second = addTicket(21, secondFlight, false);
+        Ticket third = addTicket(22, secondFlight, false);
+        assertEquals(2, secondAirplane.reserveEconomySeats(2));
+        BookingService.setPricing(PricingEngine.builder()
+                .loadBand(50, 100, 5_000)
+                .loadBand(100, 100, 10_000)
+                .taxRate(1_200)
+                .build());
+        try {
+            assertEquals(1120, BookingService.quote(first, passenger)); // 2 of 6 seats sold
+            BookingService.book(new BookingRequest(passenger, 20));     // the seat being sold does not count
+            BookingService.book(new BookingRequest(passenger, 21));
+            assertEquals(1120, first.getPrice());
+            assertEquals(1680, second.getPrice());
+            assertEquals(1680, BookingService.quote(third, passenger));
+            assertTrue(secondAirplane.reserveEconomySeat());
+            assertEquals(1680, BookingService.quote(third, passenger)); // 5 of 6 sold
+            BookingService.book(new BookingRequest(passenger, 22));     // takes the last seat
+            assertEquals(1680, third.getPrice());
+            assertEquals(0, secondAirplane.getEconomySitsNumber());
+        } finally {
+            BookingService.setPricing(PricingEngine.STANDARD);
+        }
+    }
+
+    @Test
+    @DisplayName("A sale that takes a cabin across a load band is priced at the band it started in")
+    void testDynamicPricingBandBoundary() {
+        Ticket ticket = addTicket(20, secondFlight, false);
+        List<BookingRequest> batch = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            addTicket(20 + i, secondFlight, false);
+            batch.add(new BookingRequest(passenger, 20 + i));
+        }
+        assertEquals(2, secondAirplane.reserveEconomySeats(2));
+        BookingService.setPricing(PricingEngine.builder()
+                .loadBand(50, 100, 5_000)
+                .taxRate(1_200)
+                .build());
+        try {
+            // 2 of 6 sold is under the band; the sale's own seat would make it 3 of 6, exactly on it
+            assertEquals(1120, BookingService.book(new BookingRequest(passenger, 20)).getTotalPrice());
+            assertEquals(1120, ticket.getPrice());
+
+            BatchBookingResult result = BookingService.bookBatch(batch); // every request quoted at 3 of 6
+            for (int i = 0; i < 3; i++) {
+                assertEquals(1680, result.getReceipt(i).getTotalPrice());
+            }
+            assertEquals(0, secondAirplane.getEconomySitsNumber());
+        } finally {
+            BookingService.setPricing(PricingEngine.STANDARD);
+        }
+    }
+
+    @Test
+    @DisplayName("Both legs of a transfer are booked in one request")
+    void testBookTransfer() {
+        Ticket first = addTicket(10, firstFlight, false);
+        Ticket second = addTicket(20, secondFlight, true);
+
+        BookingReceipt receipt = BookingService.book(new BookingRequest(passenger, 10, 20));
+
+        assertEquals(List.of(first, second), receipt.getTickets());
+        assertEquals(2240, receipt.getTotalPrice());
+        assertTrue(first.ticketStatus());
+        assertTrue(second.ticketStatus());
+        assertEquals(0, secondAirplane.getBusinessSitsNumber());
+    }
+
+    @Test
+    @DisplayName("A sold out leg gives back the seats already taken and leaves every ticket unsold")
+    void testSoldOutLegRollsBack() {
+        Ticket first = addTicket(10, firstFlight, false);
+        Ticket second = addTicket(20, secondFlight, true);
+        assertTrue(secondAirplane.reserveBusinessSeat()); // last business seat goes elsewhere
+
+        Exception exception = assertThrows(IllegalStateException.class,
+                () -> BookingService.book(new BookingRequest(passenger, 10, 20)));
+        assertEquals("No business class seats available on flight 2.", exception.getMessage());
+
+        assertFalse(first.ticketStatus());
+        assertFalse(second.ticketStatus());
+        assertEquals(42, firstAirplane.getEconomySitsNumber());
+    }
+
+    @Test
+    @DisplayName("A leg that cannot be priced unsells the legs before it and gives back every seat")
+    void testFailedLegUndoesEarlierLegs() {
+        Ticket first = addTicket(10, firstFlight, false);
+        Ticket second = new Ticket(20, Integer.MAX_VALUE, secondFlight, true, passenger); // quote overflows
+        TicketCollection.addTickets(new ArrayList<>(List.of(second)));
+        Passenger buyer = new Passenger("Noah", "Smith", 40, "Man", "noah@example.com", "+61 498765432",
+                "P7654321", "4111111111111111", 321);
+        buyer.setAge(40);
+
+        assertThrows(IllegalArgumentException.class, () -> BookingService.book(new BookingRequest(buyer, 10, 20)));
+
+        assertFalse(first.ticketStatus());
+        assertFalse(second.ticketStatus());
+        assertSame(passenger, first.getPassenger());
+        assertEquals(1000, first.getPrice());
+        assertNull(first.getSeat());
+        assertNull(second.getSeat());
+        assertEquals(0, firstAirplane.getAssignedSeatCount());
+        assertEquals(0, secondAirplane.getAssignedSeatCount());
+        assertEquals(42, firstAirplane.getEconomySitsNumber());
+        assertEquals(1, secondAirplane.getBusinessSitsNumber());
+        assertEquals(List.of(first), TicketCollection.getAvailableTickets(1));
+    }
+
+    @Test
+    @DisplayName("A journal failure part way through a leg puts both legs back")
+    void testJournalFailureOnSecondLegRollsBack() {
+        Ticket first = addTicket(10, firstFlight, false);
+        Ticket second = addTicket(20, secondFlight, true);
+
+        try (MockedStatic<BookingJournal> journal = mockStatic(BookingJournal.class, CALLS_REAL_METHODS)) {
+            journal.when(() -> BookingJournal.ticketSold(second))
+                    .thenThrow(new IllegalStateException("Booking journal could not be written"));
+            assertThrows(IllegalStateException.class, () -> BookingService.book(new BookingRequest(passenger, 10, 20)));
+        }
+
+        assertFalse(first.ticketStatus());
+        assertFalse(second.ticketStatus());
+        assertEquals(1000, first.getPrice());
+        assertEquals(1000, second.getPrice());
+        assertNull(first.getSeat());
+        assertNull(second.getSeat());
+        assertEquals(0, firstAirplane.getAssignedSeatCount());
+        assertEquals(0, secondAirplane.getAssignedSeatCount());
+        assertEquals(42, firstAirplane.getEconomySitsNumber());
+        assertEquals(1, secondAirplane.getBusinessSitsNumber());
+        assertEquals(1, TicketCollection.countAvailable(1, false));
+        assertEquals(1, TicketCollection.countAvailable(2, true));
+
+        BookingService.book(new BookingRequest(passenger, 10, 20));
+        assertTrue(second.ticketStatus());
+    }
+
+    @Test
+    @DisplayName("Unknown, booked and repeated tickets are rejected")
+    void testInvalidRequests() {
+        Ticket ticket = addTicket(10, firstFlight, false);
+
+        assertThrows(IllegalArgumentException.class, () -> BookingService.book(new BookingRequest(passenger, 99)));
+        assertThrows(IllegalArgumentException.class, () -> BookingService.book(new BookingRequest(passenger, 10, 10)));
+        assertThrows(IllegalArgumentException.class, () -> new BookingRequest(passenger));
+        assertThrows(IllegalArgumentException.class, () -> new BookingRequest(null, 10));
+
+        BookingService.book(new BookingRequest(passenger, 10));
+        Exception exception = assertThrows(IllegalStateException.class,
+                () -> BookingService.book(new BookingRequest(passenger, 10)));
+        assertEquals("Ticket 10 is already booked", exception.getMessage());
+        assertTrue(ticket.ticketStatus());
+        assertEquals(41, firstAirplane.getEconomySitsNumber());
+    }
+
+    @Test
+    @DisplayName("Concurrent transfers listed in opposite orders never deadlock or half-book")
+    void testConcurrentTransfersAreAllOrNothing() throws Exception {
+        Airplane outbound = new Airplane(4003, "Airbus A350", 0, 70, 10);
+        Airplane onward = new Airplane(4004, "Airbus A350", 0, 70, 10);
+        Flight third = new Flight(3, "Perth", "Adelaide", "QF3", "Quantas",
+                Timestamp.valueOf("2025-08-02 08:00:00"), Timestamp.valueOf("2025-08-02 11:00:00"), outbound);
+        Flight fourth = new Flight(4, "Darwin", "Perth", "QF4", "Quantas",
+                Timestamp.valueOf("2025-08-02 13:00:00"), Timestamp.valueOf("2025-08-02 17:00:00"), onward);
+        FlightCollection.addFlights(new ArrayList<>(List.of(third, fourth)));
+        int pairs = 50;
+        for (int i = 0; i < pairs; i++) {
+            addTicket(100 + i, third, false);
+            addTicket(200 + i, fourth, false);
+        }
+
+        // four buyers race for every pair, half of them listing the legs in reverse
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger booked = new AtomicInteger();
+        List<Future<?>> results = new ArrayList<>();
+        for (int i = 0; i < pairs; i++) {
+            for (int buyer = 0; buyer < 4; buyer++) {
+                int[] ids = buyer % 2 == 0 ? new int[] {100 + i, 200 + i} : new int[] {200 + i, 100 + i};
+                results.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        BookingService.book(new BookingRequest(passenger, ids));
+                        booked.incrementAndGet();
+                    } catch (IllegalStateException e) {
+                        // lost the race for this pair
+                    }
+                    return null;
+                }));
+            }
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS), "bookings deadlocked");
+        for (Future<?> result : results) {
+            result.get();
+        }
+
+        assertEquals(pairs, booked.get());
+        assertEquals(70 - pairs, outbound.getEconomySitsNumber());
+        assertEquals(70 - pairs, onward.getEconomySitsNumber());
+        for (int i = 0; i < pairs; i++) {
+            assertTrue(TicketCollection.getTicketInfo(100 + i).ticketStatus());
+            assertTrue(TicketCollection.getTicketInfo(200 + i).ticketStatus());
+        }
+    }
+
+    @Test
+    @DisplayName("A batch is booked per flight and failures do not stop the rest")
+    void testBookBatch() {
+        List<BookingRequest> batch = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            addTicket(30 + i, secondFlight, false); // only six economy seats on the second flight
+            batch.add(new BookingRequest(passenger, 30 + i));
+        }
+        addTicket(40, secondFlight, true);
+        addTicket(41, secondFlight, true); // one business seat
+        addTicket(10, firstFlight, false);
+        addTicket(11, firstFlight, false).setTicketStatus(true);
+        addTicket(20, firstFlight, false);
+        batch.add(new BookingRequest(passenger, 40));
+        batch.add(new BookingRequest(passenger, 41));
+        batch.add(new BookingRequest(passenger, 10));
+        batch.add(new BookingRequest(passenger, 11));
+        batch.add(new BookingRequest(passenger, 99));
+        batch.add(new BookingRequest(passenger, 10));
+        batch.add(new BookingRequest(passenger, 20, 41));
+
+        BatchBookingResult result;
+        try (MockedStatic<FlightCollection> flightCollection = mockStatic(FlightCollection.class, CALLS_REAL_METHODS)) {
+            result = BookingService.bookBatch(batch);
+
+            // one lookup per flight group, not per ticket, plus one per leg of the transfer
+            flightCollection.verify(() -> FlightCollection.getFlightInfo(2), times(2));
+            flightCollection.verify(() -> FlightCollection.getFlightInfo(1), times(2));
+        }
+
+        for (int i = 0; i < 6; i++) {
+            assertEquals(1120, result.getReceipt(i).getTotalPrice());
+        }
+        assertEquals("No economy class seats available on flight 2.", result.getFailures().get(6));
+        assertEquals("No economy class seats available on flight 2.", result.getFailures().get(7));
+        assertNotNull(result.getReceipt(8));
+        assertEquals("No business class seats available on flight 2.", result.getFailures().get(9));
+        assertNotNull(result.getReceipt(10));
+        assertEquals("Ticket 11 is already booked", result.getFailures().get(11));
+        assertEquals("Ticket 99 does not exist", result.getFailures().get(12));
+        assertEquals("Ticket 10 is requested twice", result.getFailures().get(13));
+        assertEquals("No business class seats available on flight 2.", result.getFailures().get(14));
+        assertEquals(8, result.getBookedCount());
+
+        assertEquals(0, secondAirplane.getEconomySitsNumber());
+        assertEquals(0, secondAirplane.getBusinessSitsNumber());
+        assertEquals(41, firstAirplane.getEconomySitsNumber()); // the failed transfer gave its seat back
+        assertFalse(TicketCollection.getTicketInfo(20).ticketStatus());
+    }
+
+    @Test
+    @DisplayName("A request that fails inside a batch group is recorded and its seat goes to the next")
+    void testBookBatchSurvivesFailedSale() {
+        List<BookingRequest> batch = new ArrayList<>();
+        TicketCollection.addTickets(new ArrayList<>(List.of(
+                new Ticket(30, Integer.MAX_VALUE, secondFlight, false, passenger)))); // quote overflows
+        batch.add(new BookingRequest(passenger, 30));
+        for (int i = 1; i <= 6; i++) {
+            addTicket(30 + i, secondFlight, false); // exactly the six economy seats on the second flight
+            batch.add(new BookingRequest(passenger, 30 + i));
+        }
+        addTicket(10, firstFlight, false);
+        TicketCollection.addTickets(new ArrayList<>(List.of(
+                new Ticket(11, Integer.MAX_VALUE, firstFlight, false, passenger))));
+        batch.add(new BookingRequest(passenger, 10));
+        batch.add(new BookingRequest(passenger, 11));
+
+        BatchBookingResult result = BookingService.bookBatch(batch);
+
+        assertEquals("Price is too large", result.getFailures().get(0));
+        for (int i = 1; i <= 6; i++) {
+            assertEquals(1120, result.getReceipt(i).getTotalPrice());
+        }
+        assertNotNull(result.getReceipt(7));
+        assertEquals("Price is too large", result.getFailures().get(8));
+        assertEquals(7, result.getBookedCount());
+
+        assertFalse(TicketCollection.getTicketInfo(30).ticketStatus());
+        assertNull(TicketCollection.getTicketInfo(30).getSeat());
+        assertEquals(0, secondAirplane.getEconomySitsNumber());
+        assertEquals(6, secondAirplane.getAssignedSeatCount());
+        assertEquals(41, firstAirplane.getEconomySitsNumber()); // the failed request's seat was given back
+        assertEquals(1, firstAirplane.getAssignedSeatCount());
+        assertFalse(TicketCollection.getTicketInfo(11).ticketStatus());
+    }
+}
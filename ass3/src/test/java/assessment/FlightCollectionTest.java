@@ -4,9 +4,14 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.sql.Timestamp;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 
 /**
@@ -94,4 +99,249 @@ public class FlightCollectionTest
         Flight actualFlight = FlightCollection.getFlightInfo("Melbourne");
         assertEquals(flightFour, actualFlight);
     }
-}
\ No newline at end of file
+
+    /**
+     * Test to verify the flight ID index picks up flights added through addFlights.
+     */
+    @Test
+    @DisplayName("Retrieve flight by Flight ID after addFlights")
+    public void testGetFlightInfoWithFlightIDAfterAddFlights()
+    {
+        assertEquals(flightTwo, FlightCollection.getFlightInfo(102));
+
+        Airplane airplane = new Airplane(1020, "Boeing 737", 7, 14, 4);
+        Flight flightFive = new Flight(105, "Hobart", "Melbourne", "QF105", "Quantas",
+                Timestamp.valueOf("2020-06-01 08:00:00"), Timestamp.valueOf("2020-06-01 09:00:00"), airplane);
+        ArrayList<Flight> newFlights = new ArrayList<>();
+        newFlights.add(flightFive);
+        FlightCollection.addFlights(newFlights);
+
+        assertEquals(flightFive, FlightCollection.getFlightInfo(105));
+        assertEquals(flightTwo, FlightCollection.getFlightInfo(102));
+    }
+
+    /**
+     * Test to verify an unknown flight ID returns null.
+     */
+    @Test
+    @DisplayName("Retrieve flight by unknown Flight ID")
+    public void testGetFlightInfoWithUnknownFlightID()
+    {
+        assertNull(FlightCollection.getFlightInfo(999));
+    }
+
+    /**
+     * Test to verify the index follows a flight whose ID is changed.
+     */
+    @Test
+    @DisplayName("Retrieve flight by Flight ID after the ID changes")
+    public void testGetFlightInfoAfterFlightIDChange()
+    {
+        assertEquals(flightThree, FlightCollection.getFlightInfo(103));
+
+        flightThree.setFlightID(303);
+
+        assertNull(FlightCollection.getFlightInfo(103));
+        assertEquals(flightThree, FlightCollection.getFlightInfo(303));
+    }
+
+    /**
+     * Test to verify every flight on a route is returned, in insertion order.
+     */
+    @Test
+    @DisplayName("Retrieve all flights between two cities")
+    public void testGetFlightsInfoWithTwoCities()
+    {
+        Airplane airplane = new Airplane(1030, "Airbus A320", 14, 28, 6);
+        Flight lateFlight = new Flight(106, "Melbourne", "Sydney", "QF106", "Quantas",
+                Timestamp.valueOf("2020-01-01 18:00:00"), Timestamp.valueOf("2020-01-01 19:30:00"), airplane);
+        FlightCollection.flights.add(lateFlight);
+
+        assertEquals(List.of(flightOne, lateFlight), FlightCollection.getFlightsInfo("Melbourne", "Sydney"));
+        assertEquals(lateFlight, FlightCollection.getFlightInfo("Melbourne", "Sydney"));
+        assertEquals(List.of(flightThree), FlightCollection.getFlightsInfo("Melbourne", "Perth"));
+    }
+
+    /**
+     * Test to verify a route without flights returns an empty list and no flight.
+     */
+    @Test
+    @DisplayName("Retrieve flights between two cities with no direct route")
+    public void testGetFlightsInfoWithNoRoute()
+    {
+        assertTrue(FlightCollection.getFlightsInfo("Sydney", "Melbourne").isEmpty());
+        assertNull(FlightCollection.getFlightInfo("Sydney", "Melbourne"));
+    }
+
+    /**
+     * Test to verify the route index follows a flight whose destination changes.
+     */
+    @Test
+    @DisplayName("Retrieve flights between two cities after a route change")
+    public void testGetFlightsInfoAfterRouteChange()
+    {
+        flightFour.setDepartTo("Adelaide");
+
+        assertTrue(FlightCollection.getFlightsInfo("Melbourne", "Darwin").isEmpty());
+        assertEquals(List.of(flightFour), FlightCollection.getFlightsInfo("Adelaide", "Darwin"));
+    }
+
+    /**
+     * Test to verify a departure window returns flights in departure order, including the start and excluding the end.
+     */
+    @Test
+    @DisplayName("Retrieve flights departing within a time window")
+    public void testGetFlightsDepartingBetween()
+    {
+        Airplane airplane = new Airplane(1040, "Airbus A321", 14, 42, 8);
+        Flight earlyFlight = new Flight(107, "Adelaide", "Perth", "QF107", "Quantas",
+                Timestamp.valueOf("2020-01-02 06:00:00"), Timestamp.valueOf("2020-01-02 09:00:00"), airplane);
+        Flight noonFlight = new Flight(108, "Adelaide", "Sydney", "QF108", "Quantas",
+                Timestamp.valueOf("2020-01-02 12:00:00"), Timestamp.valueOf("2020-01-02 14:00:00"), airplane);
+        FlightCollection.flights.add(noonFlight);
+        FlightCollection.flights.add(earlyFlight);
+
+        List<Flight> morning = FlightCollection.getFlightsDepartingBetween(
+                Timestamp.valueOf("2020-01-02 06:00:00"), Timestamp.valueOf("2020-01-02 12:00:00"));
+
+        assertEquals(List.of(earlyFlight, flightTwo), morning);
+    }
+
+    /**
+     * Test to verify a departure window can be restricted to a single route.
+     */
+    @Test
+    @DisplayName("Retrieve flights departing within a time window on a route")
+    public void testGetFlightsDepartingBetweenOnRoute()
+    {
+        Timestamp from = Timestamp.valueOf("2020-01-01 00:00:00");
+        Timestamp to = Timestamp.valueOf("2020-12-31 00:00:00");
+
+        assertEquals(List.of(flightFour), FlightCollection.getFlightsDepartingBetween("Melbourne", "Darwin", from, to));
+        assertTrue(FlightCollection.getFlightsDepartingBetween("Melbourne", "Darwin",
+                from, Timestamp.valueOf("2020-05-10 10:00:00")).isEmpty());
+        assertTrue(FlightCollection.getFlightsDepartingBetween("Darwin", "Melbourne", from, to).isEmpty());
+    }
+
+    /**
+     * Test to verify the departure index follows a flight whose departure time changes.
+     */
+    @Test
+    @DisplayName("Retrieve flights departing within a time window after a reschedule")
+    public void testGetFlightsDepartingBetweenAfterReschedule()
+    {
+        Timestamp from = Timestamp.valueOf("2020-01-01 00:00:00");
+        Timestamp to = Timestamp.valueOf("2020-01-02 00:00:00");
+        assertEquals(List.of(flightOne), FlightCollection.getFlightsDepartingBetween(from, to));
+
+        flightOne.setDateFrom(Timestamp.valueOf("2020-01-03 10:00:00"));
+
+        assertTrue(FlightCollection.getFlightsDepartingBetween(from, to).isEmpty());
+    }
+
+    /**
+     * Test to verify readers never fail or see a flight list out of step with the indexes while a writer adds flights.
+     */
+    @Test
+    @DisplayName("Concurrent readers while flights are added")
+    public void testConcurrentReadersDuringAddFlights() throws Exception
+    {
+        Airplane airplane = new Airplane(1050, "Boeing 787", 14, 56, 10);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < 4; r++)
+        {
+            Thread reader = new Thread(() -> {
+                try
+                {
+                    while (writing.get())
+                    {
+                        for (Flight f : FlightCollection.getFlights())
+                        {
+                            // a flight visible in the list must be visible through the index too
+                            if (FlightCollection.getFlightInfo(f.getFlightID()) == null)
+                            {
+                                throw new AssertionError("Flight " + f.getFlightID() + " missing from index");
+                            }
+                        }
+                        FlightCollection.getFlightsInfo("Melbourne", "Sydney").size();
+                    }
+                }
+                catch (Throwable t)
+                {
+                    failure.compareAndSet(null, t);
+                }
+            });
+            reader.start();
+            readers.add(reader);
+        }
+
+        for (int id = 1000; id < 1500; id++)
+        {
+            ArrayList<Flight> batch = new ArrayList<>();
+            batch.add(new Flight(id, "Melbourne", "Sydney", "QF" + id, "Quantas",
+                    Timestamp.valueOf("2020-03-01 10:00:00"), Timestamp.valueOf("2020-03-01 11:30:00"), airplane));
+            FlightCollection.addFlights(batch);
+        }
+        writing.set(false);
+        for (Thread reader : readers)
+        {
+            reader.join();
+        }
+
+        assertNull(failure.get());
+        assertEquals(504, FlightCollection.getFlights().size());
+        assertEquals(501, FlightCollection.getFlightsInfo("Melbourne", "Sydney").size());
+    }
+
+    /**
+     * Test to verify readers keep getting answers while flights are rescheduled, and see the last schedule once it settles.
+     */
+    @Test
+    @DisplayName("Concurrent readers while flights are rescheduled")
+    public void testConcurrentReadersDuringReschedule() throws Exception
+    {
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < 4; r++)
+        {
+            Thread reader = new Thread(() -> {
+                try
+                {
+                    while (writing.get())
+                    {
+                        // the id index never changes here, whichever snapshot a reader is served
+                        if (FlightCollection.getFlightInfo(101) != flightOne)
+                        {
+                            throw new AssertionError("Flight 101 missing from index");
+                        }
+                        FlightCollection.getFlightsDepartingBetween(Timestamp.valueOf("2020-01-01 00:00:00"),
+                                Timestamp.valueOf("2021-01-01 00:00:00")).size();
+                    }
+                }
+                catch (Throwable t)
+                {
+                    failure.compareAndSet(null, t);
+                }
+            });
+            reader.start();
+            readers.add(reader);
+        }
+
+        for (int day = 1; day <= 500; day++)
+        {
+            flightTwo.setDateFrom(new Timestamp(Timestamp.valueOf("2020-03-01 10:00:00").getTime() + day * 86_400_000L));
+        }
+        writing.set(false);
+        for (Thread reader : readers)
+        {
+            reader.join();
+        }
+
+        assertNull(failure.get());
+        assertEquals(List.of(flightTwo), FlightCollection.getFlightsDepartingBetween(flightTwo.getDateFrom(),
+                new Timestamp(flightTwo.getDateFrom().getTime() + 1)));
+    }
+}
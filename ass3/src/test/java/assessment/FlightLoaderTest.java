@@ -0,0 +1,151 @@
+package assessment;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the bulk flight import path {@link FlightLoader}.
+ */
+public class FlightLoaderTest {
+
+    private Airplane airplane;
+    private Timestamp departure;
+    private Timestamp arrival;
+
+    @BeforeEach
+    void setUp() {
+        FlightCollection.flights = new ArrayList<>();
+        airplane = new Airplane(2001, "Boeing 737", 7, 42, 6);
+        departure = Timestamp.valueOf("2025-07-01 08:00:00");
+        arrival = Timestamp.valueOf("2025-07-01 10:00:00");
+    }
+
+    private FlightLoader.Row row(int flightId) {
+        return new FlightLoader.Row(flightId, "Sydney", "Melbourne", "QF" + flightId, "Quantas", departure, arrival, airplane);
+    }
+
+    @Test
+    @DisplayName("A valid batch is published into FlightCollection")
+    void testLoadValidBatch() {
+        List<FlightLoader.Row> rows = new ArrayList<>();
+        for (int id = 1; id <= 5_000; id++) {
+            rows.add(row(id));
+        }
+
+        List<Flight> loaded = FlightLoader.load(rows);
+
+        assertEquals(5_000, loaded.size());
+        assertEquals(5_000, FlightCollection.getFlights().size());
+        assertEquals(1, loaded.get(0).getFlightID());
+        assertSame(loaded.get(4_999), FlightCollection.getFlightInfo(5_000));
+        assertEquals("QF42", FlightCollection.getFlightInfo(42).getCode());
+        assertEquals(departure, FlightCollection.getFlightInfo(42).getDateFrom());
+    }
+
+    @Test
+    @DisplayName("All rejected rows are reported together and nothing is published")
+    void testLoadReportsAllRejections() {
+        FlightCollection.addFlights(new ArrayList<>(List.of(
+                new Flight(7, "Perth", "Sydney", "QF7", "Quantas", departure, arrival, airplane))));
+
+        List<FlightLoader.Row> rows = new ArrayList<>();
+        rows.add(row(1));
+        rows.add(row(7));                                 // already in the system
+        rows.add(row(1));                                 // duplicate within the batch
+        rows.add(new FlightLoader.Row(3, null, "Melbourne", "QF3", "Quantas", departure, arrival, airplane));
+        rows.add(null);
+
+        FlightLoadException ex = assertThrows(FlightLoadException.class, () -> FlightLoader.load(rows));
+
+        Map<Integer, String> rejected = ex.getRejectedRows();
+        assertEquals(4, rejected.size());
+        assertEquals("Flight Already in the system", rejected.get(1));
+        assertEquals("Duplicate flight id in batch", rejected.get(2));
+        assertEquals("All fields are required", rejected.get(3));
+        assertEquals("Row is required", rejected.get(4));
+        assertEquals(1, FlightCollection.getFlights().size());
+        assertNull(FlightCollection.getFlightInfo(1));
+    }
+
+    @Test
+    @DisplayName("A rejection serializes with its rows and does not follow later changes to the map it was given")
+    void testLoadExceptionSerializes() throws Exception {
+        Map<Integer, String> rows = new HashMap<>(Map.of(2, "Row is required"));
+        FlightLoadException ex = new FlightLoadException(rows, 3);
+        rows.put(0, "All fields are required");
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(ex);
+        }
+        FlightLoadException copy;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            copy = (FlightLoadException) in.readObject();
+        }
+
+        assertEquals(Map.of(2, "Row is required"), ex.getRejectedRows());
+        assertEquals(ex.getRejectedRows(), copy.getRejectedRows());
+        assertEquals(ex.getMessage(), copy.getMessage());
+    }
+
+    @Test
+    @DisplayName("Flight constructor still rejects ids loaded in bulk")
+    void testConstructorSeesLoadedFlights() {
+        FlightLoader.load(List.of(row(9)));
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> new Flight(9, "Sydney", "Melbourne", "QF9", "Quantas", departure, arrival, airplane));
+        assertEquals("Flight Already in the system", ex.getMessage());
+    }
+
+    @Test
+    @DisplayName("Concurrent batches with the same id publish exactly one of them")
+    void testConcurrentLoadsSameId() throws Exception {
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int other = 100 + t;
+            results.add(pool.submit(() -> {
+                start.await();
+                try {
+                    FlightLoader.load(List.of(row(other), row(50)));
+                    return true;
+                } catch (FlightLoadException e) {
+                    assertEquals(Map.of(1, "Flight Already in the system"), e.getRejectedRows());
+                    return false;
+                }
+            }));
+        }
+        start.countDown();
+        int loaded = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get()) {
+                loaded++;
+            }
+        }
+        pool.shutdown();
+
+        assertEquals(1, loaded);
+        assertEquals(2, FlightCollection.getFlights().size());
+        assertNotNull(FlightCollection.getFlightInfo(50));
+    }
+}
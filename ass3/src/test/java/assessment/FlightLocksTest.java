@@ -0,0 +1,94 @@
+package assessment;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the striped booking locks {@link FlightLocks}.
+ */
+public class FlightLocksTest {
+
+    // Finds a flight id other than flightId that lands on the same stripe
+    private static int collidingWith(int flightId) {
+        for (int id = flightId + 1; ; id++) {
+            if (FlightLocks.stripeOf(id) == FlightLocks.stripeOf(flightId)) {
+                return id;
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("A flight always maps to the same lock and neighbouring ids spread out")
+    void testStripes() {
+        assertSame(FlightLocks.forFlight(42), FlightLocks.forFlight(42));
+        for (int id = 1; id < 64; id++) {
+            assertNotEquals(FlightLocks.stripeOf(id), FlightLocks.stripeOf(id + 1));
+        }
+    }
+
+    @Test
+    @DisplayName("A busy flight does not block an unrelated one")
+    void testUnrelatedFlightsDoNotContend() throws Exception {
+        int hot = 7;
+        int other = 8;
+        assertNotEquals(FlightLocks.stripeOf(hot), FlightLocks.stripeOf(other));
+        ReentrantLock lock = FlightLocks.forFlight(hot);
+        lock.lock();
+        try {
+            AtomicBoolean otherFree = new AtomicBoolean();
+            AtomicBoolean hotFree = new AtomicBoolean();
+            Thread buyer = new Thread(() -> {
+                ReentrantLock otherLock = FlightLocks.forFlight(other);
+                if (otherLock.tryLock()) {
+                    otherFree.set(true);
+                    otherLock.unlock();
+                }
+                hotFree.set(FlightLocks.forFlight(hot).tryLock());
+            });
+            buyer.start();
+            buyer.join();
+            assertTrue(otherFree.get());
+            assertFalse(hotFree.get());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Test
+    @DisplayName("Shared stripes are taken once and in one order, so crossing requests never deadlock")
+    void testLockAllOrdersByStripe() throws Exception {
+        int a = 1;
+        int b = 2;
+        int c = collidingWith(a); // a and c share a stripe, b sits elsewhere
+
+        List<ReentrantLock> held = FlightLocks.lockAll(a, c);
+        assertEquals(1, held.size());
+        FlightLocks.unlockAll(held);
+        assertFalse(FlightLocks.forFlight(a).isLocked());
+
+        // {a, b} and {b, c} would deadlock if locks were ordered by flight id instead of stripe
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int i = 0; i < 2000; i++) {
+            int[] flights = i % 2 == 0 ? new int[] {a, b} : new int[] {c, b};
+            pool.submit(() -> {
+                start.await();
+                FlightLocks.unlockAll(FlightLocks.lockAll(flights));
+                return null;
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS), "lockAll deadlocked");
+    }
+}
@@ -0,0 +1,107 @@
+package assessment;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the open-addressing map {@link IntObjectMap}.
+ */
+public class IntObjectMapTest {
+
+    @Test
+    @DisplayName("Put and get values, including zero and extreme keys")
+    void testPutAndGet() {
+        IntObjectMap<String> map = new IntObjectMap<>();
+
+        assertNull(map.put(0, "zero"));
+        assertNull(map.put(Integer.MIN_VALUE, "min"));
+        assertNull(map.put(Integer.MAX_VALUE, "max"));
+        assertNull(map.put(-1, "minus one"));
+
+        assertEquals(4, map.size());
+        assertEquals("zero", map.get(0));
+        assertEquals("min", map.get(Integer.MIN_VALUE));
+        assertEquals("max", map.get(Integer.MAX_VALUE));
+        assertEquals("minus one", map.get(-1));
+        assertNull(map.get(1));
+    }
+
+    @Test
+    @DisplayName("Put replaces an existing value and putIfAbsent keeps it")
+    void testReplaceAndPutIfAbsent() {
+        IntObjectMap<String> map = new IntObjectMap<>();
+        map.put(7, "first");
+
+        assertEquals("first", map.put(7, "second"));
+        assertEquals("second", map.putIfAbsent(7, "third"));
+        assertNull(map.putIfAbsent(8, "eight"));
+
+        assertEquals(2, map.size());
+        assertEquals("second", map.get(7));
+        assertEquals("eight", map.get(8));
+    }
+
+    @Test
+    @DisplayName("Null values are rejected")
+    void testNullValueRejected() {
+        IntObjectMap<String> map = new IntObjectMap<>();
+        assertThrows(NullPointerException.class, () -> map.put(1, null));
+    }
+
+    @Test
+    @DisplayName("Remove keeps colliding keys reachable")
+    void testRemove() {
+        IntObjectMap<Integer> map = new IntObjectMap<>();
+        for (int i = 0; i < 1000; i++) {
+            map.put(i * 16, i);
+        }
+        for (int i = 0; i < 1000; i += 2) {
+            assertEquals(i, map.remove(i * 16));
+        }
+
+        assertEquals(500, map.size());
+        assertNull(map.remove(0));
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i % 2 == 0 ? null : i, map.get(i * 16));
+        }
+    }
+
+    @Test
+    @DisplayName("Random operations match java.util.HashMap")
+    void testMatchesHashMap() {
+        IntObjectMap<Integer> map = new IntObjectMap<>(4);
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 100_000; i++) {
+            int key = random.nextInt(5_000) - 2_500;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                assertEquals(expected.put(key, i), map.put(key, i));
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (int key = -2_500; key < 2_500; key++) {
+            assertEquals(expected.get(key), map.get(key));
+        }
+    }
+
+    @Test
+    @DisplayName("Clear empties the map")
+    void testClear() {
+        IntObjectMap<String> map = new IntObjectMap<>();
+        map.put(1, "one");
+        map.clear();
+
+        assertTrue(map.isEmpty());
+        assertFalse(map.containsKey(1));
+    }
+}
@@ -0,0 +1,230 @@
+package assessment;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the binary inventory snapshot {@link InventorySnapshot}.
+ */
+public class InventorySnapshotTest {
+
+    @TempDir
+    Path dir;
+
+    private Path file;
+    private Passenger passenger;
+
+    @BeforeEach
+    void setUp() {
+        reset();
+        file = dir.resolve("inventory.snapshot");
+        passenger = new Passenger("Mia", "Jones", 30, "Woman", "mia@example.com", "+61 412345678",
+                "P1234567", "4111111111111111", 123);
+        passenger.setFirstName("Mia");
+        passenger.setSecondName("Jones");
+        passenger.setAge(30);
+        passenger.setGender("Woman");
+    }
+
+    @AfterEach
+    void tearDown() {
+        reset();
+    }
+
+    private static void reset() {
+        FlightCollection.flights = new ArrayList<>();
+        TicketCollection.tickets = new ArrayList<>();
+    }
+
+    private void loadSchedule() {
+        Airplane airplane = new Airplane(5001, "Airbus A320", 7, 42, 6);
+        Flight flight1 = new Flight(1, "Sydney", "Melbourne", "QF1", "Quantas",
+                Timestamp.valueOf("2025-08-01 08:00:00"), Timestamp.valueOf("2025-08-01 09:30:00"), airplane);
+        Flight flight2 = new Flight(2, "Brisbane", "Sydney", "QF2", "Quantas",
+                Timestamp.valueOf("2025-08-01 11:00:00"), Timestamp.valueOf("2025-08-01 12:30:00"), airplane);
+        FlightCollection.addFlights(new ArrayList<>(List.of(flight1, flight2)));
+        TicketCollection.addTickets(new ArrayList<>(List.of(
+                new Ticket(10, 1000, flight1, false, passenger),
+                new Ticket(11, 2000, flight1, true, passenger),
+                new Ticket(20, 1000, flight2, false, passenger))));
+    }
+
+    @Test
+    @DisplayName("A loaded snapshot has the same flights, tickets, passengers and seat counts")
+    void testRoundTrip() throws IOException {
+        loadSchedule();
+        BookingService.book(new BookingRequest(passenger, 11));
+        int price = TicketCollection.getTicketInfo(11).getPrice();
+        String seat = TicketCollection.getTicketInfo(11).getSeat();
+        InventorySnapshot.save(file);
+        reset();
+
+        InventorySnapshot.load(file);
+
+        assertEquals(2, FlightCollection.getFlights().size());
+        Flight flight1 = FlightCollection.getFlightInfo(1);
+        Flight flight2 = FlightCollection.getFlightInfo(2);
+        assertEquals("Sydney", flight1.getDepartTo());
+        assertEquals("Melbourne", flight1.getDepartFrom());
+        assertEquals(Timestamp.valueOf("2025-08-01 09:30:00"), flight1.getDateTo());
+        assertSame(flight1, FlightCollection.getFlightInfo("Sydney", "Melbourne"));
+        assertSame(flight1.getAirplane(), flight2.getAirplane());
+        assertEquals("Airbus A320", flight1.getAirplane().getAirplaneModel());
+        assertEquals(6, flight1.getAirplane().getBusinessSitsNumber());
+        assertEquals(42, flight1.getAirplane().getEconomySitsNumber());
+        assertEquals(7, flight1.getAirplane().getBusinessCabin());
+        assertEquals(1_428, flight1.getAirplane().getLoadFactor(true), "1 of 7 business seats sold");
+
+        Ticket sold = TicketCollection.getTicketInfo(11);
+        assertTrue(sold.ticketStatus());
+        assertTrue(sold.getClassVip());
+        assertEquals(price, sold.getPrice());
+        assertEquals(2000, sold.getBaseFare());
+        assertEquals(seat, sold.getSeat());
+        assertTrue(flight1.getAirplane().isSeatTaken(seat));
+        assertEquals(1, flight1.getAirplane().getAssignedSeatCount());
+        assertSame(flight1, sold.getFlight());
+        assertEquals("Jones", sold.getPassenger().getSecondName());
+        assertEquals("+61 412345678", sold.getPassenger().getPhoneNumber());
+        assertSame(sold.getPassenger(), TicketCollection.getTicketInfo(10).getPassenger());
+        assertEquals(1, TicketCollection.getAvailableTickets(1).size());
+        assertEquals(1, TicketCollection.getAvailableTickets(2).size());
+        assertFalse(Files.exists(dir.resolve("inventory.snapshot.tmp")));
+    }
+
+    @Test
+    @DisplayName("Card numbers and security codes are not written to the snapshot")
+    void testNoCardDataInSnapshot() throws IOException {
+        loadSchedule();
+        InventorySnapshot.save(file);
+        reset();
+
+        String bytes = new String(Files.readAllBytes(file), StandardCharsets.ISO_8859_1);
+        assertFalse(bytes.contains("411111"));
+        assertTrue(bytes.contains("************1111"));
+
+        InventorySnapshot.load(file);
+        Passenger restored = TicketCollection.getTicketInfo(10).getPassenger();
+        assertEquals("************1111", restored.getCardNumber());
+        assertEquals(0, restored.getSecurityCode());
+    }
+
+    @Test
+    @DisplayName("Seat holds are released when a snapshot is loaded")
+    void testHoldsReleasedOnLoad() throws IOException {
+        loadSchedule();
+        new SeatHolds().hold(10, Duration.ofMinutes(5));
+        InventorySnapshot.save(file);
+        reset();
+
+        InventorySnapshot.load(file);
+
+        assertFalse(TicketCollection.getTicketInfo(10).isHeld());
+        assertNull(TicketCollection.getTicketInfo(10).getSeat());
+        assertEquals(42, FlightCollection.getFlightInfo(1).getAirplane().getEconomySitsNumber());
+        assertEquals(0, FlightCollection.getFlightInfo(1).getAirplane().getAssignedSeatCount());
+        assertEquals(2, TicketCollection.getAvailableTickets(1).size());
+    }
+
+    @Test
+    @DisplayName("A corrupt, truncated or foreign file is rejected and nothing is loaded")
+    void testRejectsBadFiles() throws IOException {
+        loadSchedule();
+        InventorySnapshot.save(file);
+        reset();
+        long size = Files.size(file);
+
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.seek(size - 1);
+            int last = raf.read();
+            raf.seek(size - 1);
+            raf.write(last ^ 0xFF);
+        }
+        IOException corrupt = assertThrows(IOException.class, () -> InventorySnapshot.load(file));
+        assertTrue(corrupt.getMessage().startsWith("Booking snapshot is corrupt"));
+
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.setLength(size - 5);
+        }
+        IOException truncated = assertThrows(IOException.class, () -> InventorySnapshot.load(file));
+        assertTrue(truncated.getMessage().startsWith("Booking snapshot is truncated"));
+
+        Files.writeString(file, "flight_id,depart_to,depart_from\n1,Sydney,Melbourne\n");
+        IOException foreign = assertThrows(IOException.class, () -> InventorySnapshot.load(file));
+        assertTrue(foreign.getMessage().startsWith("Not a booking snapshot"));
+
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.setLength(0);
+            raf.writeInt(0x424B534E);
+            raf.writeShort(InventorySnapshot.VERSION + 1);
+            raf.write(new byte[14]);
+        }
+        IOException newer = assertThrows(IOException.class, () -> InventorySnapshot.load(file));
+        assertTrue(newer.getMessage().startsWith("Unsupported booking snapshot version"));
+
+        assertTrue(FlightCollection.getFlights().isEmpty());
+        assertTrue(TicketCollection.getTickets().isEmpty());
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Snapshot load time compared with rebuilding the inventory")
+    void testLoadBenchmark(TestReporter reporter) throws IOException {
+        int flights = Integer.getInteger("snapshot.bench.flights", 5_000);
+        int ticketsPerFlight = Integer.getInteger("snapshot.bench.tickets", 20);
+
+        long start = System.nanoTime();
+        rebuild(flights, ticketsPerFlight);
+        long rebuildNanos = System.nanoTime() - start;
+        InventorySnapshot.save(file);
+        reset();
+
+        start = System.nanoTime();
+        InventorySnapshot.load(file);
+        long loadNanos = System.nanoTime() - start;
+
+        assertEquals(flights, FlightCollection.getFlights().size());
+        assertEquals(flights * ticketsPerFlight, TicketCollection.getTickets().size());
+        reporter.publishEntry("snapshot", String.format("%d flights, %d tickets: rebuild %.1f ms, snapshot load %.1f ms (%d KB)",
+                flights, flights * ticketsPerFlight, rebuildNanos / 1e6, loadNanos / 1e6, Files.size(file) / 1024));
+    }
+
+    // Builds the inventory through the public constructors, as loading it from source data does
+    private static void rebuild(int flights, int ticketsPerFlight) {
+        ArrayList<Flight> schedule = new ArrayList<>(flights);
+        ArrayList<Ticket> tickets = new ArrayList<>(flights * ticketsPerFlight);
+        Airplane airplane = null;
+        for (int f = 1; f <= flights; f++) {
+            if (f % 10 == 1) {
+                airplane = new Airplane(f, "Boeing 737", 14, 56, 6);
+            }
+            Flight flight = new Flight(f, "Sydney", "Melbourne", "QF" + f, "Quantas",
+                    Timestamp.valueOf("2025-08-01 08:00:00"), Timestamp.valueOf("2025-08-01 09:30:00"), airplane);
+            schedule.add(flight);
+            for (int t = 0; t < ticketsPerFlight; t++) {
+                Passenger passenger = new Passenger("Mia", "Jones", 30, "Woman", "mia" + t + "@example.com",
+                        "+61 412345678", "P1234567", "4111111111111111", 123);
+                tickets.add(new Ticket(f * ticketsPerFlight + t, 1000, flight, t % 5 == 0, passenger));
+            }
+        }
+        FlightCollection.addFlights(schedule);
+        TicketCollection.addTickets(tickets);
+    }
+}
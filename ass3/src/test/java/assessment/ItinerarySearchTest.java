@@ -0,0 +1,115 @@
+package assessment;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the earliest-arrival search {@link ItinerarySearch}.
+ */
+public class ItinerarySearchTest {
+
+    private Airplane airplane;
+    private int nextFlightId;
+
+    @BeforeEach
+    void setUp() {
+        FlightCollection.flights = new ArrayList<>();
+        airplane = new Airplane(4001, "Boeing 737", 7, 42, 6);
+        nextFlightId = 1;
+    }
+
+    private Flight addFlight(String from, String to, String departure, String arrival) {
+        Flight flight = new Flight(nextFlightId, to, from, "QF" + nextFlightId, "Quantas",
+                Timestamp.valueOf("2025-09-01 " + departure + ":00"), Timestamp.valueOf("2025-09-01 " + arrival + ":00"), airplane);
+        nextFlightId++;
+        FlightCollection.addFlights(new ArrayList<>(List.of(flight)));
+        return flight;
+    }
+
+    private static Timestamp at(String time) {
+        return Timestamp.valueOf("2025-09-01 " + time + ":00");
+    }
+
+    @Test
+    @DisplayName("Direct flight is chosen when it lands first")
+    void testDirectFlight() {
+        Flight direct = addFlight("Melbourne", "Perth", "09:00", "12:00");
+        addFlight("Melbourne", "Adelaide", "08:00", "09:00");
+        addFlight("Adelaide", "Perth", "10:00", "13:00");
+
+        assertEquals(List.of(direct), ItinerarySearch.findEarliestArrival("Melbourne", "Perth", at("07:00")));
+    }
+
+    @Test
+    @DisplayName("Transfer itinerary beats a later direct flight")
+    void testTransferBeatsLaterDirect() {
+        addFlight("Melbourne", "Perth", "15:00", "18:00");
+        Flight first = addFlight("Melbourne", "Adelaide", "08:00", "09:00");
+        Flight second = addFlight("Adelaide", "Perth", "10:00", "13:00");
+
+        assertEquals(List.of(first, second), ItinerarySearch.findEarliestArrival("Melbourne", "Perth", at("07:00")));
+    }
+
+    @Test
+    @DisplayName("Connections shorter than the minimum are not taken")
+    void testMinimumConnectionTime() {
+        Flight first = addFlight("Melbourne", "Adelaide", "08:00", "09:00");
+        Flight tight = addFlight("Adelaide", "Perth", "09:20", "12:00");
+        Flight later = addFlight("Adelaide", "Perth", "10:00", "13:00");
+
+        assertEquals(List.of(first, later), ItinerarySearch.findEarliestArrival("Melbourne", "Perth", at("07:00")));
+        assertEquals(List.of(first, tight),
+                ItinerarySearch.findEarliestArrival("Melbourne", "Perth", at("07:00"), Duration.ofMinutes(15)));
+    }
+
+    @Test
+    @DisplayName("Flights before the requested time and unreachable cities give no itinerary")
+    void testNoItinerary() {
+        addFlight("Melbourne", "Perth", "06:00", "09:00");
+        addFlight("Sydney", "Darwin", "10:00", "14:00");
+
+        assertTrue(ItinerarySearch.findEarliestArrival("Melbourne", "Perth", at("07:00")).isEmpty());
+        assertTrue(ItinerarySearch.findEarliestArrival("Melbourne", "Darwin", at("00:00")).isEmpty());
+        assertThrows(IllegalArgumentException.class,
+                () -> ItinerarySearch.findEarliestArrival("Melbourne", "Perth", at("07:00"), Duration.ofMinutes(-1)));
+    }
+
+    @Test
+    @DisplayName("Earliest arrival over a large schedule")
+    void testLargeSchedule() {
+        String[] cities = new String[200];
+        for (int i = 0; i < cities.length; i++) {
+            cities[i] = "City" + i;
+        }
+        // a chain City0 -> City1 -> ... with 50 daily departures on every leg
+        long base = at("00:00").getTime();
+        List<FlightLoader.Row> rows = new ArrayList<>();
+        int id = 1;
+        for (int i = 0; i + 1 < cities.length; i++) {
+            for (int day = 0; day < 50; day++) {
+                long departure = base + day * 86_400_000L + i * 60_000L;
+                rows.add(new FlightLoader.Row(id++, cities[i + 1], cities[i], "C" + id, "Quantas",
+                        new Timestamp(departure), new Timestamp(departure + 3_600_000L), airplane));
+            }
+        }
+        FlightLoader.load(rows);
+
+        List<Flight> itinerary = ItinerarySearch.findEarliestArrival("City0", "City3", at("00:00"));
+
+        assertEquals(3, itinerary.size());
+        assertEquals("City0", itinerary.get(0).getDepartFrom());
+        assertEquals("City3", itinerary.get(2).getDepartTo());
+        for (int i = 0; i + 1 < itinerary.size(); i++) {
+            assertTrue(itinerary.get(i + 1).getDateFrom().getTime()
+                    >= itinerary.get(i).getDateTo().getTime() + ItinerarySearch.DEFAULT_MIN_CONNECTION.toMillis());
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package assessment;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the fixed-point fare rules {@link PricingEngine}.
+ */
+public class PricingEngineTest {
+
+    // What Ticket.setPrice used to do with doubles
+    private static int legacyPrice(int price, int age) {
+        if (age < 15) {
+            price -= (int) (price * 0.5);
+        } else if (age >= 60) {
+            price = 0;
+        }
+        return (int) (price * 1.12);
+    }
+
+    @Test
+    @DisplayName("Standard rules give the same prices as the old double arithmetic")
+    void testStandardMatchesLegacy() {
+        for (int price = 0; price <= 20_000; price++) {
+            for (int age : new int[]{1, 14, 15, 30, 59, 60, 90}) {
+                assertEquals(legacyPrice(price, age), PricingEngine.STANDARD.quote(price, age, false),
+                        "price " + price + ", age " + age);
+            }
+        }
+        assertEquals(1120, PricingEngine.STANDARD.quote(1000, 30, true));
+        assertEquals(560, PricingEngine.STANDARD.quote(1000, 10, false));
+        assertEquals(0, PricingEngine.STANDARD.quote(1000, 65, false));
+    }
+
+    @Test
+    @DisplayName("Quoting is pure: the same inputs always give the same price")
+    void testQuoteIsPure() {
+        int first = PricingEngine.STANDARD.quote(1234, 30, false);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(first, PricingEngine.STANDARD.quote(1234, 30, false));
+        }
+    }
+
+    @Test
+    @DisplayName("Custom bands and class surcharges apply before tax")
+    void testCustomRules() {
+        PricingEngine engine = PricingEngine.builder()
+                .ageBand(0, 1, PricingEngine.BASIS_POINTS)
+                .ageBand(2, 11, 2_500)
+                .ageBand(65, Integer.MAX_VALUE, 1_000)
+                .businessSurcharge(5_000)
+                .economySurcharge(0)
+                .taxRate(1_000)
+                .build();
+
+        assertEquals(0, engine.quote(1000, 1, true));
+        assertEquals(825, engine.quote(1000, 5, false));        // 1000 - 25% = 750, + 10% tax
+        assertEquals(1650, engine.quote(1000, 30, true));       // + 50% = 1500, + 10% tax
+        assertEquals(990, engine.quote(1000, 200, false));      // oldest band, + 10% tax
+        assertEquals(0, engine.quote(1000, -3, false), "Negative ages use the youngest band");
+    }
+
+    @Test
+    @DisplayName("Load bands add a surcharge by how full the cabin is")
+    void testLoadBands() {
+        PricingEngine engine = PricingEngine.builder()
+                .loadBand(50, 100, 1_000)
+                .loadBand(90, 100, 5_000)
+                .taxRate(1_000)
+                .build();
+
+        assertEquals(1100, engine.quote(1000, 30, false, 4_999));    // under half full, tax only
+        assertEquals(1210, engine.quote(1000, 30, false, 5_000));    // + 10% = 1100, + 10% tax
+        assertEquals(1650, engine.quote(1000, 30, true, 9_000));     // + 50% = 1500, + 10% tax
+        assertEquals(1650, engine.quote(1000, 30, true, 20_000), "Load factors above full count as full");
+        assertEquals(1100, engine.quote(1000, 30, false, -5), "Negative load factors count as empty");
+        assertEquals(1100, engine.quote(1000, 30, false), "Static quotes ignore load bands");
+        assertEquals(PricingEngine.STANDARD.quote(1000, 30, false),
+                PricingEngine.STANDARD.quote(1000, 30, false, PricingEngine.BASIS_POINTS));
+    }
+
+    @Test
+    @DisplayName("Invalid fares and rates are rejected")
+    void testValidation() {
+        assertThrows(IllegalArgumentException.class, () -> PricingEngine.STANDARD.quote(-1, 30, false));
+        assertThrows(IllegalArgumentException.class, () -> PricingEngine.STANDARD.quote(Integer.MAX_VALUE, 30, false));
+        assertThrows(IllegalArgumentException.class, () -> PricingEngine.builder().ageBand(10, 5, 100));
+        assertThrows(IllegalArgumentException.class, () -> PricingEngine.builder().ageBand(0, 5, 10_001));
+        assertThrows(IllegalArgumentException.class, () -> PricingEngine.builder().taxRate(-1));
+        assertThrows(IllegalArgumentException.class, () -> PricingEngine.builder().loadBand(50, 101, 100));
+        assertThrows(IllegalArgumentException.class, () -> PricingEngine.builder().loadBand(60, 50, 100));
+        assertThrows(IllegalArgumentException.class, () -> PricingEngine.builder().businessSurcharge(PricingEngine.MAX_RATE + 1));
+    }
+
+    @Test
+    @DisplayName("Quotes at the largest fare and rates are refused rather than overflowing")
+    void testExtremeRates() {
+        PricingEngine engine = PricingEngine.builder()
+                .businessSurcharge(PricingEngine.MAX_RATE)
+                .loadBand(0, 100, PricingEngine.MAX_RATE)
+                .taxRate(PricingEngine.MAX_RATE)
+                .build();
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> engine.quote(Integer.MAX_VALUE, 30, true, PricingEngine.BASIS_POINTS));
+        assertEquals("Price is too large", e.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> engine.applyTax(Integer.MAX_VALUE));
+        assertEquals(101, engine.applyTax(1));
+        assertEquals(Integer.MAX_VALUE, PricingEngine.STANDARD.discountByAge(Integer.MAX_VALUE, 30));
+        assertEquals(Integer.MAX_VALUE / 2 + 1, PricingEngine.STANDARD.discountByAge(Integer.MAX_VALUE, 10));
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Quote throughput")
+    void testQuoteThroughput(TestReporter reporter) {
+        int quotes = Integer.getInteger("pricing.bench.quotes", 10_000_000);
+        PricingEngine engine = PricingEngine.STANDARD;
+        long sum = 0;
+        for (int i = 0; i < 100_000; i++) {
+            sum += engine.quote(i & 0xFFFF, i % 100, (i & 1) == 0); // warm up
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < quotes; i++) {
+            sum += engine.quote(i & 0xFFFF, i % 100, (i & 1) == 0);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        assertTrue(sum > 0);
+        reporter.publishEntry("quotes", String.format("%d quotes in %.1f ms (%.0f quotes/s)",
+                quotes, elapsed / 1e6, quotes / (elapsed / 1e9)));
+    }
+}
@@ -0,0 +1,151 @@
+package assessment;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the multi-hop route search {@link RouteEngine}.
+ */
+public class RouteEngineTest {
+
+    private Airplane airplane;
+    private Passenger passenger;
+    private int nextFlightId;
+
+    @BeforeEach
+    void setUp() {
+        FlightCollection.flights = new ArrayList<>();
+        TicketCollection.tickets = new ArrayList<>();
+        airplane = new Airplane(3001, "Airbus A320", 7, 42, 6);
+        passenger = new Passenger("Mia", "Jones", 30, "Woman", "mia@example.com", "+61 412345678",
+                "P1234567", "4111111111111111", 123);
+        nextFlightId = 1;
+
+        // Melbourne -> Sydney -> Brisbane -> Cairns, plus Melbourne -> Adelaide -> Brisbane and Sydney -> Melbourne
+        addFlight("Melbourne", "Sydney");
+        addFlight("Sydney", "Brisbane");
+        addFlight("Brisbane", "Cairns");
+        addFlight("Melbourne", "Adelaide");
+        addFlight("Adelaide", "Brisbane");
+        addFlight("Sydney", "Melbourne");
+    }
+
+    private Flight addFlight(String from, String to) {
+        // each flight leaves three hours after the previous one and takes two hours
+        Timestamp departure = new Timestamp(Timestamp.valueOf("2025-08-01 08:00:00").getTime() + (nextFlightId - 1) * 3 * 3_600_000L);
+        return addFlight(from, to, departure, new Timestamp(departure.getTime() + 2 * 3_600_000L));
+    }
+
+    private Flight addFlight(String from, String to, Timestamp departure, Timestamp arrival) {
+        Flight flight = new Flight(nextFlightId, to, from, "QF" + nextFlightId, "Quantas", departure, arrival, airplane);
+        nextFlightId++;
+        FlightCollection.addFlights(new ArrayList<>(List.of(flight)));
+        return flight;
+    }
+
+    private Ticket addTicket(int ticketId, Flight flight) {
+        Ticket ticket = new Ticket(ticketId, 100, flight, false, passenger);
+        TicketCollection.addTickets(new ArrayList<>(List.of(ticket)));
+        return ticket;
+    }
+
+    @Test
+    @DisplayName("Direct and one-stop routes are found, fewest legs first")
+    void testFindOneStopRoutes() {
+        List<List<String>> routes = RouteEngine.findRoutes("Melbourne", "Brisbane", 1);
+
+        assertEquals(2, routes.size());
+        assertTrue(routes.contains(List.of("Melbourne", "Sydney", "Brisbane")));
+        assertTrue(routes.contains(List.of("Melbourne", "Adelaide", "Brisbane")));
+
+        assertEquals(List.of(List.of("Melbourne", "Sydney")), RouteEngine.findRoutes("Melbourne", "Sydney", 1));
+    }
+
+    @Test
+    @DisplayName("Transfer limit bounds the number of legs")
+    void testTransferLimit() {
+        assertTrue(RouteEngine.findRoutes("Melbourne", "Cairns", 1).isEmpty());
+
+        List<List<String>> routes = RouteEngine.findRoutes("Melbourne", "Cairns", 2);
+        assertEquals(2, routes.size());
+        assertTrue(routes.contains(List.of("Melbourne", "Sydney", "Brisbane", "Cairns")));
+        assertTrue(routes.contains(List.of("Melbourne", "Adelaide", "Brisbane", "Cairns")));
+    }
+
+    @Test
+    @DisplayName("Routes never revisit a city and unknown cities have no routes")
+    void testNoCyclesAndUnknownCities() {
+        for (List<String> route : RouteEngine.findRoutes("Sydney", "Cairns", 3)) {
+            assertEquals(route.size(), route.stream().distinct().count());
+        }
+        assertTrue(RouteEngine.findRoutes("Darwin", "Cairns", 3).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> RouteEngine.findRoutes("Melbourne", "Cairns", -1));
+    }
+
+    @Test
+    @DisplayName("The graph follows flights added after a search")
+    void testGraphFollowsCollection() {
+        assertTrue(RouteEngine.findRoutes("Cairns", "Darwin", 1).isEmpty());
+
+        addFlight("Cairns", "Darwin");
+
+        assertEquals(List.of(List.of("Cairns", "Darwin")), RouteEngine.findRoutes("Cairns", "Darwin", 1));
+    }
+
+    @Test
+    @DisplayName("One unsold ticket is picked per leg, or none when a leg is sold out")
+    void testFindAvailableTickets() {
+        Ticket firstLeg = addTicket(10, FlightCollection.getFlightInfo(1));
+        Ticket secondLeg = addTicket(20, FlightCollection.getFlightInfo(2));
+        List<String> route = List.of("Melbourne", "Sydney", "Brisbane");
+
+        assertEquals(List.of(firstLeg, secondLeg), RouteEngine.findAvailableTickets(route));
+
+        secondLeg.setTicketStatus(true);
+        assertTrue(RouteEngine.findAvailableTickets(route).isEmpty());
+    }
+
+    @Test
+    @DisplayName("A leg that leaves before the previous one lands is not picked")
+    void testFindAvailableTicketsRespectsConnections() {
+        addTicket(10, FlightCollection.getFlightInfo(1));                    // Melbourne -> Sydney, lands 10:00
+        Flight tooEarly = addFlight("Sydney", "Brisbane",
+                Timestamp.valueOf("2025-08-01 10:15:00"), Timestamp.valueOf("2025-08-01 12:00:00"));
+        addTicket(30, tooEarly);
+        List<String> route = List.of("Melbourne", "Sydney", "Brisbane");
+
+        assertTrue(RouteEngine.findAvailableTickets(route).isEmpty());
+
+        Ticket connecting = addTicket(20, FlightCollection.getFlightInfo(2)); // leaves 11:00
+        assertEquals(connecting, RouteEngine.findAvailableTickets(route).get(1));
+    }
+
+    @Test
+    @DisplayName("An earlier-landing flight is picked when the first one misses every connection")
+    void testFindAvailableTicketsBacktracks() {
+        Ticket late = addTicket(10, FlightCollection.getFlightInfo(1));     // Melbourne -> Sydney, lands 10:00
+        Flight early = addFlight("Melbourne", "Sydney",
+                Timestamp.valueOf("2025-08-01 05:00:00"), Timestamp.valueOf("2025-08-01 06:00:00"));
+        Ticket earlyTicket = addTicket(11, early);
+        Flight morning = addFlight("Sydney", "Brisbane",
+                Timestamp.valueOf("2025-08-01 07:00:00"), Timestamp.valueOf("2025-08-01 09:00:00"));
+        Ticket connecting = addTicket(30, morning);
+        List<String> route = List.of("Melbourne", "Sydney", "Brisbane");
+
+        // flight 2 leaves at 11:00 but has nothing to sell, so only the 07:00 departure connects
+        assertEquals(List.of(earlyTicket, connecting), RouteEngine.findAvailableTickets(route));
+
+        earlyTicket.setTicketStatus(true);
+        assertTrue(RouteEngine.findAvailableTickets(route).isEmpty());
+
+        Ticket later = addTicket(20, FlightCollection.getFlightInfo(2));
+        assertEquals(List.of(late, later), RouteEngine.findAvailableTickets(route));
+    }
+}
@@ -0,0 +1,172 @@
+package assessment;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ticket and seat holds {@link SeatHolds}.
+ */
+public class SeatHoldsTest {
+
+    private MutableClock clock;
+    private SeatHolds holds;
+    private Passenger passenger;
+    private Airplane airplane;
+    private Ticket ticket;
+
+    // A clock the test moves by hand
+    private static class MutableClock extends Clock {
+        long millis = 1_000_000;
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        FlightCollection.flights = new ArrayList<>();
+        TicketCollection.tickets = new ArrayList<>();
+        clock = new MutableClock();
+        holds = new SeatHolds(Duration.ofSeconds(1), 64, clock);
+        passenger = new Passenger("Mia", "Jones", 30, "Woman", "mia@example.com", "+61 412345678",
+                "P1234567", "4111111111111111", 123);
+        passenger.setAge(30);
+        airplane = new Airplane(5001, "Airbus A320", 7, 42, 6);
+        Flight flight = new Flight(1, "Sydney", "Melbourne", "QF1", "Quantas",
+                Timestamp.valueOf("2025-08-01 08:00:00"), Timestamp.valueOf("2025-08-01 09:30:00"), airplane);
+        FlightCollection.addFlights(new ArrayList<>(List.of(flight)));
+        ticket = new Ticket(10, 1000, flight, false, passenger);
+        TicketCollection.addTickets(new ArrayList<>(List.of(ticket)));
+    }
+
+    @Test
+    @DisplayName("A hold takes the seat and hides the ticket until it expires")
+    void testHoldExpires() {
+        SeatHold hold = holds.hold(10, Duration.ofMinutes(5));
+
+        assertTrue(ticket.isHeld());
+        assertEquals(41, airplane.getEconomySitsNumber());
+        assertEquals("B1", ticket.getSeat()); // economy starts after the seven business seats
+        assertTrue(airplane.isSeatTaken("B1"));
+        assertTrue(TicketCollection.getAvailableTickets(1).isEmpty());
+        Exception exception = assertThrows(IllegalStateException.class,
+                () -> BookingService.book(new BookingRequest(passenger, 10)));
+        assertEquals("Ticket 10 is on hold", exception.getMessage());
+        assertThrows(IllegalStateException.class, () -> holds.hold(10, Duration.ofMinutes(5)));
+
+        clock.millis += Duration.ofMinutes(5).toMillis() - 1;
+        assertEquals(0, holds.expireDue());
+        clock.millis += 1000;
+        assertEquals(1, holds.expireDue());
+
+        assertFalse(ticket.isHeld());
+        assertEquals(42, airplane.getEconomySitsNumber());
+        assertNull(ticket.getSeat());
+        assertEquals(0, airplane.getAssignedSeatCount());
+        assertEquals(List.of(ticket), TicketCollection.getAvailableTickets(1));
+        assertEquals(0, holds.size());
+        assertFalse(holds.release(hold));
+    }
+
+    @Test
+    @DisplayName("Confirming a hold books the ticket on the seat already reserved")
+    void testConfirm() {
+        SeatHold hold = holds.hold(10, Duration.ofMinutes(5));
+        clock.millis += Duration.ofMinutes(4).toMillis();
+
+        BookingReceipt receipt = holds.confirm(hold, passenger);
+
+        assertEquals(1120, receipt.getTotalPrice());
+        assertTrue(ticket.ticketStatus());
+        assertFalse(ticket.isHeld());
+        assertEquals(41, airplane.getEconomySitsNumber());
+        assertEquals("B1", ticket.getSeat());
+        assertEquals(1, airplane.getAssignedSeatCount());
+        clock.millis += Duration.ofMinutes(10).toMillis();
+        assertEquals(0, holds.expireDue()); // the confirmed hold is no longer in the wheel
+        assertThrows(IllegalStateException.class, () -> holds.confirm(hold, passenger));
+    }
+
+    @Test
+    @DisplayName("A hold whose sale fails ends and gives its seat back")
+    void testFailedConfirmReleasesSeat() {
+        Ticket dear = new Ticket(11, Integer.MAX_VALUE, ticket.getFlight(), false, passenger); // quote overflows
+        TicketCollection.addTickets(new ArrayList<>(List.of(dear)));
+        SeatHold hold = holds.hold(11, Duration.ofMinutes(5));
+        assertEquals(41, airplane.getEconomySitsNumber());
+
+        assertThrows(IllegalArgumentException.class, () -> holds.confirm(hold, passenger));
+
+        assertFalse(dear.ticketStatus());
+        assertFalse(dear.isHeld());
+        assertNull(dear.getSeat());
+        assertEquals(0, airplane.getAssignedSeatCount());
+        assertEquals(42, airplane.getEconomySitsNumber());
+        assertEquals(0, holds.size());
+        assertEquals(2, TicketCollection.getAvailableTickets(1).size());
+        assertFalse(holds.release(hold));
+    }
+
+    @Test
+    @DisplayName("A hold past its time cannot be confirmed even before the wheel sweeps it")
+    void testConfirmAfterExpiry() {
+        SeatHold hold = holds.hold(10, Duration.ofMinutes(5));
+        clock.millis += Duration.ofMinutes(5).toMillis();
+
+        Exception exception = assertThrows(IllegalStateException.class, () -> holds.confirm(hold, passenger));
+        assertEquals("Hold on ticket 10 has expired", exception.getMessage());
+        assertFalse(ticket.ticketStatus());
+        assertFalse(ticket.isHeld());
+        assertEquals(42, airplane.getEconomySitsNumber());
+    }
+
+    @Test
+    @DisplayName("Releasing a hold returns the ticket and seat at once")
+    void testRelease() {
+        SeatHold hold = holds.hold(10, Duration.ofMinutes(5));
+
+        assertTrue(holds.release(hold));
+        assertFalse(holds.release(hold));
+        assertEquals(42, airplane.getEconomySitsNumber());
+        assertNotNull(BookingService.book(new BookingRequest(passenger, 10)));
+    }
+
+    @Test
+    @DisplayName("The background ticker expires holds on its own")
+    void testBackgroundExpiry() throws Exception {
+        try (SeatHolds live = new SeatHolds(Duration.ofMillis(10), 64, Clock.systemUTC())) {
+            live.start();
+            live.hold(10, Duration.ofMillis(30));
+            long deadline = System.currentTimeMillis() + 5000;
+            while (ticket.isHeld() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertFalse(ticket.isHeld());
+            assertEquals(42, airplane.getEconomySitsNumber());
+        }
+    }
+}
@@ -2,13 +2,19 @@ package assessment;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
 import org.mockito.Mock;
+import org.mockito.MockedStatic;
 import org.mockito.MockitoAnnotations;
 
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -202,4 +208,343 @@ public class TicketCollectionTest {
         assertNotNull(result);
         assertTrue(result.isEmpty());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Get ticket by ID - tickets added through addTickets")
+    void testGetTicketInfo_AfterAddTickets() {
+        // Arrange
+        TicketCollection.addTickets(testTickets);
+
+        // Act & Assert
+        assertSame(mockTicket1, TicketCollection.getTicketInfo(1));
+        assertSame(mockTicket2, TicketCollection.getTicketInfo(2));
+        assertNull(TicketCollection.getTicketInfo(3));
+    }
+
+    @Test
+    @DisplayName("Get ticket by ID - duplicate IDs resolve to the first ticket")
+    void testGetTicketInfo_DuplicateIds() {
+        // Arrange
+        when(mockTicket2.getTicket_id()).thenReturn(1);
+        TicketCollection.tickets = testTickets;
+
+        // Act & Assert
+        assertSame(mockTicket1, TicketCollection.getTicketInfo(1));
+    }
+
+    @Test
+    @DisplayName("Get ticket by ID - follows a ticket whose ID changes")
+    void testGetTicketInfo_AfterIdChange() {
+        // Arrange
+        Ticket ticket = new Ticket(10, 100, mockFlight, false, mockPassenger);
+        ArrayList<Ticket> realTickets = new ArrayList<>();
+        realTickets.add(ticket);
+        TicketCollection.addTickets(realTickets);
+        assertSame(ticket, TicketCollection.getTicketInfo(10));
+
+        // Act
+        ticket.setTicket_id(11);
+
+        // Assert
+        assertNull(TicketCollection.getTicketInfo(10));
+        assertSame(ticket, TicketCollection.getTicketInfo(11));
+    }
+
+    @Test
+    @DisplayName("Get ticket by ID - lookups stay correct while tickets are added and the index grows")
+    void testGetTicketInfo_ConcurrentWithAdds() throws Exception {
+        // Arrange
+        Ticket first = new Ticket(1, 100, mockFlight, false, mockPassenger);
+        TicketCollection.addTickets(new ArrayList<>(List.of(first)));
+        AtomicBoolean adding = new AtomicBoolean(true);
+        AtomicInteger wrong = new AtomicInteger();
+        Thread reader = new Thread(() -> {
+            while (adding.get()) {
+                if (TicketCollection.getTicketInfo(1) != first) {
+                    wrong.incrementAndGet();
+                }
+            }
+        });
+
+        // Act - every batch can rehash the index under the reader
+        reader.start();
+        for (int batch = 0; batch < 200; batch++) {
+            ArrayList<Ticket> more = new ArrayList<>();
+            for (int i = 0; i < 500; i++) {
+                more.add(new Ticket(2 + batch * 500 + i, 100, mockFlight, false, mockPassenger));
+            }
+            TicketCollection.addTickets(more);
+        }
+        adding.set(false);
+        reader.join();
+
+        // Assert
+        assertEquals(0, wrong.get());
+        assertEquals(100_001, TicketCollection.getTicketInfo(100_001).getTicket_id());
+        TicketCollection.tickets = new ArrayList<>();
+    }
+
+    @Test
+    @DisplayName("Available tickets - split by class and limited to one flight")
+    void testGetAvailableTickets_ByFlightAndClass() {
+        // Arrange
+        Flight otherFlight = mock(Flight.class);
+        when(mockFlight.getFlightID()).thenReturn(7);
+        when(otherFlight.getFlightID()).thenReturn(8);
+        Ticket economy = new Ticket(20, 100, mockFlight, false, mockPassenger);
+        Ticket business = new Ticket(21, 300, mockFlight, true, mockPassenger);
+        Ticket elsewhere = new Ticket(22, 100, otherFlight, false, mockPassenger);
+        TicketCollection.addTickets(new ArrayList<>(List.of(economy, business, elsewhere)));
+
+        // Act & Assert
+        assertEquals(List.of(economy), TicketCollection.getAvailableTickets(7, false));
+        assertEquals(List.of(business), TicketCollection.getAvailableTickets(7, true));
+        assertEquals(2, TicketCollection.getAvailableTickets(7).size());
+        assertEquals(List.of(elsewhere), TicketCollection.getAvailableTickets(8));
+        assertTrue(TicketCollection.getAvailableTickets(9).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Available tickets - follow status, class and flight changes")
+    void testGetAvailableTickets_FollowChanges() {
+        // Arrange
+        Flight otherFlight = mock(Flight.class);
+        when(mockFlight.getFlightID()).thenReturn(7);
+        when(otherFlight.getFlightID()).thenReturn(8);
+        Ticket ticket = new Ticket(30, 100, mockFlight, false, mockPassenger);
+        TicketCollection.addTickets(new ArrayList<>(List.of(ticket)));
+        assertEquals(List.of(ticket), TicketCollection.getAvailableTickets(7, false));
+
+        // Act & Assert - sold tickets disappear and come back when released
+        ticket.setTicketStatus(true);
+        assertTrue(TicketCollection.getAvailableTickets(7).isEmpty());
+        ticket.setTicketStatus(false);
+        assertEquals(List.of(ticket), TicketCollection.getAvailableTickets(7, false));
+
+        // Act & Assert - class and flight changes move the ticket
+        ticket.setClassVip(true);
+        assertEquals(List.of(ticket), TicketCollection.getAvailableTickets(7, true));
+        assertTrue(TicketCollection.getAvailableTickets(7, false).isEmpty());
+        ticket.setFlight(otherFlight);
+        assertTrue(TicketCollection.getAvailableTickets(7).isEmpty());
+        assertEquals(List.of(ticket), TicketCollection.getAvailableTickets(8, true));
+    }
+
+    @Test
+    @DisplayName("Available tickets - a change the journal refuses is not made")
+    void testGetAvailableTickets_RefusedChange() {
+        // Arrange
+        when(mockFlight.getFlightID()).thenReturn(7);
+        Ticket ticket = new Ticket(31, 100, mockFlight, false, mockPassenger);
+        TicketCollection.addTickets(new ArrayList<>(List.of(ticket)));
+        assertEquals(List.of(ticket), TicketCollection.getAvailableTickets(7, false));
+
+        // Act
+        try (MockedStatic<BookingJournal> journal = mockStatic(BookingJournal.class, CALLS_REAL_METHODS)) {
+            journal.when(() -> BookingJournal.ticketChanged(ticket))
+                    .thenThrow(new IllegalStateException("Booking journal could not be written"));
+            assertThrows(IllegalStateException.class, () -> ticket.setTicketStatus(true));
+            assertThrows(IllegalStateException.class, () -> ticket.setClassVip(true));
+        }
+
+        // Assert
+        assertFalse(ticket.ticketStatus());
+        assertFalse(ticket.getClassVip());
+        assertEquals(List.of(ticket), TicketCollection.getAvailableTickets(7, false));
+    }
+
+    @Test
+    @DisplayName("Available tickets - concurrent sales on different flights keep every flight's count right")
+    void testGetAvailableTickets_ConcurrentSales() throws Exception {
+        // Arrange
+        int flights = 4;
+        int perFlight = 2_000;
+        ArrayList<Ticket> inventory = new ArrayList<>();
+        for (int f = 0; f < flights; f++) {
+            Flight flight = Flight.createValidated(100 + f, "Sydney", "Melbourne", "QF" + f, "Quantas", null, null, null);
+            for (int i = 0; i < perFlight; i++) {
+                inventory.add(new Ticket(f * perFlight + i, 100, flight, i % 4 == 0, mockPassenger));
+            }
+        }
+        TicketCollection.addTickets(inventory);
+        AtomicInteger wrong = new AtomicInteger();
+        List<Thread> sellers = new ArrayList<>();
+        for (int f = 0; f < flights; f++) {
+            int flightId = 100 + f;
+            sellers.add(new Thread(() -> {
+                for (Ticket ticket : TicketCollection.getAvailableTickets(flightId)) {
+                    int before = TicketCollection.countAvailable(flightId, ticket.getClassVip());
+                    ticket.setTicketStatus(true);
+                    if (TicketCollection.countAvailable(flightId, ticket.getClassVip()) != before - 1) {
+                        wrong.incrementAndGet();
+                    }
+                }
+            }));
+        }
+
+        // Act - a sale must not need a monitor another thread is holding
+        synchronized (TicketCollection.class) {
+            for (Thread seller : sellers) {
+                seller.start();
+            }
+            for (Thread seller : sellers) {
+                seller.join(10_000);
+            }
+        }
+
+        // Assert
+        assertEquals(0, wrong.get());
+        for (int f = 0; f < flights; f++) {
+            assertTrue(TicketCollection.getAvailableTickets(100 + f).isEmpty());
+        }
+        TicketCollection.tickets = new ArrayList<>();
+    }
+
+    @Test
+    @DisplayName("Available tickets - sold tickets in a replaced list are skipped")
+    void testGetAvailableTickets_ReplacedList() {
+        // Arrange
+        when(mockFlight.getFlightID()).thenReturn(7);
+        when(mockTicket1.ticketStatus()).thenReturn(true);
+        when(mockTicket2.ticketStatus()).thenReturn(false);
+        TicketCollection.tickets = testTickets;
+
+        // Act & Assert
+        assertEquals(List.of(mockTicket2), TicketCollection.getAvailableTickets(7));
+    }
+
+    @Test
+    @DisplayName("Repricing - only unsold, unheld tickets on the given flights change")
+    void testRepriceUnsold() {
+        // Arrange
+        Flight otherFlight = mock(Flight.class);
+        when(mockFlight.getFlightID()).thenReturn(7);
+        when(otherFlight.getFlightID()).thenReturn(8);
+        Ticket unsold = new Ticket(40, 1000, mockFlight, false, mockPassenger);
+        Ticket business = new Ticket(41, 3000, mockFlight, true, mockPassenger);
+        Ticket sold = new Ticket(42, 1000, mockFlight, false, mockPassenger);
+        Ticket held = new Ticket(43, 1000, mockFlight, false, mockPassenger);
+        Ticket elsewhere = new Ticket(44, 1000, otherFlight, false, mockPassenger);
+        TicketCollection.addTickets(new ArrayList<>(List.of(unsold, business, sold, held, elsewhere)));
+        sold.setTicketStatus(true);
+        held.setHeld(true);
+
+        // Act - a 10% fare rise on flight 7, listed twice
+        int repriced = TicketCollection.repriceUnsold(new int[]{7, 7, 99}, fare -> fare * 110 / 100);
+
+        // Assert
+        assertEquals(2, repriced);
+        assertEquals(1100, unsold.getPrice());
+        assertEquals(1100, unsold.getBaseFare());
+        assertEquals(3300, business.getPrice());
+        assertEquals(1000, sold.getPrice());
+        assertEquals(1000, held.getPrice());
+        assertEquals(1000, elsewhere.getPrice());
+    }
+
+    @Test
+    @DisplayName("Repricing - fares the journal refuses are not set, on any ticket of the flight")
+    void testRepriceRefusedByJournal() {
+        // Arrange
+        when(mockFlight.getFlightID()).thenReturn(7);
+        Ticket cheap = new Ticket(48, 1000, mockFlight, false, mockPassenger);
+        Ticket dear = new Ticket(49, 2000, mockFlight, false, mockPassenger);
+        TicketCollection.addTickets(new ArrayList<>(List.of(cheap, dear)));
+
+        // Act
+        try (MockedStatic<BookingJournal> journal = mockStatic(BookingJournal.class, CALLS_REAL_METHODS)) {
+            journal.when(() -> BookingJournal.ticketsRepriced(any(), any()))
+                    .thenThrow(new IllegalStateException("Booking journal could not be written"));
+            assertThrows(IllegalStateException.class, () -> TicketCollection.repriceUnsold(new int[]{7}, fare -> fare * 2));
+        }
+
+        // Assert
+        assertEquals(1000, cheap.getBaseFare());
+        assertEquals(2000, dear.getBaseFare());
+    }
+
+    @Test
+    @DisplayName("Adding tickets - a batch the journal refuses is not added")
+    void testAddTicketsRefusedByJournal() {
+        // Arrange
+        when(mockFlight.getFlightID()).thenReturn(7);
+        Ticket ticket = new Ticket(50, 1000, mockFlight, false, mockPassenger);
+
+        // Act
+        try (MockedStatic<BookingJournal> journal = mockStatic(BookingJournal.class, CALLS_REAL_METHODS)) {
+            journal.when(() -> BookingJournal.ticketsAdded(any()))
+                    .thenThrow(new IllegalStateException("Booking journal could not be written"));
+            assertThrows(IllegalStateException.class, () -> TicketCollection.addTickets(new ArrayList<>(List.of(ticket))));
+        }
+
+        // Assert
+        assertTrue(TicketCollection.getTickets().isEmpty());
+        assertTrue(TicketCollection.getAvailableTickets(7).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Repricing - a negative fare is rejected and the flight keeps its fares")
+    void testRepriceRejectsNegativeFare() {
+        // Arrange
+        when(mockFlight.getFlightID()).thenReturn(7);
+        Ticket ticket = new Ticket(45, 1000, mockFlight, false, mockPassenger);
+        TicketCollection.addTickets(new ArrayList<>(List.of(ticket)));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> TicketCollection.repriceUnsold(new int[]{7}, fare -> -1));
+        assertEquals(1000, ticket.getPrice());
+    }
+
+    @Test
+    @DisplayName("Repricing - one bad fare leaves every ticket on the flight at its old fare")
+    void testRepriceRejectsMixedFares() {
+        // Arrange
+        when(mockFlight.getFlightID()).thenReturn(7);
+        Ticket cheap = new Ticket(46, 1000, mockFlight, false, mockPassenger);
+        Ticket dear = new Ticket(47, 2000, mockFlight, false, mockPassenger);
+        TicketCollection.addTickets(new ArrayList<>(List.of(cheap, dear)));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> TicketCollection.repriceUnsold(new int[]{7}, fare -> fare == 2000 ? -1 : fare * 2));
+        assertEquals(1000, cheap.getBaseFare());
+        assertEquals(2000, dear.getBaseFare());
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Repricing - throughput over a large inventory")
+    void testRepriceThroughput(TestReporter reporter) {
+        // Arrange - 100 tickets per flight, a fifth of them sold
+        int count = Integer.getInteger("reprice.bench.tickets", 10_000_000);
+        Passenger passenger = new Passenger();
+        ArrayList<Ticket> inventory = new ArrayList<>(count);
+        int[] flightIds = new int[(count + 99) / 100];
+        Flight flight = null;
+        for (int i = 0; i < count; i++) {
+            if (i % 100 == 0) {
+                int id = i / 100 + 1;
+                flightIds[id - 1] = id;
+                flight = Flight.createValidated(id, "Sydney", "Melbourne", "QF" + id, "Quantas", null, null, null);
+            }
+            Ticket ticket = Ticket.restore(i + 1, 1000, 1000, flight, i % 10 == 0, i % 5 == 0, false, passenger);
+            inventory.add(ticket);
+        }
+        TicketCollection.addTickets(inventory);
+
+        TicketCollection.repriceUnsold(flightIds, fare -> fare); // warm up without changing fares
+
+        // Act
+        long start = System.nanoTime();
+        int repriced = TicketCollection.repriceUnsold(flightIds, fare -> fare + fare / 20);
+        long elapsed = System.nanoTime() - start;
+
+        // Assert
+        assertEquals(count - (count + 4) / 5, repriced);
+        assertEquals(1050, inventory.get(1).getPrice());
+        assertEquals(1000, inventory.get(0).getPrice());
+        reporter.publishEntry("reprice", String.format("Repriced %d of %d tickets on %d flights in %.1f ms (%.0f tickets/s)",
+                repriced, count, flightIds.length, elapsed / 1e6, repriced / (elapsed / 1e9)));
+        TicketCollection.tickets = new ArrayList<>();
+    }
+}
@@ -0,0 +1,473 @@
+package assessment;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.mockito.MockedStatic;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the columnar ticket store {@link TicketStore} and its views.
+ */
+public class TicketStoreTest {
+
+    private Passenger passenger;
+    private Flight flight;
+    private Airplane airplane;
+
+    @BeforeEach
+    void setUp() {
+        reset();
+        passenger = new Passenger("Mia", "Jones", 30, "Woman", "mia@example.com", "+61 412345678",
+                "P1234567", "4111111111111111", 123);
+        passenger.setAge(30);
+        airplane = new Airplane(4001, "Airbus A320", 7, 42, 6);
+        flight = new Flight(1, "Sydney", "Melbourne", "QF1", "Quantas",
+                Timestamp.valueOf("2025-08-01 08:00:00"), Timestamp.valueOf("2025-08-01 09:30:00"), airplane);
+        FlightCollection.addFlights(new ArrayList<>(List.of(flight)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        reset();
+    }
+
+    private static void reset() {
+        TicketCollection.useStore(null);
+        FlightCollection.flights = new ArrayList<>();
+        TicketCollection.tickets = new ArrayList<>();
+    }
+
+    @Test
+    @DisplayName("Views read and write their row, and two views of a row agree")
+    void testViews() {
+        TicketStore store = new TicketStore();
+        int row = store.add(new Ticket(10, 1000, flight, true, passenger));
+
+        Ticket first = store.get(row);
+        Ticket second = store.find(10);
+        assertEquals(first, second);
+        assertEquals(10, first.getTicket_id());
+        assertEquals(1000, first.getPrice());
+        assertTrue(first.getClassVip());
+        assertSame(flight, first.getFlight());
+        assertSame(passenger, first.getPassenger());
+
+        first.setPrice(1000);
+        first.setTicketStatus(true);
+        assertEquals(1120, second.getPrice());
+        assertEquals(1000, second.getBaseFare());
+        assertTrue(second.ticketStatus());
+        assertThrows(IllegalArgumentException.class, () -> second.setPrice(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> store.get(1));
+    }
+
+    @Test
+    @DisplayName("Lookup by id finds the first row with an id and follows id changes")
+    void testFindById() {
+        TicketStore store = new TicketStore();
+        store.add(new Ticket(10, 1000, flight, false, passenger));
+        store.add(new Ticket(10, 2000, flight, false, passenger));
+        store.add(new Ticket(11, 3000, flight, false, passenger));
+
+        assertEquals(1000, store.find(10).getPrice());
+        assertNull(store.find(12));
+
+        store.get(2).setTicket_id(12);
+        assertNull(store.find(11));
+        assertEquals(3000, store.find(12).getPrice());
+    }
+
+    @Test
+    @DisplayName("Scans count, list and sum across chunk boundaries")
+    void testScans() {
+        checkScans(new TicketStore());
+    }
+
+    @Test
+    @DisplayName("Off-heap records give the same scan results as heap columns")
+    void testOffHeapScans() {
+        TicketStore store = TicketStore.offHeap();
+        assertTrue(store.isOffHeap());
+        checkScans(store);
+    }
+
+    private void checkScans(TicketStore store) {
+        Flight other = new Flight(2, "Brisbane", "Sydney", "QF2", "Quantas",
+                Timestamp.valueOf("2025-08-01 11:00:00"), Timestamp.valueOf("2025-08-01 12:30:00"), airplane);
+        int count = 40_000;
+        for (int i = 0; i < count; i++) {
+            store.add(Ticket.restore(i, 100, 100, i % 2 == 0 ? flight : other, i % 4 == 0, i % 3 == 0, i % 7 == 0, passenger));
+        }
+
+        int economy = 0;
+        int business = 0;
+        long revenue = 0;
+        for (int i = 0; i < count; i += 2) {
+            if (i % 3 == 0) {
+                revenue += 100;
+            } else if (i % 7 != 0) {
+                if (i % 4 == 0) {
+                    business++;
+                } else {
+                    economy++;
+                }
+            }
+        }
+        assertEquals(economy, store.countAvailable(1, false));
+        assertEquals(business, store.countAvailable(1, true));
+        assertEquals(business, store.available(1, true).size());
+        assertEquals(revenue, store.soldRevenue(1));
+        assertEquals(count, store.tickets().size());
+        assertEquals(count - 1, store.find(count - 1).getTicket_id());
+    }
+
+    @Test
+    @DisplayName("The free-row index follows sales, holds, class and flight changes")
+    void testFreeRowIndex() {
+        checkFreeRowIndex(new TicketStore());
+        checkFreeRowIndex(TicketStore.offHeap());
+    }
+
+    private void checkFreeRowIndex(TicketStore store) {
+        Flight other = new Flight(2, "Brisbane", "Sydney", "QF2", "Quantas",
+                Timestamp.valueOf("2025-08-01 11:00:00"), Timestamp.valueOf("2025-08-01 12:30:00"), airplane);
+        for (int i = 0; i < 6; i++) {
+            store.add(Ticket.restore(i, 100, 100, flight, i == 5, i == 4, false, passenger));
+        }
+        assertEquals(4, store.countAvailable(1, false));
+        assertEquals(1, store.countAvailable(1, true));
+
+        store.get(0).setTicketStatus(true);
+        store.get(1).setClassVip(true);
+        store.get(2).setFlight(other);
+        assertEquals(List.of(store.get(3)), store.available(1, false));
+        assertEquals(List.of(store.get(1), store.get(5)), store.available(1, true));
+        assertEquals(List.of(store.get(2)), store.available(2, false));
+
+        store.get(0).setTicketStatus(false);
+        store.get(4).setTicketStatus(false);
+        assertEquals(List.of(store.get(0), store.get(3), store.get(4)), store.available(1, false));
+
+        other.setFlightID(7);
+        store.invalidate();
+        assertEquals(0, store.countAvailable(2, false));
+        assertEquals(List.of(store.get(2)), store.available(7, false));
+        assertEquals(0, store.countAvailable(99, true));
+    }
+
+    @Test
+    @DisplayName("The unsold index keeps row order as it grows and rows leave and come back")
+    void testFreeRowIndexOrder() {
+        checkFreeRowIndexOrder(new TicketStore());
+        checkFreeRowIndexOrder(TicketStore.offHeap());
+    }
+
+    private void checkFreeRowIndexOrder(TicketStore store) {
+        for (int i = 0; i < 40; i++) {
+            store.add(Ticket.restore(i, 100, 100, flight, false, false, false, passenger));
+        }
+        for (int row = 0; row < 40; row += 3) {
+            store.get(row).setTicketStatus(true);
+        }
+        store.get(39).setTicketStatus(true);
+        store.get(0).setTicketStatus(false);
+        store.get(21).setTicketStatus(false);
+
+        List<Ticket> expected = new ArrayList<>();
+        for (int row = 0; row < 39; row++) {
+            if (row % 3 != 0 || row == 0 || row == 21) {
+                expected.add(store.get(row));
+            }
+        }
+        assertEquals(expected, store.available(1, false));
+        assertEquals(expected.size(), store.countAvailable(1, false));
+    }
+
+    @Test
+    @DisplayName("Scans running while rows are added across chunk boundaries see only whole chunks")
+    void testScanWhileAddingAcrossChunks() throws Exception {
+        checkScanWhileAdding(new TicketStore());
+        checkScanWhileAdding(TicketStore.offHeap());
+    }
+
+    private void checkScanWhileAdding(TicketStore store) throws Exception {
+        int count = 8 * TicketStore.CHUNK_SIZE + 10;
+        Ticket sold = Ticket.restore(1, 100, 100, flight, false, true, false, passenger);
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> scanners = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread scanner = new Thread(() -> {
+                try {
+                    long last = 0;
+                    while (!done.get()) {
+                        long revenue = store.soldRevenue(1);
+                        assertTrue(revenue >= last, "Revenue only grows while rows are added");
+                        last = revenue;
+                        store.repriceAvailable(1, fare -> fare);
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+            scanners.add(scanner);
+            scanner.start();
+        }
+        for (int i = 0; i < count; i++) {
+            store.add(sold);
+        }
+        done.set(true);
+        for (Thread scanner : scanners) {
+            scanner.join();
+        }
+
+        assertNull(failure.get(), () -> "Scan failed: " + failure.get());
+        assertEquals(100L * count, store.soldRevenue(1));
+    }
+
+    @Test
+    @DisplayName("Lookups by id running while rows are added find every row already added")
+    void testFindWhileAdding() throws Exception {
+        checkFindWhileAdding(new TicketStore());
+        checkFindWhileAdding(TicketStore.offHeap());
+    }
+
+    private void checkFindWhileAdding(TicketStore store) throws Exception {
+        int count = 2 * TicketStore.CHUNK_SIZE + 10;
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> readers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread reader = new Thread(() -> {
+                try {
+                    while (!done.get()) {
+                        int added = store.size();
+                        if (added > 0) {
+                            Ticket ticket = store.find(added - 1);
+                            assertNotNull(ticket, "Row " + (added - 1) + " was added before the lookup");
+                            assertEquals(added - 1, ticket.getTicket_id());
+                        }
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+            readers.add(reader);
+            reader.start();
+        }
+        for (int i = 0; i < count; i++) {
+            store.add(Ticket.restore(i, 100, 100, flight, false, false, false, passenger));
+        }
+        done.set(true);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        assertNull(failure.get(), () -> "Lookup failed: " + failure.get());
+        assertEquals(count - 1, store.find(count - 1).getTicket_id());
+    }
+
+    @Test
+    @DisplayName("The collection books, holds and reprices tickets kept in a store")
+    void testCollectionInStoreMode() {
+        checkCollection(new TicketStore());
+    }
+
+    @Test
+    @DisplayName("The collection books, holds and reprices tickets kept off the heap")
+    void testCollectionOffHeap() {
+        checkCollection(TicketStore.offHeap());
+    }
+
+    private void checkCollection(TicketStore store) {
+        TicketCollection.addTickets(new ArrayList<>(List.of(
+                new Ticket(10, 1000, flight, false, passenger),
+                new Ticket(11, 1000, flight, false, passenger))));
+        TicketCollection.useStore(store);
+        TicketCollection.addTickets(new ArrayList<>(List.of(new Ticket(12, 2000, flight, true, passenger))));
+
+        assertEquals(3, TicketCollection.getTickets().size());
+        assertEquals(2, TicketCollection.countAvailable(1, false));
+        BookingService.book(new BookingRequest(passenger, 10));
+        new SeatHolds().hold(11, Duration.ofMinutes(5));
+
+        assertTrue(TicketCollection.getTicketInfo(10).ticketStatus());
+        assertEquals("B1", TicketCollection.getTicketInfo(10).getSeat());
+        assertEquals("B2", TicketCollection.getTicketInfo(11).getSeat());
+        assertEquals(1120, TicketCollection.soldRevenue(1));
+        assertEquals(List.of(TicketCollection.getTicketInfo(12)), TicketCollection.getAvailableTickets(1));
+        assertEquals(1, TicketCollection.repriceUnsold(new int[]{1}, fare -> fare * 2));
+        assertEquals(4000, TicketCollection.getTicketInfo(12).getBaseFare());
+        assertEquals(1000, TicketCollection.getTicketInfo(11).getBaseFare());
+
+        TicketCollection.useStore(null);
+        assertEquals(3, TicketCollection.getTickets().size());
+        assertEquals(0, TicketCollection.countAvailable(1, false));
+        assertEquals(1120, TicketCollection.soldRevenue(1));
+    }
+
+    @Test
+    @DisplayName("A change the journal refuses leaves the row as it was")
+    void testRefusedChangeLeavesRow() {
+        Flight other = new Flight(2, "Brisbane", "Sydney", "QF2", "Quantas",
+                Timestamp.valueOf("2025-08-01 11:00:00"), Timestamp.valueOf("2025-08-01 12:30:00"), airplane);
+        TicketCollection.useStore(new TicketStore());
+        TicketCollection.addTickets(new ArrayList<>(List.of(new Ticket(10, 1000, flight, false, passenger))));
+        Ticket ticket = TicketCollection.getTicketInfo(10);
+
+        try (MockedStatic<BookingJournal> journal = mockStatic(BookingJournal.class, CALLS_REAL_METHODS)) {
+            journal.when(() -> BookingJournal.ticketChanged(any()))
+                    .thenThrow(new IllegalStateException("Booking journal could not be written"));
+            assertThrows(IllegalStateException.class, () -> ticket.setTicketStatus(true));
+            assertThrows(IllegalStateException.class, () -> ticket.setFlight(other));
+        }
+
+        Ticket row = TicketCollection.getTicketInfo(10);
+        assertFalse(row.ticketStatus());
+        assertSame(flight, row.getFlight());
+        assertEquals(1, TicketCollection.countAvailable(1, false));
+    }
+
+    @Test
+    @DisplayName("A bad fare anywhere in the columns leaves every row at its old fare")
+    void testRepriceColumnsAllOrNothing() {
+        TicketCollection.useStore(new TicketStore());
+        TicketCollection.addTickets(new ArrayList<>(List.of(
+                new Ticket(10, 1000, flight, false, passenger),
+                new Ticket(11, 2000, flight, false, passenger))));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> TicketCollection.repriceUnsold(new int[]{1}, fare -> fare == 2000 ? -1 : fare * 2));
+        assertEquals(1000, TicketCollection.getTicketInfo(10).getBaseFare());
+        assertEquals(2000, TicketCollection.getTicketInfo(11).getBaseFare());
+    }
+
+    @Test
+    @DisplayName("Store repricing touches only the unsold rows of the flights asked for")
+    void testRepriceColumnsPerFlight() {
+        Flight other = Flight.createValidated(2, "Sydney", "Perth", "QF2", "Quantas", null, null, null);
+        TicketCollection.useStore(new TicketStore());
+        TicketCollection.addTickets(new ArrayList<>(List.of(
+                new Ticket(10, 1000, flight, false, passenger),
+                new Ticket(11, 1000, flight, true, passenger),
+                Ticket.restore(12, 1000, 1000, flight, false, true, false, passenger),
+                new Ticket(13, 1000, other, false, passenger))));
+
+        assertEquals(2, TicketCollection.repriceUnsold(new int[]{1, 1}, fare -> fare * 2));
+        assertEquals(2000, TicketCollection.getTicketInfo(10).getBaseFare());
+        assertEquals(2000, TicketCollection.getTicketInfo(11).getBaseFare());
+        assertEquals(1000, TicketCollection.getTicketInfo(12).getBaseFare());
+        assertEquals(1000, TicketCollection.getTicketInfo(13).getBaseFare());
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Scan throughput, objects compared with columns")
+    void testScanThroughput(TestReporter reporter) {
+        int count = Integer.getInteger("store.bench.tickets", 1_000_000);
+        int flights = 1_000;
+        Flight[] schedule = new Flight[flights];
+        for (int f = 0; f < flights; f++) {
+            schedule[f] = Flight.createValidated(f + 1, "Sydney", "Melbourne", "QF" + f, "Quantas", null, null, null);
+        }
+        ArrayList<Ticket> inventory = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            inventory.add(Ticket.restore(i, 1000, 1000, schedule[i % flights], i % 10 == 0, i % 5 == 0, false, passenger));
+        }
+        TicketCollection.tickets = inventory;
+        long objects = scanRevenue();
+        TicketCollection.useStore(new TicketStore());
+        long columns = scanRevenue();
+
+        long expected = 0;
+        for (int i = 0; i < count; i += flights) {
+            expected += i % 5 == 0 ? 1000 : 0;
+        }
+        assertEquals(expected, TicketCollection.soldRevenue(1));
+
+        reporter.publishEntry("scan", String.format("Revenue scan of %d tickets: objects %.0f tickets/s, columns %.0f tickets/s",
+                count, count / (objects / 1e9), count / (columns / 1e9)));
+    }
+
+    @Test
+    @DisplayName("Heap use and full GC time, ticket objects compared with off-heap records")
+    void testOffHeapFootprint(TestReporter reporter) {
+        int count = Integer.getInteger("offheap.bench.tickets", 1_000_000);
+        Flight[] schedule = new Flight[1_000];
+        for (int f = 0; f < schedule.length; f++) {
+            schedule[f] = Flight.createValidated(f + 1, "Sydney", "Melbourne", "QF" + f, "Quantas", null, null, null);
+        }
+        // a passenger per ticket, as in a real inventory; they stay on the heap either way, so the baseline holds them
+        Passenger[] people = new Passenger[count];
+        for (int i = 0; i < count; i++) {
+            people[i] = new Passenger();
+        }
+
+        long baseline = usedHeapAfterGc();
+        ArrayList<Ticket> inventory = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            inventory.add(Ticket.restore(i, 1000, 1000, schedule[i % schedule.length], i % 10 == 0, false, false, people[i]));
+        }
+        TicketCollection.addTickets(inventory);
+        inventory = null;
+        long objectHeap = usedHeapAfterGc() - baseline;
+        long objectGc = timeFullGc();
+
+        TicketCollection.tickets = new ArrayList<>();
+        TicketCollection.useStore(TicketStore.offHeap());
+        baseline = usedHeapAfterGc();
+        for (int from = 0; from < count; from += 100_000) {
+            ArrayList<Ticket> batch = new ArrayList<>(100_000);
+            for (int i = from; i < Math.min(count, from + 100_000); i++) {
+                batch.add(Ticket.restore(i, 1000, 1000, schedule[i % schedule.length], i % 10 == 0, false, false, people[i]));
+            }
+            TicketCollection.addTickets(batch);
+        }
+        long offHeap = usedHeapAfterGc() - baseline;
+        long offHeapGc = timeFullGc();
+
+        assertEquals(count, TicketCollection.getStore().size());
+        assertEquals(count - 1, TicketCollection.getTicketInfo(count - 1).getTicket_id());
+        assertSame(people[count - 1], TicketCollection.getTicketInfo(count - 1).getPassenger());
+        assertTrue(offHeap < objectHeap / 4, "Off-heap tickets should barely touch the heap");
+        reporter.publishEntry("footprint", String.format(
+                "%d tickets, %d passengers: objects %d KB heap, full GC %.1f ms; off-heap %d KB heap, full GC %.1f ms",
+                count, count, objectHeap / 1024, objectGc / 1e6, offHeap / 1024, offHeapGc / 1e6));
+    }
+
+    private static long usedHeapAfterGc() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static long timeFullGc() {
+        long start = System.nanoTime();
+        System.gc();
+        return System.nanoTime() - start;
+    }
+
+    // Best of a few revenue scans of flight 1, in nanoseconds
+    private static long scanRevenue() {
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < 5; round++) {
+            long start = System.nanoTime();
+            TicketCollection.soldRevenue(1);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+}
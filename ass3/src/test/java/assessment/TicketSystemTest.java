@@ -14,7 +14,9 @@ import java.io.InputStream;
 import java.io.PrintStream;
 import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Scanner;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -88,23 +90,27 @@ public class TicketSystemTest {
         try (MockedStatic<FlightCollection> mockedFlightCollection = mockStatic(FlightCollection.class)) {
             // Mock FlightCollection to return a flight for valid cities
             when(mockFlight.getAirplane()).thenReturn(mockAirplane);
-            mockedFlightCollection.when(() -> FlightCollection.getFlightInfo(validCity1, validCity2))
-                    .thenReturn(mockFlight);
+            mockedFlightCollection.when(() -> FlightCollection.getFlightsInfo(validCity1, validCity2))
+                    .thenReturn(List.of(mockFlight));
 
             // Set up input simulation for scanner
             String userInput = "1\n"; // Just the ticket ID is needed now
             System.setIn(new ByteArrayInputStream(userInput.getBytes()));
             spySystem.setScanner(new Scanner(System.in));
 
-            // Mock TicketCollection getAllTickets to avoid NullPointerException
+            // Mock TicketCollection to offer one unsold ticket on the flight
             try (MockedStatic<TicketCollection> mockedTicketCollection = mockStatic(TicketCollection.class)) {
-                mockedTicketCollection.when(TicketCollection::getAllTickets).thenAnswer(invocation -> null);
+                when(mockTicket.getFlight()).thenReturn(mockFlight);
+                mockedTicketCollection.when(() -> TicketCollection.getAvailableTickets(mockFlight.getFlightID()))
+                        .thenReturn(List.of(mockTicket));
+                mockedTicketCollection.when(() -> TicketCollection.getTicketInfo(1))
+                        .thenReturn(mockTicket);
 
                 // Act - should not throw exception
                 assertDoesNotThrow(() -> spySystem.chooseTicket(validCity1, validCity2));
 
                 // Verify FlightCollection was called with valid city names
-                mockedFlightCollection.verify(() -> FlightCollection.getFlightInfo(validCity1, validCity2));
+                mockedFlightCollection.verify(() -> FlightCollection.getFlightsInfo(validCity1, validCity2));
 
                 // Verify buyTicket was called with ticket ID 1
                 verify(spySystem).buyTicket(1);
@@ -284,6 +290,8 @@ public class TicketSystemTest {
 
             // Set up airplane with available seats
             when(airplane.getEconomySitsNumber()).thenReturn(50);
+            when(airplane.reserveEconomySeat()).thenReturn(true);
+            when(airplane.claimEconomySeat()).thenReturn("C1");
 
             mockedTicketCollection.when(() -> TicketCollection.getTicketInfo(ticketId))
                     .thenReturn(availableTicket);
@@ -299,8 +307,47 @@ public class TicketSystemTest {
             // Verify ticket was marked as booked
             verify(availableTicket).setTicketStatus(true);
 
-            // Verify seat count was decremented
-            verify(airplane).setEconomySitsNumber(49);
+            // Verify a seat was reserved
+            verify(airplane).reserveEconomySeat();
+        }
+    }
+
+    @Test
+    @DisplayName("Losing the last seat to another buyer leaves the ticket untouched")
+    void testBuyTicket_SeatTakenDuringPurchase() throws Exception {
+        // Arrange
+        int ticketId = 100;
+        String validInput = "John\nDoe\n30\nMale\njohn@example.com\n+61 412345678\nP1234567\n1\n4111111111111111\n123\n";
+
+        try (MockedStatic<TicketCollection> mockedTicketCollection = mockStatic(TicketCollection.class);
+             MockedStatic<FlightCollection> mockedFlightCollection = mockStatic(FlightCollection.class)) {
+
+            Ticket availableTicket = mock(Ticket.class);
+            Flight flight = mock(Flight.class);
+            Airplane airplane = mock(Airplane.class);
+
+            when(availableTicket.ticketStatus()).thenReturn(false);
+            when(availableTicket.getFlight()).thenReturn(flight);
+            when(availableTicket.getClassVip()).thenReturn(false);
+            when(flight.getFlightID()).thenReturn(1);
+            when(flight.getAirplane()).thenReturn(airplane);
+
+            // A seat looks free when checked, but is gone by the time the buyer confirms
+            when(airplane.getEconomySitsNumber()).thenReturn(1);
+            when(airplane.reserveEconomySeat()).thenReturn(false);
+
+            mockedTicketCollection.when(() -> TicketCollection.getTicketInfo(ticketId))
+                    .thenReturn(availableTicket);
+            mockedFlightCollection.when(() -> FlightCollection.getFlightInfo(1))
+                    .thenReturn(flight);
+
+            ticketSystem.setScanner(new Scanner(validInput));
+
+            // Act & Assert
+            Exception exception = assertThrows(IllegalStateException.class,
+                    () -> ticketSystem.buyTicket(ticketId));
+            assertEquals("No economy class seats available on flight 1.", exception.getMessage());
+            verify(availableTicket, never()).setTicketStatus(true);
         }
     }
 
@@ -330,7 +377,8 @@ public class TicketSystemTest {
             when(availableTicket.ticketStatus()).thenReturn(false);
             when(availableTicket.getFlight()).thenReturn(flight);
             when(availableTicket.getClassVip()).thenReturn(false);
-            when(availableTicket.getPrice()).thenReturn(originalPrice).thenReturn(finalPrice);
+            when(availableTicket.getBaseFare()).thenReturn(originalPrice);
+            when(availableTicket.getPrice()).thenReturn(finalPrice);
 
             // Set up flight
             when(flight.getFlightID()).thenReturn(1);
@@ -338,6 +386,8 @@ public class TicketSystemTest {
 
             // Set up airplane
             when(airplane.getEconomySitsNumber()).thenReturn(50);
+            when(airplane.reserveEconomySeat()).thenReturn(true);
+            when(airplane.claimEconomySeat()).thenReturn("C1");
 
             mockedTicketCollection.when(() -> TicketCollection.getTicketInfo(ticketId))
                     .thenReturn(availableTicket);
@@ -401,7 +451,11 @@ public class TicketSystemTest {
 
             // Set up airplanes
             when(firstAirplane.getEconomySitsNumber()).thenReturn(50);
+            when(firstAirplane.reserveEconomySeat()).thenReturn(true);
+            when(firstAirplane.claimEconomySeat()).thenReturn("C1");
             when(secondAirplane.getBusinessSitsNumber()).thenReturn(10);
+            when(secondAirplane.reserveBusinessSeat()).thenReturn(true);
+            when(secondAirplane.claimBusinessSeat()).thenReturn("A1");
 
             mockedTicketCollection.when(() -> TicketCollection.getTicketInfo(firstTicketId))
                     .thenReturn(firstTicket);
@@ -420,8 +474,8 @@ public class TicketSystemTest {
             // Assert
             verify(firstTicket).setTicketStatus(true);
             verify(secondTicket).setTicketStatus(true);
-            verify(firstAirplane).setEconomySitsNumber(49);
-            verify(secondAirplane).setBusinessSitsNumber(9);
+            verify(firstAirplane).reserveEconomySeat();
+            verify(secondAirplane).reserveBusinessSeat();
 
             String output = outContent.toString();
             assertTrue(output.contains("Your total bill: $1300")); // 500 + 800
@@ -550,8 +604,6 @@ public class TicketSystemTest {
 
             when(flight1.getFlightID()).thenReturn(1);
             when(flight2.getFlightID()).thenReturn(2);
-            when(flight2.getDepartFrom()).thenReturn(transferCity);
-            when(flight2.getDepartTo()).thenReturn(city2);
 
             // Create available tickets
             Ticket ticket1 = mock(Ticket.class);
@@ -565,18 +617,15 @@ public class TicketSystemTest {
             when(ticket2.getFlight()).thenReturn(flight2);
             when(ticket2.ticketStatus()).thenReturn(false);
 
-            ArrayList<Flight> allFlights = new ArrayList<>();
-            allFlights.add(flight1);
-            allFlights.add(flight2);
-
-            ArrayList<Ticket> allTickets = new ArrayList<>();
-            allTickets.add(ticket1);
-            allTickets.add(ticket2);
-
-            mockedFlightCollection.when(FlightCollection::getFlights).thenReturn(allFlights);
-            mockedFlightCollection.when(() -> FlightCollection.getFlightInfo(city1, transferCity))
-                    .thenReturn(flight1);
-            mockedTicketCollection.when(TicketCollection::getTickets).thenReturn(allTickets);
+            // City graph Melbourne -> Sydney -> Perth (getFlightsInfo takes the arrival city first)
+            mockedFlightCollection.when(() -> FlightCollection.getDestinationsFrom(city1)).thenReturn(Set.of(transferCity));
+            mockedFlightCollection.when(() -> FlightCollection.getDestinationsFrom(transferCity)).thenReturn(Set.of(city2));
+            mockedFlightCollection.when(() -> FlightCollection.getOriginsTo(city2)).thenReturn(Set.of(transferCity));
+            mockedFlightCollection.when(() -> FlightCollection.getOriginsTo(transferCity)).thenReturn(Set.of(city1));
+            mockedFlightCollection.when(() -> FlightCollection.getFlightsInfo(transferCity, city1)).thenReturn(List.of(flight1));
+            mockedFlightCollection.when(() -> FlightCollection.getFlightsInfo(city2, transferCity)).thenReturn(List.of(flight2));
+            mockedTicketCollection.when(() -> TicketCollection.getAvailableTickets(1)).thenReturn(List.of(ticket1));
+            mockedTicketCollection.when(() -> TicketCollection.getAvailableTickets(2)).thenReturn(List.of(ticket2));
 
             // Set up scanner to confirm booking
             String userInput = "1\n"; // Confirm transfer booking
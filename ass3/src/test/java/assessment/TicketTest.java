@@ -164,6 +164,16 @@ class TicketTest {
         assertEquals(560, ticket.getPrice());
     }
 
+    @Test
+    @DisplayName("Setting the same price twice does not compound discount or tax")
+    void testSetPriceTwice() {
+        ticket.setPrice(1000);
+        ticket.setPrice(1000);
+
+        assertEquals(1120, ticket.getPrice());
+        assertEquals(1000, ticket.getBaseFare());
+    }
+
     /**
      * Tests for Requirement 4: Service tax should always apply upon ticket sale
      */
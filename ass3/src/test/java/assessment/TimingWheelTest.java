@@ -0,0 +1,87 @@
+package assessment;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the hashed timing wheel {@link TimingWheel}.
+ */
+public class TimingWheelTest {
+
+    @Test
+    @DisplayName("Timeouts fire once their deadline has passed, never early")
+    void testFiresAtDeadline() {
+        TimingWheel<String> wheel = new TimingWheel<>(0, 10, 8);
+        wheel.schedule("a", 25);
+        wheel.schedule("b", 30);
+        wheel.schedule("c", 5);
+        List<String> fired = new ArrayList<>();
+
+        assertEquals(0, wheel.advance(0, fired::add));
+        assertEquals(1, wheel.advance(19, fired::add)); // c is due at tick 1
+        assertEquals(List.of("c"), fired);
+        assertEquals(0, wheel.advance(29, fired::add));
+        assertEquals(2, wheel.advance(30, fired::add));
+        assertTrue(fired.containsAll(List.of("a", "b")));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    @DisplayName("Deadlines more than one turn away stay put until their turn comes")
+    void testLaterTurnsShareBuckets() {
+        TimingWheel<String> wheel = new TimingWheel<>(0, 10, 4); // one turn is 40 ms
+        wheel.schedule("soon", 10);
+        wheel.schedule("three turns", 130);
+        List<String> fired = new ArrayList<>();
+
+        wheel.advance(50, fired::add);
+        assertEquals(List.of("soon"), fired);
+        wheel.advance(129, fired::add);
+        assertEquals(List.of("soon"), fired);
+        wheel.advance(130, fired::add);
+        assertEquals(List.of("soon", "three turns"), fired);
+    }
+
+    @Test
+    @DisplayName("A long idle gap fires everything due in a single turn")
+    void testLongGap() {
+        TimingWheel<Integer> wheel = new TimingWheel<>(1000, 1, 16);
+        for (int i = 0; i < 100; i++) {
+            wheel.schedule(i, 1000 + i * 7);
+        }
+        List<Integer> fired = new ArrayList<>();
+        assertEquals(100, wheel.advance(1_000_000, fired::add));
+        assertEquals(100, fired.size());
+    }
+
+    @Test
+    @DisplayName("Cancelled timeouts never fire and past deadlines fire on the next advance")
+    void testCancelAndPastDeadline() {
+        TimingWheel<String> wheel = new TimingWheel<>(0, 10, 8);
+        TimingWheel.Timeout<String> cancelled = wheel.schedule("cancelled", 20);
+        wheel.schedule("kept", 20);
+        assertTrue(wheel.cancel(cancelled));
+        assertFalse(wheel.cancel(cancelled));
+        assertFalse(cancelled.isPending());
+
+        List<String> fired = new ArrayList<>();
+        wheel.advance(100, fired::add);
+        assertEquals(List.of("kept"), fired);
+
+        TimingWheel.Timeout<String> late = wheel.schedule("late", 50);
+        assertEquals(1, wheel.advance(110, fired::add));
+        assertFalse(late.isPending());
+    }
+
+    @Test
+    @DisplayName("Invalid tick or wheel size")
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new TimingWheel<String>(0, 0, 8));
+        assertThrows(IllegalArgumentException.class, () -> new TimingWheel<String>(0, 10, 0));
+    }
+}